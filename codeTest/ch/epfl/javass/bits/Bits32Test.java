@@ -251,4 +251,33 @@ public final class Bits32Test {
             Bits32.pack(0, 4, 0, 4, 0, 5, 0, 5, 0, 5, 0, 5, 0, 5);
         });
     }
+
+    @Test
+    void uncheckedMaskAndExtractMatchCheckedOnes() {
+        SplittableRandom rng = newRandom();
+        for (int size = 0; size <= Integer.SIZE; ++size) {
+            for (int start = 0; start <= Integer.SIZE - size; ++start) {
+                assertEquals(Bits32.mask(start, size), Bits32.maskUnchecked(start, size));
+                int bits = rng.nextInt();
+                assertEquals(Bits32.extract(bits, start, size), Bits32.extractUnchecked(bits, start, size));
+            }
+        }
+    }
+
+    @Test
+    void uncheckedPackMatchesCheckedPack() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            int[] s2 = getSizes(rng, 2);
+            int[] v2 = getValues(rng, s2);
+            assertEquals(Bits32.pack(v2[0], s2[0], v2[1], s2[1]), Bits32.packUnchecked(v2[0], s2[0], v2[1], s2[1]));
+            int[] s3 = getSizes(rng, 3);
+            int[] v3 = getValues(rng, s3);
+            assertEquals(Bits32.pack(v3[0], s3[0], v3[1], s3[1], v3[2], s3[2]), Bits32.packUnchecked(v3[0], s3[0], v3[1], s3[1], v3[2], s3[2]));
+            int[] s = getSizes(rng, 7);
+            int[] v = getValues(rng, s);
+            assertEquals(Bits32.pack(v[0], s[0], v[1], s[1], v[2], s[2], v[3], s[3], v[4], s[4], v[5], s[5], v[6], s[6]),
+                    Bits32.packUnchecked(v[0], s[0], v[1], s[1], v[2], s[2], v[3], s[3], v[4], s[4], v[5], s[5], v[6], s[6]));
+        }
+    }
 }
@@ -168,4 +168,26 @@ public final class Bits64Test {
             Bits64.pack(0, 32, 0, 33);
         });
     }
+
+    @Test
+    void uncheckedMaskAndExtractMatchCheckedOnes() {
+        SplittableRandom rng = newRandom();
+        for (int size = 0; size <= Long.SIZE; ++size) {
+            for (int start = 0; start <= Long.SIZE - size; ++start) {
+                assertEquals(Bits64.mask(start, size), Bits64.maskUnchecked(start, size));
+                long bits = rng.nextLong();
+                assertEquals(Bits64.extract(bits, start, size), Bits64.extractUnchecked(bits, start, size));
+            }
+        }
+    }
+
+    @Test
+    void uncheckedPackMatchesCheckedPack() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            int[] s = getSizes(rng, 2);
+            long[] v = getValues(rng, s);
+            assertEquals(Bits64.pack(v[0], s[0], v[1], s[1]), Bits64.packUnchecked(v[0], s[0], v[1], s[1]));
+        }
+    }
 }
@@ -253,4 +253,25 @@ public final class CardSetTest {
             assertEquals(s1.hashCode(), s2.hashCode());
         }
     }
+
+    @Test
+    void forEachGivesTheCardsOfGet() {
+        SplittableRandom rng = newRandom();
+        List<Card> cs = new ArrayList<>(listOfAllCards());
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            Collections.shuffle(cs, new Random(rng.nextLong()));
+            CardSet set = CardSet.of(cs.subList(0, rng.nextInt(cs.size())));
+            List<Card> seen = new ArrayList<>();
+            set.forEach(seen::add);
+            assertEquals(set.size(), seen.size());
+            for (int j = 0; j < seen.size(); ++j)
+                assertEquals(set.get(j), seen.get(j));
+        }
+    }
+
+    @Test
+    void toStringShowsAllTheCards() {
+        CardSet s = CardSet.EMPTY.add(Card.of(Color.SPADE, Rank.SIX)).add(Card.of(Color.CLUB, Rank.ACE));
+        assertEquals("{" + Card.of(Color.SPADE, Rank.SIX) + "," + Card.of(Color.CLUB, Rank.ACE) + "}", s.toString());
+    }
 }
@@ -3,6 +3,7 @@ package ch.epfl.javass.jass;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.Arrays;
@@ -118,6 +119,17 @@ public final class CardTest {
         }
     }
 
+    @Test
+    void ofAndOfPackedReturnTheSameInstance() throws Exception {
+        for (Card.Color c: getAllColors()) {
+            for (Card.Rank r: getAllRanks()) {
+                Card card = Card.of(c, r);
+                assertSame(card, Card.of(c, r));
+                assertSame(card, Card.ofPacked(PackedCard.pack(c, r)));
+            }
+        }
+    }
+
     @Test
     void isBetterWorksWithTrumpAndNonTrumpCards() throws Exception {
         for (Card.Color trump: getAllColors()) {
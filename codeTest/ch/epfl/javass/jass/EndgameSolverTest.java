@@ -0,0 +1,132 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.test.TestRandomizer.RANDOM_ITERATIONS;
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.javass.jass.Card.Color;
+
+public class EndgameSolverTest {
+    private static long[] randomDeal(SplittableRandom rng) {
+        long[] hands = new long[PlayerId.COUNT];
+        long remaining = PackedCardSet.ALL_CARDS;
+        for (int p = 0; p < PlayerId.COUNT; ++p) {
+            while (PackedCardSet.size(hands[p]) < Jass.HAND_SIZE) {
+                int c = PackedCardSet.get(remaining, rng.nextInt(PackedCardSet.size(remaining)));
+                hands[p] = PackedCardSet.add(hands[p], c);
+                remaining = PackedCardSet.remove(remaining, c);
+            }
+        }
+        return hands;
+    }
+
+    // plays random cards on the deal until at most the given number of cards are left, returns the score and sets trick[0]
+    private static long playUntil(int cardsLeft, long[] hands, int[] trick, SplittableRandom rng) {
+        long score = PackedScore.INITIAL;
+        int left = Jass.TRICKS_PER_TURN * PlayerId.COUNT;
+        while (left > cardsLeft) {
+            int player = PackedTrick.player(trick[0], PackedTrick.size(trick[0])).ordinal();
+            long playable = PackedTrick.playableCards(trick[0], hands[player]);
+            int c = PackedCardSet.get(playable, rng.nextInt(PackedCardSet.size(playable)));
+            hands[player] = PackedCardSet.remove(hands[player], c);
+            trick[0] = PackedTrick.withAddedCard(trick[0], c);
+            if (PackedTrick.isFull(trick[0])) {
+                score = PackedScore.withAdditionalTrick(score, PackedTrick.winningPlayer(trick[0]).team(), PackedTrick.points(trick[0]));
+                trick[0] = PackedTrick.nextEmpty(trick[0]);
+            }
+            --left;
+        }
+        return score;
+    }
+
+    private static int minimax(long score, int trick, long[] hands, TeamId team) {
+        if (trick == PackedTrick.INVALID)
+            return PackedScore.turnPoints(score, team);
+        PlayerId player = PackedTrick.player(trick, PackedTrick.size(trick));
+        boolean maximizing = player.team() == team;
+        long hand = hands[player.ordinal()];
+        long playable = PackedTrick.playableCards(trick, hand);
+        int best = maximizing ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        for (int i = 0; i < PackedCardSet.size(playable); ++i) {
+            int c = PackedCardSet.get(playable, i);
+            int t = PackedTrick.withAddedCard(trick, c);
+            long s = score;
+            if (PackedTrick.isFull(t)) {
+                s = PackedScore.withAdditionalTrick(s, PackedTrick.winningPlayer(t).team(), PackedTrick.points(t));
+                t = PackedTrick.nextEmpty(t);
+            }
+            hands[player.ordinal()] = PackedCardSet.remove(hand, c);
+            int v = minimax(s, t, hands, team);
+            hands[player.ordinal()] = hand;
+            best = maximizing ? Math.max(best, v) : Math.min(best, v);
+        }
+        return best;
+    }
+
+    @Test
+    void solveGivesTheMinimaxValue() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS / 10; ++i) {
+            long[] hands = randomDeal(rng);
+            int[] trick = { PackedTrick.firstEmpty(Color.ALL.get(rng.nextInt(Color.COUNT)), PlayerId.ALL.get(rng.nextInt(PlayerId.COUNT))) };
+            long score = playUntil(1 + rng.nextInt(10), hands, trick, rng);
+            TeamId team = TeamId.ALL.get(rng.nextInt(TeamId.COUNT));
+
+            EndgameSolver solver = new EndgameSolver(12, team);
+            long solved = solver.solve(score, trick[0], hands);
+            assertEquals(minimax(score, trick[0], hands, team), PackedScore.turnPoints(solved, team));
+            assertEquals(Jass.TRICKS_PER_TURN,
+                    PackedScore.turnTricks(solved, TeamId.TEAM_1) + PackedScore.turnTricks(solved, TeamId.TEAM_2));
+        }
+    }
+
+    @Test
+    void solveReusesItsCacheOnlyForTheSameDeal() {
+        SplittableRandom rng = newRandom();
+        EndgameSolver solver = new EndgameSolver(12, TeamId.TEAM_1);
+        for (int i = 0; i < RANDOM_ITERATIONS / 10; ++i) {
+            long[] hands = randomDeal(rng);
+            int[] trick = { PackedTrick.firstEmpty(Color.ALL.get(rng.nextInt(Color.COUNT)), PlayerId.PLAYER_1) };
+            long score = playUntil(12, hands, trick, rng);
+            long[] copy = hands.clone();
+
+            long solved = solver.solve(score, trick[0], hands);
+            assertArrayEquals(copy, hands);
+            assertEquals(minimax(score, trick[0], hands, TeamId.TEAM_1), PackedScore.turnPoints(solved, TeamId.TEAM_1));
+        }
+    }
+
+    @Test
+    void appliesOnlyBelowThreshold() {
+        EndgameSolver solver = new EndgameSolver(8, TeamId.TEAM_2);
+        long cards = PackedCardSet.EMPTY;
+        for (int i = 0; i < 12; ++i) {
+            assertEquals(i <= 8, solver.applies(cards));
+            cards = PackedCardSet.add(cards, PackedCardSet.get(PackedCardSet.ALL_CARDS, i));
+        }
+    }
+
+    @Test
+    void solveRandomDealPlaysTheWholeTurn() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS / 10; ++i) {
+            long[] hands = randomDeal(rng);
+            int[] trick = { PackedTrick.firstEmpty(Color.ALL.get(rng.nextInt(Color.COUNT)), PlayerId.PLAYER_3) };
+            long score = playUntil(rng.nextInt(13), hands, trick, rng);
+            long unplayed = PackedCardSet.EMPTY;
+            for (long hand: hands)
+                unplayed = PackedCardSet.union(unplayed, hand);
+            PlayerId mctsId = PlayerId.ALL.get(rng.nextInt(PlayerId.COUNT));
+
+            EndgameSolver solver = new EndgameSolver(12, mctsId.team());
+            long solved = solver.solveRandomDeal(score, unplayed, trick[0], hands[mctsId.ordinal()], mctsId, RolloutPolicy.RANDOM, rng);
+            assertEquals(Jass.TRICKS_PER_TURN,
+                    PackedScore.turnTricks(solved, TeamId.TEAM_1) + PackedScore.turnTricks(solved, TeamId.TEAM_2));
+        }
+    }
+}
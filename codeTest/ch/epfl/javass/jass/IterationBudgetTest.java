@@ -0,0 +1,60 @@
+package ch.epfl.javass.jass;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class IterationBudgetTest {
+    @Test
+    void wholeBudgetIsSpentOverATurn() {
+        IterationBudget b = new IterationBudget(90_000, 100, 90_000);
+        int total = 0;
+        int previous = Integer.MAX_VALUE;
+        for (int hand = Jass.HAND_SIZE; hand >= 2; --hand) {
+            int share = b.next(hand, hand);
+            assertTrue(share <= previous);
+            previous = share;
+            total += share;
+        }
+        assertEquals(90_000, total);
+    }
+
+    @Test
+    void firstDecisionGetsMoreThanAnAverageOne() {
+        IterationBudget b = new IterationBudget(80_000, 100, 80_000);
+        assertTrue(b.next(Jass.HAND_SIZE, Jass.HAND_SIZE) > 80_000 / (Jass.HAND_SIZE - 1));
+    }
+
+    @Test
+    void fewPlayableCardsGetLess() {
+        IterationBudget all = new IterationBudget(80_000, 100, 80_000);
+        IterationBudget two = new IterationBudget(80_000, 100, 80_000);
+        assertTrue(two.next(Jass.HAND_SIZE, 2) < all.next(Jass.HAND_SIZE, Jass.HAND_SIZE));
+    }
+
+    @Test
+    void sharesStayBetweenFloorAndCeiling() {
+        IterationBudget b = new IterationBudget(10_000, 500, 2_000);
+        for (int turn = 0; turn < 3; ++turn) {
+            for (int hand = Jass.HAND_SIZE; hand >= 2; --hand) {
+                int share = b.next(hand, 2);
+                assertTrue(share >= 500 && share <= 2_000);
+            }
+        }
+    }
+
+    @Test
+    void newTurnRestoresTheBudget() {
+        IterationBudget b = new IterationBudget(50_000, 100, 50_000);
+        int first = b.next(Jass.HAND_SIZE, 5);
+        b.next(Jass.HAND_SIZE - 1, 5);
+        // a bigger hand starts a new turn
+        assertEquals(first, b.next(Jass.HAND_SIZE, 5));
+        b.next(4, 3);
+        b.reset();
+        int afterReset = b.next(4, 3);
+        IterationBudget fresh = new IterationBudget(50_000, 100, 50_000);
+        assertEquals(fresh.next(4, 3), afterReset);
+    }
+}
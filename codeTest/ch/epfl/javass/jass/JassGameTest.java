@@ -257,6 +257,49 @@ public class JassGameTest {
         });
     }
 
+    @Test
+    void gamesWithShuffleGeneratorsOfTheSameSeedDealTheSameHands() {
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            SplittableRandom rng = newRandom();
+            for (int i = 0; i < RANDOM_ITERATIONS / 10; ++i) {
+                long shuffleSeed = rng.nextLong();
+                List<List<CardSet>> deals = new ArrayList<>();
+                for (int game = 0; game < 2; ++game) {
+                    // the players of the two games play differently, so the games have different lengths
+                    Map<PlayerId, Player> ps = new EnumMap<>(PlayerId.class);
+                    List<CardSet> dealt = new ArrayList<>();
+                    for (PlayerId pId: PlayerId.ALL) {
+                        Player p = (game == 0 ? new TestPlayer(pId, null) : PackedPlayer.of(RolloutPolicy.RANDOM, rng.nextLong()).asPlayer());
+                        ps.put(pId, new Player() {
+                            @Override
+                            public Card cardToPlay(TurnState state, CardSet hand) {
+                                return p.cardToPlay(state, hand);
+                            }
+
+                            @Override
+                            public Color chooseTrump(CardSet hand) {
+                                return p.chooseTrump(hand);
+                            }
+
+                            @Override
+                            public void updateHand(CardSet newHand) {
+                                if (newHand.size() == Jass.HAND_SIZE)
+                                    dealt.add(newHand);
+                            }
+                        });
+                    }
+                    JassGame g = new JassGame(new Random(shuffleSeed), ps, testPlayerNames());
+                    while (! g.isGameOver())
+                        g.advanceToEndOfNextTrick();
+                    deals.add(dealt);
+                }
+                int common = Math.min(deals.get(0).size(), deals.get(1).size());
+                assertTrue(common >= 2 * PlayerId.COUNT);
+                assertEquals(deals.get(0).subList(0, common), deals.get(1).subList(0, common));
+            }
+        });
+    }
+
     @SuppressWarnings("unused")
     private static class TestPlayer implements Player {
         final PlayerId ownId;
@@ -1,10 +1,26 @@
 package ch.epfl.javass.jass;
 
+import static ch.epfl.test.TestRandomizer.newRandom;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.function.BiConsumer;
 
 import org.junit.jupiter.api.Test;
 
@@ -392,6 +408,530 @@ public class MctsPlayerTest {
         });
     }
 
+    @Test
+    void constructorFailsWithTooFewThreads() {
+        for (int t = -2; t < 1; ++t) {
+            int threads = t;
+            assertThrows(IllegalArgumentException.class, () -> {
+                new MctsPlayer(PlayerId.PLAYER_1, 0, ITERATIONS, threads);
+            });
+        }
+    }
+
+    @Test
+    void rootParallelMctsPlayerPlaysCorrectly() {
+        // Our team will win this trick, play the 10 to maximize points
+        MctsPlayer p = new MctsPlayer(PlayerId.PLAYER_4, SEED, ITERATIONS, 4);
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            Card c = p.cardToPlay(partnerWinsTrickState(), partnerWinsTrickHand());
+            assertEquals(Card.of(Color.SPADE, Rank.TEN), c);
+        });
+    }
+
+    @Test
+    void rootParallelMctsPlayerIsReproducible() {
+        TurnState state = TurnState.initial(Color.HEART, Score.INITIAL, PlayerId.PLAYER_1);
+        CardSet hand = CardSet.ALL_CARDS.subsetOfColor(Color.SPADE);
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            for (int threads = 2; threads <= 4; ++threads) {
+                Card c1 = new MctsPlayer(PlayerId.PLAYER_1, SEED, 1_000, threads).cardToPlay(state, hand);
+                Card c2 = new MctsPlayer(PlayerId.PLAYER_1, SEED, 1_000, threads).cardToPlay(state, hand);
+                assertEquals(c1, c2);
+            }
+        });
+    }
+
+    @Test
+    void treeParallelMctsPlayerPlaysCorrectly() {
+        // Our team will win this trick, play the 10 to maximize points
+        for (int threads = 1; threads <= 4; threads *= 2) {
+            MctsPlayer p = new MctsPlayer(PlayerId.PLAYER_4, SEED, ITERATIONS, threads, MctsPlayer.Engine.TREE_PARALLEL);
+            assertTimeoutPreemptively(TIMEOUT, () -> {
+                Card c = p.cardToPlay(partnerWinsTrickState(), partnerWinsTrickHand());
+                assertEquals(Card.of(Color.SPADE, Rank.TEN), c);
+            });
+        }
+    }
+
+    @Test
+    void treeParallelMctsPlayerOnlyPlaysPlayableCards() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < 20; ++i) {
+            CardSet hand = CardSet.EMPTY;
+            while (hand.size() < 9)
+                hand = hand.add(CardSet.ALL_CARDS.get(rng.nextInt(CardSet.ALL_CARDS.size())));
+            TurnState state = TurnState.initial(Color.ALL.get(rng.nextInt(Color.COUNT)), Score.INITIAL, PlayerId.PLAYER_1);
+            CardSet others = hand.complement();
+            state = state.withNewCardPlayed(others.get(rng.nextInt(others.size())));
+            MctsPlayer p = new MctsPlayer(PlayerId.PLAYER_2, i, 200, 3, MctsPlayer.Engine.TREE_PARALLEL);
+            assertTrue(state.trick().playableCards(hand).contains(p.cardToPlay(state, hand)));
+        }
+    }
+
+    @Test
+    void timeBudgetedMctsPlayerPlaysCorrectly() {
+        // Our team will win this trick, play the 10 to maximize points
+        MctsPlayer p = new MctsPlayer(PlayerId.PLAYER_4, SEED, MctsSettings.ofTimeBudget(0.5));
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            Card c = p.cardToPlay(partnerWinsTrickState(), partnerWinsTrickHand());
+            assertEquals(Card.of(Color.SPADE, Rank.TEN), c);
+        });
+    }
+
+    @Test
+    void timeBudgetedMctsPlayerRespectsItsBudget() {
+        TurnState state = TurnState.initial(Color.HEART, Score.INITIAL, PlayerId.PLAYER_1);
+        CardSet hand = CardSet.ALL_CARDS.subsetOfColor(Color.SPADE);
+        for (MctsPlayer.Engine engine: MctsPlayer.Engine.values()) {
+            MctsPlayer p = new MctsPlayer(PlayerId.PLAYER_1, SEED, MctsSettings.ofTimeBudget(0.2).withThreads(2).withEngine(engine));
+            long t0 = System.nanoTime();
+            p.cardToPlay(state, hand);
+            long elapsedMillis = (System.nanoTime() - t0) / 1_000_000;
+            assertTrue(elapsedMillis >= 200 && elapsedMillis < 2_000);
+        }
+    }
+
+    @Test
+    void timeBudgetedMctsPlayerStopsAtMaximumIterations() {
+        TurnState state = TurnState.initial(Color.HEART, Score.INITIAL, PlayerId.PLAYER_1);
+        CardSet hand = CardSet.ALL_CARDS.subsetOfColor(Color.SPADE);
+        MctsPlayer p = new MctsPlayer(PlayerId.PLAYER_1, SEED, MctsSettings.ofTimeBudget(100).withIterationBounds(100, 200));
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            p.cardToPlay(state, hand);
+        });
+    }
+
+    @Test
+    void iterationBoundedMctsPlayerIgnoresDeadline() {
+        TurnState state = TurnState.initial(Color.HEART, Score.INITIAL, PlayerId.PLAYER_1);
+        CardSet hand = CardSet.ALL_CARDS.subsetOfColor(Color.SPADE);
+        Card c1 = new MctsPlayer(PlayerId.PLAYER_1, SEED, 1_000).cardToPlay(state, hand);
+        Card c2 = new MctsPlayer(PlayerId.PLAYER_1, SEED, 1_000).cardToPlay(state, hand, System.nanoTime() + 100_000_000L);
+        assertEquals(c1, c2);
+    }
+
+    @Test
+    void treeReusingMctsPlayersPlayWholeTurnCorrectly() {
+        for (MctsPlayer.Engine engine: MctsPlayer.Engine.values()) {
+            Map<PlayerId, MctsPlayer> players = mctsPlayers(MctsSettings.ofIterations(500).withEngine(engine).withThreads(2));
+            TurnState state = playWholeTurn(players, randomHands(newRandom()), TurnState.initial(Color.DIAMOND, Score.INITIAL, PlayerId.PLAYER_3));
+            assertEquals(157, state.score().turnPoints(TeamId.TEAM_1) + state.score().turnPoints(TeamId.TEAM_2)
+                    - (state.score().turnTricks(TeamId.TEAM_1) == 9 || state.score().turnTricks(TeamId.TEAM_2) == 9 ? 100 : 0));
+        }
+    }
+
+    @Test
+    void treeReusingMctsPlayerIgnoresUnrelatedStates() {
+        // the tree of a decision about another hand must not be reused
+        MctsPlayer p = new MctsPlayer(PlayerId.PLAYER_4, SEED, ITERATIONS);
+        TurnState other = TurnState.initial(Color.CLUB, Score.INITIAL, PlayerId.PLAYER_4);
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            p.cardToPlay(other, CardSet.ALL_CARDS.subsetOfColor(Color.HEART));
+            Card c = p.cardToPlay(partnerWinsTrickState(), partnerWinsTrickHand());
+            assertEquals(Card.of(Color.SPADE, Rank.TEN), c);
+        });
+    }
+
+    @Test
+    void informationSetMctsPlayerPlaysCorrectly() {
+        // Our team will win this trick, play the 10 to maximize points
+        for (int threads = 1; threads <= 4; threads *= 4) {
+            MctsPlayer p = new MctsPlayer(PlayerId.PLAYER_4, SEED, ITERATIONS, threads, MctsPlayer.Engine.INFORMATION_SET);
+            assertTimeoutPreemptively(TIMEOUT, () -> {
+                Card c = p.cardToPlay(partnerWinsTrickState(), partnerWinsTrickHand());
+                assertEquals(Card.of(Color.SPADE, Rank.TEN), c);
+            });
+        }
+    }
+
+    @Test
+    void informationSetMctsPlayerFailsWithInconsistentHand() {
+        MctsPlayer p = new MctsPlayer(PlayerId.PLAYER_4, SEED, ITERATIONS, 1, MctsPlayer.Engine.INFORMATION_SET);
+        assertThrows(IllegalArgumentException.class, () -> {
+            p.cardToPlay(partnerWinsTrickState(), partnerWinsTrickHand().remove(Card.of(Color.HEART, Rank.JACK)));
+        });
+    }
+
+    @Test
+    void informationSetMctsPlayersPlayWholeGame() {
+        playWholeGame(mctsPlayers(MctsSettings.ofIterations(200).withEngine(MctsPlayer.Engine.INFORMATION_SET)), TIMEOUT);
+    }
+
+    @Test
+    void transpositionTableMctsPlayerPlaysCorrectly() {
+        // Our team will win this trick, play the 10 to maximize points
+        for (int entries: new int[] { 16, 1 << 16 }) {
+            MctsPlayer p = new MctsPlayer(PlayerId.PLAYER_4, SEED, MctsSettings.ofIterations(ITERATIONS).withTranspositionTable(entries));
+            assertTimeoutPreemptively(TIMEOUT, () -> {
+                Card c = p.cardToPlay(partnerWinsTrickState(), partnerWinsTrickHand());
+                assertEquals(Card.of(Color.SPADE, Rank.TEN), c);
+            });
+            assertTrue(p.transpositionHits() > 0 && p.transpositionHits() <= p.transpositionLookups());
+            assertTrue(p.transpositionsShared() > 0 && p.transpositionsShared() <= p.transpositionHits());
+        }
+    }
+
+    @Test
+    void mctsPlayerWithoutTranspositionTableCountsNothing() {
+        MctsPlayer p = new MctsPlayer(PlayerId.PLAYER_4, SEED, 1_000);
+        p.cardToPlay(partnerWinsTrickState(), partnerWinsTrickHand());
+        assertEquals(0, p.transpositionLookups());
+        assertEquals(0, p.transpositionReplacements());
+    }
+
+    @Test
+    void heuristicRolloutMctsPlayersPlayCorrectly() {
+        // Our team will win this trick, play the 10 to maximize points
+        for (RolloutPolicy policy: new RolloutPolicy[] { RolloutPolicy.greedy(0.1), RolloutPolicy.trumpConserving(0.1) }) {
+            for (MctsPlayer.Engine engine: MctsPlayer.Engine.values()) {
+                MctsPlayer p = new MctsPlayer(PlayerId.PLAYER_4, SEED, MctsSettings.ofIterations(2_000).withEngine(engine).withRolloutPolicy(policy));
+                assertTimeoutPreemptively(TIMEOUT, () -> {
+                    Card c = p.cardToPlay(partnerWinsTrickState(), partnerWinsTrickHand());
+                    assertEquals(Card.of(Color.SPADE, Rank.TEN), c);
+                });
+            }
+        }
+    }
+
+    @Test
+    void endgameSolvingMctsPlayersPlayCorrectly() {
+        // Our team will win this trick, play the 10 to maximize points
+        for (MctsPlayer.Engine engine: MctsPlayer.Engine.values()) {
+            MctsPlayer p = new MctsPlayer(PlayerId.PLAYER_4, SEED, MctsSettings.ofIterations(2_000).withEngine(engine).withEndgameThreshold(12));
+            assertTimeoutPreemptively(TIMEOUT, () -> {
+                Card c = p.cardToPlay(partnerWinsTrickState(), partnerWinsTrickHand());
+                assertEquals(Card.of(Color.SPADE, Rank.TEN), c);
+            });
+        }
+    }
+
+    @Test
+    void endgameSolvingMctsPlayersPlayWholeTurn() {
+        SplittableRandom rng = newRandom();
+        for (MctsPlayer.Engine engine: MctsPlayer.Engine.values()) {
+            Map<PlayerId, MctsPlayer> players = mctsPlayers(MctsSettings.ofIterations(300).withEngine(engine).withEndgameThreshold(12));
+            playWholeTurn(players, randomHands(rng), TurnState.initial(Color.HEART, Score.INITIAL, PlayerId.PLAYER_1));
+        }
+    }
+
+    @Test
+    void trumpSimulatingMctsPlayerChoosesItsStrongColor() {
+        CardSet hand = CardSet.EMPTY
+                .add(Card.of(Color.DIAMOND, Rank.JACK))
+                .add(Card.of(Color.DIAMOND, Rank.NINE))
+                .add(Card.of(Color.DIAMOND, Rank.ACE))
+                .add(Card.of(Color.DIAMOND, Rank.KING))
+                .add(Card.of(Color.DIAMOND, Rank.SIX))
+                .add(Card.of(Color.SPADE, Rank.ACE))
+                .add(Card.of(Color.SPADE, Rank.KING))
+                .add(Card.of(Color.HEART, Rank.SEVEN))
+                .add(Card.of(Color.CLUB, Rank.EIGHT));
+        for (int threads = 1; threads <= 4; threads *= 4) {
+            MctsSettings settings = MctsSettings.ofIterations(ITERATIONS).withThreads(threads)
+                    .withRolloutPolicy(RolloutPolicy.greedy(0.1)).withTrumpSimulations(1_000, 0);
+            assertEquals(Color.DIAMOND, new MctsPlayer(PlayerId.PLAYER_1, SEED, settings).chooseTrump(hand));
+        }
+    }
+
+    @Test
+    void trumpSimulatingMctsPlayerRespectsItsBudget() {
+        MctsPlayer p = new MctsPlayer(PlayerId.PLAYER_1, SEED, MctsSettings.ofIterations(ITERATIONS).withTrumpSimulations(Integer.MAX_VALUE, 0.2));
+        CardSet hand = CardSet.ALL_CARDS.subsetOfColor(Color.HEART);
+        long start = System.nanoTime();
+        assertEquals(Color.HEART, p.chooseTrump(hand));
+        assertTrue(System.nanoTime() - start < 2_000_000_000L);
+    }
+
+    @Test
+    void trumpTableMctsPlayerLooksTheTrumpUp() throws IOException {
+        Path file = Files.createTempFile("trumps", ".table");
+        try {
+            Files.delete(file);
+            TrumpTable.generate(file, 10, SEED, 1, 1);
+            TrumpTable table = TrumpTable.open(file);
+            MctsPlayer p = new MctsPlayer(PlayerId.PLAYER_2, SEED, MctsSettings.ofIterations(ITERATIONS).withTrumpTable(table));
+            for (long rank = 0; rank < 256; rank += 17) {
+                CardSet hand = CardSet.ofPacked(TrumpTable.unrank(rank));
+                assertEquals(table.trump(hand.packed()), p.chooseTrump(hand));
+            }
+            // a hand the table does not cover is still given a trump
+            CardSet uncovered = CardSet.ofPacked(TrumpTable.unrank(TrumpTable.HAND_COUNT / 2));
+            assertEquals(new MctsPlayer(PlayerId.PLAYER_2, SEED, ITERATIONS).chooseTrump(uncovered), p.chooseTrump(uncovered));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void ponderingMctsPlayerPlaysCorrectly() {
+        // Our team will win this trick, play the 10 to maximize points
+        for (MctsPlayer.Engine engine: MctsPlayer.Engine.values()) {
+            MctsPlayer p = new MctsPlayer(PlayerId.PLAYER_4, SEED, MctsSettings.ofIterations(ITERATIONS).withEngine(engine).withPondering(ITERATIONS));
+            p.updateHand(partnerWinsTrickHand());
+            p.updateScore(Score.INITIAL);
+            p.setTrump(Color.CLUB);
+            Trick trick = Trick.firstEmpty(Color.CLUB, PlayerId.PLAYER_1);
+            p.updateTrick(trick);
+            for (Card c: new Card[] { Card.of(Color.SPADE, Rank.JACK), Card.of(Color.SPADE, Rank.QUEEN), Card.of(Color.SPADE, Rank.SIX) }) {
+                assertTrue(p.isPondering());
+                trick = trick.withAddedCard(c);
+                p.updateTrick(trick);
+            }
+            // our turn, nothing is searched in the background
+            assertFalse(p.isPondering());
+            assertTimeoutPreemptively(TIMEOUT, () -> {
+                Card c = p.cardToPlay(partnerWinsTrickState(), partnerWinsTrickHand());
+                assertEquals(Card.of(Color.SPADE, Rank.TEN), c);
+            });
+        }
+    }
+
+    @Test
+    void ponderingMctsPlayersPlayWholeGameAndStop() {
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        Thread.UncaughtExceptionHandler previous = Thread.getDefaultUncaughtExceptionHandler();
+        Thread.setDefaultUncaughtExceptionHandler((t, e) -> failures.add(e));
+        try {
+            for (MctsPlayer.Engine engine: MctsPlayer.Engine.values()) {
+                Map<PlayerId, MctsPlayer> mctsPlayers = mctsPlayers(MctsSettings.ofIterations(100).withEngine(engine).withPondering(2_000));
+                playWholeGame(mctsPlayers, TIMEOUT);
+                for (MctsPlayer p: mctsPlayers.values())
+                    assertFalse(p.isPondering());
+            }
+        } finally {
+            Thread.setDefaultUncaughtExceptionHandler(previous);
+        }
+        assertEquals(List.of(), failures);
+    }
+
+    @Test
+    void ponderingMctsPlayersWithSmallTreesPlayWholeGameAndStop() {
+        // the trees can just hold the root of a search done while another player thinks
+        for (MctsPlayer.Engine engine: MctsPlayer.Engine.values()) {
+            Map<PlayerId, MctsPlayer> mctsPlayers = mctsPlayers(
+                    MctsSettings.ofIterations(200).withEngine(engine).withTreeCapacity(Jass.HAND_SIZE * 3 + 1).withPondering(5_000));
+            playWholeGame(mctsPlayers, Duration.ofSeconds(60));
+            for (MctsPlayer p: mctsPlayers.values())
+                assertFalse(p.isPondering());
+        }
+    }
+
+    @Test
+    void multiThreadMctsPlayerSearchesAgainAfterTheEndOfAGame() {
+        // the threads are shut down at the end of the game and created again by the next search
+        for (MctsPlayer.Engine engine: MctsPlayer.Engine.values()) {
+            MctsPlayer p = new MctsPlayer(PlayerId.PLAYER_4, SEED, MctsSettings.ofIterations(ITERATIONS).withThreads(2).withEngine(engine));
+            assertEquals(Card.of(Color.SPADE, Rank.TEN), p.cardToPlay(partnerWinsTrickState(), partnerWinsTrickHand()));
+            p.setWinningTeam(TeamId.TEAM_1);
+            assertEquals(Card.of(Color.SPADE, Rank.TEN), p.cardToPlay(partnerWinsTrickState(), partnerWinsTrickHand()));
+            p.setWinningTeam(TeamId.TEAM_1);
+        }
+    }
+
+    @Test
+    void mctsPlayerWithoutTelemetryRecordsNothing() {
+        MctsPlayer p = new MctsPlayer(PlayerId.PLAYER_4, SEED, ITERATIONS);
+        p.cardToPlay(partnerWinsTrickState(), partnerWinsTrickHand());
+        assertEquals(0, p.metrics().searches());
+        assertEquals(0, p.metrics().iterations());
+    }
+
+    @Test
+    void telemetryMctsPlayerRecordsItsSearches() {
+        for (MctsPlayer.Engine engine: MctsPlayer.Engine.values()) {
+            MctsSettings settings = MctsSettings.ofIterations(ITERATIONS).withEngine(engine).withTreeReuse(false)
+                    .withTelemetry(new PrintStream(new ByteArrayOutputStream()));
+            MctsPlayer p = new MctsPlayer(PlayerId.PLAYER_4, SEED, settings);
+            assertEquals(Card.of(Color.SPADE, Rank.TEN), p.cardToPlay(partnerWinsTrickState(), partnerWinsTrickHand()));
+            SearchMetrics m = p.metrics();
+            assertEquals(1, m.decisions());
+            assertEquals(1, m.searches());
+            assertTrue(m.iterations() >= ITERATIONS);
+            assertTrue(m.nodes() > 0 && m.nodes() <= m.iterations());
+            assertTrue(m.maxDepth() >= 2);
+            assertTrue(m.searchNanos() > 0);
+            assertTrue(m.phaseNanos(SearchMetrics.Phase.SIMULATION) > 0);
+        }
+    }
+
+    @Test
+    void metricsMctsPlayerRecordsEachDecisionWithoutTelemetry() {
+        for (MctsPlayer.Engine engine: MctsPlayer.Engine.values()) {
+            MctsSettings settings = MctsSettings.ofIterations(ITERATIONS).withEngine(engine).withTreeReuse(false).withMetrics(true);
+            MctsPlayer p = new MctsPlayer(PlayerId.PLAYER_4, SEED, settings);
+            assertEquals(0, p.lastDecision().decisions());
+            p.cardToPlay(partnerWinsTrickState(), partnerWinsTrickHand());
+            SearchMetrics first = p.lastDecision();
+            assertEquals(1, first.decisions());
+            assertTrue(first.iterations() >= ITERATIONS);
+            p.cardToPlay(partnerWinsTrickState(), partnerWinsTrickHand());
+            SearchMetrics second = p.lastDecision();
+            assertEquals(1, second.decisions());
+            assertTrue(second.iterations() >= ITERATIONS);
+            // the totals sum the decisions, each one keeping its own snapshot
+            assertEquals(1, first.decisions());
+            assertEquals(2, p.metrics().decisions());
+            assertEquals(first.iterations() + second.iterations(), p.metrics().iterations());
+            assertEquals(first.searchNanos() + second.searchNanos(), p.metrics().searchNanos());
+        }
+    }
+
+    private static int treeSize(SharedNode node) {
+        int size = 1;
+        for (int i = 0; i < node.childCount(); ++i)
+            size += (node.child(i) == null ? 0 : treeSize(node.child(i)));
+        return size;
+    }
+
+    @Test
+    void threadsExpandingTheSameSharedTreeCountEachNodeOnce() throws InterruptedException {
+        // the threads start together, so that they race for the same slots
+        SharedNode root = new SharedNode(partnerWinsTrickState(), partnerWinsTrickHand(), null, PlayerId.PLAYER_4);
+        SearchMetrics metrics = new SearchMetrics();
+        CyclicBarrier start = new CyclicBarrier(4);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; ++t) {
+            threads.add(new Thread(() -> {
+                SearchProbe probe = SearchProbe.of(metrics);
+                try {
+                    start.await();
+                } catch (Exception e) {
+                    throw new Error(e);
+                }
+                for (int i = 0; i < 2_000; ++i) {
+                    probe.begin();
+                    List<SharedNode> path = new ArrayList<>();
+                    boolean expanded = root.selectAndExpand(path, partnerWinsTrickHand(), PlayerId.PLAYER_4, probe);
+                    SharedNode.update(path, PackedScore.INITIAL, PlayerId.PLAYER_4);
+                    probe.end(path.size(), expanded);
+                }
+                probe.flush();
+            }));
+        }
+        for (Thread t: threads)
+            t.start();
+        for (Thread t: threads)
+            t.join();
+        assertEquals(4 * 2_000, metrics.iterations());
+        assertEquals(treeSize(root) - 1, metrics.nodes());
+    }
+
+    @Test
+    void turnBudgetMctsPlayerSpendsItsBudgetOverTheTurn() {
+        Map<PlayerId, MctsPlayer> players = mctsPlayers(
+                MctsSettings.ofIterations(ITERATIONS).withTreeReuse(false).withTurnBudget(8_000, 100, 8_000).withMetrics(true));
+        long[] firstIterations = new long[1];
+        playWholeTurn(players, randomHands(newRandom()), TurnState.initial(Color.SPADE, Score.INITIAL, PlayerId.PLAYER_1), (pId, hand) -> {
+            if (pId == PlayerId.PLAYER_1 && hand.size() == Jass.HAND_SIZE)
+                firstIterations[0] = players.get(pId).lastDecision().iterations();
+        });
+        // the first decision gets more than an even share, and no player goes much beyond its budget
+        assertTrue(firstIterations[0] > 8_000 / (Jass.HAND_SIZE - 1));
+        for (MctsPlayer p: players.values())
+            assertTrue(p.metrics().iterations() <= 8_000 + Jass.HAND_SIZE * Jass.HAND_SIZE);
+    }
+
+    @Test
+    void telemetryMctsPlayersDumpTheirMetricsAtTheEndOfTheGame() {
+        ByteArrayOutputStream dump = new ByteArrayOutputStream();
+        playWholeGame(mctsPlayers(MctsSettings.ofIterations(50).withTelemetry(new PrintStream(dump, true))), TIMEOUT);
+        String text = dump.toString();
+        for (PlayerId pId: PlayerId.ALL)
+            assertTrue(text.contains(pId + ": "));
+        assertTrue(text.contains("iterations"));
+    }
+
+    @Test
+    void fullTreeMctsPlayerKeepsSimulating() {
+        // the tree stops growing once full, the simulations from its leaves still choose the 10
+        MctsPlayer p = new MctsPlayer(PlayerId.PLAYER_4, SEED, MctsSettings.ofIterations(ITERATIONS).withTreeCapacity(100));
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            Card c = p.cardToPlay(partnerWinsTrickState(), partnerWinsTrickHand());
+            assertEquals(Card.of(Color.SPADE, Rank.TEN), c);
+        });
+    }
+
+    @Test
+    void fullTreeMctsPlayersPlayWholeTurn() {
+        Map<PlayerId, MctsPlayer> players = mctsPlayers(MctsSettings.ofIterations(500).withTreeCapacity(Jass.HAND_SIZE * 3 + 1));
+        playWholeTurn(players, randomHands(newRandom()), TurnState.initial(Color.SPADE, Score.INITIAL, PlayerId.PLAYER_2));
+    }
+
+    private static Map<PlayerId, CardSet> randomHands(SplittableRandom rng) {
+        Map<PlayerId, CardSet> hands = new EnumMap<>(PlayerId.class);
+        CardSet remaining = CardSet.ALL_CARDS;
+        for (PlayerId pId: PlayerId.ALL) {
+            CardSet hand = CardSet.EMPTY;
+            while (hand.size() < Jass.HAND_SIZE) {
+                Card c = remaining.get(rng.nextInt(remaining.size()));
+                hand = hand.add(c);
+                remaining = remaining.remove(c);
+            }
+            hands.put(pId, hand);
+        }
+        return hands;
+    }
+
+    private static Map<PlayerId, MctsPlayer> mctsPlayers(MctsSettings settings) {
+        Map<PlayerId, MctsPlayer> players = new EnumMap<>(PlayerId.class);
+        for (PlayerId pId: PlayerId.ALL)
+            players.put(pId, new MctsPlayer(pId, SEED + pId.ordinal(), settings));
+        return players;
+    }
+
+    private static TurnState playWholeTurn(Map<PlayerId, MctsPlayer> players, Map<PlayerId, CardSet> hands, TurnState state) {
+        return playWholeTurn(players, hands, state, (pId, hand) -> {});
+    }
+
+    // beforeRemoving is given each player and its hand once the player chose its card
+    private static TurnState playWholeTurn(Map<PlayerId, MctsPlayer> players, Map<PlayerId, CardSet> hands, TurnState state,
+            BiConsumer<PlayerId, CardSet> beforeRemoving) {
+        for (MctsPlayer p: players.values())
+            p.setTrump(state.trick().trump());
+        while (!state.isTerminal()) {
+            PlayerId next = state.nextPlayer();
+            CardSet hand = hands.get(next);
+            Card c = players.get(next).cardToPlay(state, hand);
+            assertTrue(state.trick().playableCards(hand).contains(c));
+            beforeRemoving.accept(next, hand);
+            hands.put(next, hand.remove(c));
+            state = state.withNewCardPlayedAndTrickCollected(c);
+        }
+        return state;
+    }
+
+    private static void playWholeGame(Map<PlayerId, MctsPlayer> mctsPlayers, Duration timeout) {
+        Map<PlayerId, Player> players = new EnumMap<>(mctsPlayers);
+        Map<PlayerId, String> names = new EnumMap<>(PlayerId.class);
+        for (PlayerId pId: PlayerId.ALL)
+            names.put(pId, pId.name());
+        JassGame g = new JassGame(SEED, players, names);
+        assertTimeoutPreemptively(timeout, () -> {
+            while (!g.isGameOver())
+                g.advanceToEndOfNextTrick();
+        });
+    }
+
+    private static TurnState partnerWinsTrickState() {
+        return TurnState.initial(Color.CLUB, Score.INITIAL, PlayerId.PLAYER_1)
+                .withNewCardPlayed(Card.of(Color.SPADE, Rank.JACK))
+                .withNewCardPlayed(Card.of(Color.SPADE, Rank.QUEEN))
+                .withNewCardPlayed(Card.of(Color.SPADE, Rank.SIX));
+    }
+
+    private static CardSet partnerWinsTrickHand() {
+        return CardSet.EMPTY
+                .add(Card.of(Color.SPADE, Rank.EIGHT))
+                .add(Card.of(Color.SPADE, Rank.NINE))
+                .add(Card.of(Color.SPADE, Rank.TEN))
+                .add(Card.of(Color.CLUB, Rank.SIX))
+                .add(Card.of(Color.HEART, Rank.SEVEN))
+                .add(Card.of(Color.HEART, Rank.EIGHT))
+                .add(Card.of(Color.HEART, Rank.NINE))
+                .add(Card.of(Color.HEART, Rank.TEN))
+                .add(Card.of(Color.HEART, Rank.JACK));
+    }
+
     private static TurnState stateAfterPlayingAllCardsIn(CardSet cards, Color trump, PlayerId firstPlayer) {
         TurnState s = TurnState.initial(trump, Score.INITIAL, firstPlayer);
         for (int i = 0; i < cards.size(); ++i)
@@ -0,0 +1,189 @@
+package ch.epfl.javass.jass;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.javass.jass.MctsPlayer.Engine;
+
+public class MctsSettingsTest {
+    @Test
+    void ofIterationsFailsWithTooFewIterations() {
+        for (int i = -10; i < Jass.MINIMUM_ITERATIONS; ++i) {
+            int iterations = i;
+            assertThrows(IllegalArgumentException.class, () -> {
+                MctsSettings.ofIterations(iterations);
+            });
+        }
+    }
+
+    @Test
+    void ofIterationsBoundsBothWays() {
+        MctsSettings s = MctsSettings.ofIterations(1234);
+        assertEquals(1234, s.minIterations());
+        assertEquals(1234, s.maxIterations());
+        assertFalse(s.isTimeBudgeted());
+        assertEquals(1, s.threads());
+        assertEquals(Engine.ROOT_PARALLEL, s.engine());
+    }
+
+    @Test
+    void ofTimeBudgetFailsWithNonPositiveTime() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            MctsSettings.ofTimeBudget(0);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            MctsSettings.ofTimeBudget(-1.5);
+        });
+    }
+
+    @Test
+    void ofTimeBudgetWorks() {
+        MctsSettings s = MctsSettings.ofTimeBudget(1.5);
+        assertTrue(s.isTimeBudgeted());
+        assertEquals(1_500_000_000L, s.timeBudgetNanos());
+        assertEquals(Jass.MINIMUM_ITERATIONS, s.minIterations());
+        assertEquals(Integer.MAX_VALUE, s.maxIterations());
+    }
+
+    @Test
+    void withIterationBoundsFailsWithInvalidBounds() {
+        MctsSettings s = MctsSettings.ofTimeBudget(1);
+        assertThrows(IllegalArgumentException.class, () -> {
+            s.withIterationBounds(Jass.MINIMUM_ITERATIONS - 1, 100);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            s.withIterationBounds(100, 99);
+        });
+    }
+
+    @Test
+    void withMethodsOnlyChangeTheirSetting() {
+        MctsSettings s = MctsSettings.ofTimeBudget(2)
+                .withIterationBounds(100, 1000)
+                .withThreads(8)
+                .withEngine(Engine.TREE_PARALLEL);
+        assertEquals(100, s.minIterations());
+        assertEquals(1000, s.maxIterations());
+        assertEquals(2_000_000_000L, s.timeBudgetNanos());
+        assertEquals(8, s.threads());
+        assertEquals(Engine.TREE_PARALLEL, s.engine());
+        assertTrue(s.treeReuse());
+        assertFalse(s.withTreeReuse(false).treeReuse());
+        assertEquals(8, s.withTreeReuse(false).threads());
+        assertEquals(1 << 20, s.treeCapacity());
+        assertEquals(5000, s.withTreeCapacity(5000).treeCapacity());
+        assertEquals(Engine.TREE_PARALLEL, s.withTreeCapacity(5000).engine());
+        assertEquals(RolloutPolicy.RANDOM, s.rolloutPolicy());
+        RolloutPolicy greedy = RolloutPolicy.greedy(0.1);
+        assertEquals(greedy, s.withRolloutPolicy(greedy).rolloutPolicy());
+        assertEquals(8, s.withRolloutPolicy(greedy).threads());
+    }
+
+    @Test
+    void withTranspositionTableFailsWithNegativeSize() {
+        assertEquals(0, MctsSettings.ofIterations(100).transpositionEntries());
+        assertEquals(1024, MctsSettings.ofIterations(100).withTranspositionTable(1024).transpositionEntries());
+        assertThrows(IllegalArgumentException.class, () -> {
+            MctsSettings.ofIterations(100).withTranspositionTable(-1);
+        });
+    }
+
+    @Test
+    void withEndgameThresholdFailsOutsideOfATurn() {
+        assertEquals(0, MctsSettings.ofIterations(100).endgameThreshold());
+        assertEquals(12, MctsSettings.ofIterations(100).withEndgameThreshold(12).endgameThreshold());
+        for (int cards: new int[] { -1, Jass.TRICKS_PER_TURN * PlayerId.COUNT + 1 }) {
+            assertThrows(IllegalArgumentException.class, () -> {
+                MctsSettings.ofIterations(100).withEndgameThreshold(cards);
+            });
+        }
+    }
+
+    @Test
+    void withTrumpSimulationsFailsWithNegativeValues() {
+        assertEquals(0, MctsSettings.ofIterations(100).trumpDeals());
+        MctsSettings s = MctsSettings.ofIterations(100).withTrumpSimulations(1000, 0.5);
+        assertEquals(1000, s.trumpDeals());
+        assertEquals(500_000_000L, s.trumpBudgetNanos());
+        assertEquals(null, s.trumpTable());
+        assertThrows(IllegalArgumentException.class, () -> {
+            MctsSettings.ofIterations(100).withTrumpSimulations(-1, 1);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            MctsSettings.ofIterations(100).withTrumpSimulations(100, -1);
+        });
+    }
+
+    @Test
+    void withPonderingFailsWithNegativeSimulations() {
+        assertEquals(0, MctsSettings.ofIterations(100).ponderSimulations());
+        assertEquals(5000, MctsSettings.ofIterations(100).withPondering(5000).ponderSimulations());
+        assertThrows(IllegalArgumentException.class, () -> {
+            MctsSettings.ofIterations(100).withPondering(-1);
+        });
+    }
+
+    @Test
+    void withTurnBudgetFailsWithInvalidBounds() {
+        assertEquals(0, MctsSettings.ofIterations(100).turnIterations());
+        MctsSettings s = MctsSettings.ofIterations(100).withTurnBudget(50_000, 200, 20_000);
+        assertEquals(50_000, s.turnIterations());
+        assertEquals(200, s.turnFloor());
+        assertEquals(20_000, s.turnCeiling());
+        assertThrows(IllegalArgumentException.class, () -> {
+            MctsSettings.ofIterations(100).withTurnBudget(-1, 200, 20_000);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            MctsSettings.ofIterations(100).withTurnBudget(50_000, Jass.MINIMUM_ITERATIONS - 1, 20_000);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            MctsSettings.ofIterations(100).withTurnBudget(50_000, 200, 199);
+        });
+    }
+
+    @Test
+    void withMetricsDoesNotNeedTelemetry() {
+        assertFalse(MctsSettings.ofIterations(100).recordsMetrics());
+        MctsSettings s = MctsSettings.ofIterations(100).withThreads(2).withMetrics(true);
+        assertTrue(s.recordsMetrics());
+        assertEquals(null, s.telemetry());
+        assertEquals(2, s.threads());
+        assertFalse(s.withMetrics(false).recordsMetrics());
+        assertTrue(s.withMetrics(false).withTelemetry(System.out).recordsMetrics());
+    }
+
+    @Test
+    void withTelemetryKeepsTheStream() {
+        assertEquals(null, MctsSettings.ofIterations(100).telemetry());
+        MctsSettings s = MctsSettings.ofIterations(100).withThreads(2).withTelemetry(System.out);
+        assertEquals(System.out, s.telemetry());
+        assertEquals(2, s.threads());
+        assertEquals(null, s.withTelemetry(null).telemetry());
+    }
+
+    @Test
+    void withTreeCapacityFailsWithTooSmallTrees() {
+        for (int nodes = -1; nodes <= Jass.HAND_SIZE * 3; ++nodes) {
+            int n = nodes;
+            assertThrows(IllegalArgumentException.class, () -> {
+                MctsSettings.ofIterations(100).withTreeCapacity(n);
+            });
+        }
+    }
+
+    @Test
+    void withTreeCapacityAcceptsTheLargestRoot() {
+        assertEquals(Jass.HAND_SIZE * 3 + 1, MctsSettings.ofIterations(100).withTreeCapacity(Jass.HAND_SIZE * 3 + 1).treeCapacity());
+    }
+
+    @Test
+    void withThreadsFailsWithoutThreads() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            MctsSettings.ofIterations(100).withThreads(0);
+        });
+    }
+}
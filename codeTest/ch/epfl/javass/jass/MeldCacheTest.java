@@ -0,0 +1,147 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.test.TestRandomizer.RANDOM_ITERATIONS;
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.javass.jass.Card.Color;
+import ch.epfl.javass.jass.Card.Rank;
+
+public class MeldCacheTest {
+    private static long nextHand(SplittableRandom rng) {
+        long hand = PackedCardSet.EMPTY;
+        while (PackedCardSet.size(hand) < Jass.HAND_SIZE)
+            hand = PackedCardSet.add(hand, PackedCardSet.get(PackedCardSet.ALL_CARDS, rng.nextInt(PackedCardSet.size(PackedCardSet.ALL_CARDS))));
+        return hand;
+    }
+
+    // hand with the cards of the given ranks in spades and hearts and the quartet of jacks
+    private static long handWithMelds(Color first, Color second) {
+        long hand = PackedCardSet.EMPTY;
+        for (Rank r: new Rank[] { Rank.SIX, Rank.SEVEN, Rank.EIGHT })
+            hand = PackedCardSet.add(hand, PackedCard.pack(first, r));
+        for (Rank r: new Rank[] { Rank.QUEEN, Rank.KING })
+            hand = PackedCardSet.add(hand, PackedCard.pack(second, r));
+        for (Color c: Color.ALL)
+            hand = PackedCardSet.add(hand, PackedCard.pack(c, Rank.JACK));
+        return hand;
+    }
+
+    private static void assertIsValidBestIn(long pkHand, long pkMeldSet) {
+        assertEquals(PackedMeldSet.points(PackedMeldSet.bestIn(pkHand)), PackedMeldSet.points(pkMeldSet));
+        assertEquals(PackedMeldSet.cards(pkMeldSet), PackedCardSet.intersection(pkHand, PackedMeldSet.cards(pkMeldSet)));
+        assertTrue(MeldSet.mutuallyDisjoint(MeldSet.ofPacked(pkMeldSet).getMelds()));
+    }
+
+    @Test
+    void constructorFailsWithoutEntries() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            new MeldCache(0, false);
+        });
+        assertEquals(4, new MeldCache(1, false).capacity());
+        assertEquals(4, new MeldCache(2, true).capacity());
+        assertEquals(1024, new MeldCache(1000, true).capacity());
+    }
+
+    @Test
+    void smallestCachesGiveTheMeldsOfPackedMeldSet() {
+        SplittableRandom rng = newRandom();
+        for (int entries = 1; entries <= 2; ++entries) {
+            for (boolean canonical: new boolean[] { false, true }) {
+                MeldCache cache = new MeldCache(entries, canonical);
+                assertEquals(PackedMeldSet.points(PackedMeldSet.bestIn(0x7L)), PackedMeldSet.points(cache.bestIn(0x7L)));
+                for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+                    long hand = nextHand(rng);
+                    assertIsValidBestIn(hand, cache.bestIn(hand));
+                }
+            }
+        }
+    }
+
+    @Test
+    void bestInGivesTheMeldsOfPackedMeldSet() {
+        SplittableRandom rng = newRandom();
+        for (boolean canonical: new boolean[] { false, true }) {
+            MeldCache cache = new MeldCache(64, canonical);
+            for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+                long hand = nextHand(rng);
+                long melds = cache.bestIn(hand);
+                if (canonical)
+                    assertIsValidBestIn(hand, melds);
+                else
+                    assertEquals(PackedMeldSet.bestIn(hand), melds);
+                assertEquals(PackedMeldSet.points(melds), cache.bestMeldSet(CardSet.ofPacked(hand)).points());
+            }
+            assertEquals(2 * RANDOM_ITERATIONS, cache.lookups());
+        }
+    }
+
+    @Test
+    void bestMeldSetReturnsTheCachedInstance() {
+        MeldCache cache = new MeldCache(16, false);
+        CardSet hand = CardSet.ofPacked(handWithMelds(Color.SPADE, Color.HEART));
+        MeldSet melds = cache.bestMeldSet(hand);
+        assertEquals(MeldSet.getBestMeldSet(hand).getMelds(), melds.getMelds());
+        assertSame(melds, cache.bestMeldSet(hand));
+        assertEquals(2, cache.lookups());
+        assertEquals(1, cache.hits());
+        assertEquals(0.5, cache.hitRatio());
+    }
+
+    @Test
+    void canonicalCacheSharesTheHandsEqualUpToColors() {
+        MeldCache cache = new MeldCache(16, true);
+        assertEquals(0, cache.hitRatio());
+        long hand = handWithMelds(Color.SPADE, Color.HEART);
+        long permuted = handWithMelds(Color.CLUB, Color.DIAMOND);
+        assertIsValidBestIn(hand, cache.bestIn(hand));
+        assertIsValidBestIn(permuted, cache.bestIn(permuted));
+        assertEquals(1, cache.hits());
+        assertEquals(220, PackedMeldSet.points(cache.bestIn(permuted)));
+        MeldSet melds = cache.bestMeldSet(CardSet.ofPacked(permuted));
+        assertEquals(MeldSet.getBestMeldSet(CardSet.ofPacked(permuted)).getMelds(), melds.getMelds());
+    }
+
+    @Test
+    void cacheIsCorrectWhenSharedByManyThreads() throws InterruptedException {
+        SplittableRandom rng = newRandom();
+        long[] hands = new long[64];
+        for (int i = 0; i < hands.length; ++i)
+            hands[i] = (i % 2 == 0 ? nextHand(rng) : handWithMelds(Color.ALL.get(i % Color.COUNT), Color.ALL.get((i + 1) % Color.COUNT)));
+        for (boolean canonical: new boolean[] { false, true }) {
+            MeldCache cache = new MeldCache(32, canonical);
+            AtomicInteger errors = new AtomicInteger();
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 4; ++t) {
+                long seed = rng.nextLong();
+                threads.add(new Thread(() -> {
+                    SplittableRandom threadRng = new SplittableRandom(seed);
+                    for (int i = 0; i < 20_000; ++i) {
+                        long hand = hands[threadRng.nextInt(hands.length)];
+                        long melds = cache.bestIn(hand);
+                        if (PackedMeldSet.points(melds) != PackedMeldSet.points(PackedMeldSet.bestIn(hand))
+                                || PackedCardSet.difference(PackedMeldSet.cards(melds), hand) != PackedCardSet.EMPTY)
+                            errors.incrementAndGet();
+                    }
+                }));
+            }
+            for (Thread t: threads)
+                t.start();
+            for (Thread t: threads)
+                t.join();
+            assertEquals(0, errors.get());
+            assertEquals(4 * 20_000, cache.lookups());
+            assertTrue(cache.hits() > 0);
+        }
+    }
+}
@@ -113,6 +113,35 @@ public class PacedPlayerTest {
         });
     }
 
+    @Test
+    void anytimePlayerIsGivenThePacedTime() {
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            long[] givenDeadline = new long[1];
+            AnytimePlayer ap = new AnytimePlayer() {
+                @Override
+                public Card cardToPlay(TurnState state, CardSet hand, long deadline) {
+                    givenDeadline[0] = deadline;
+                    return hand.get(0);
+                }
+
+                @Override
+                public Card cardToPlay(TurnState state, CardSet hand) {
+                    throw new AssertionError();
+                }
+
+                @Override
+                public Color chooseTrump(CardSet hand) {
+                    return null;
+                }
+            };
+            Player p = new PacedPlayer(ap, 0.5);
+            long t0 = System.nanoTime();
+            p.cardToPlay(TurnState.initial(Color.SPADE, Score.INITIAL, PlayerId.PLAYER_1), CardSet.ALL_CARDS.subsetOfColor(Color.SPADE));
+            long elapsedTime = System.nanoTime() - t0;
+            assertTrue(givenDeadline[0] - t0 >= 495_000_000L && givenDeadline[0] - t0 <= elapsedTime);
+        });
+    }
+
     private static class TestPlayer implements Player {
         private final int indexOfCardToPlay;
 
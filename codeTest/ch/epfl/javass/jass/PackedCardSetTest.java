@@ -222,6 +222,57 @@ public class PackedCardSetTest {
         }
     }
 
+    @Test
+    void getWorksOnRandomSets() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            long s = nextSet(rng);
+            long rest = s;
+            for (int j = 0; j < PackedCardSet.size(s); ++j) {
+                assertEquals(Long.numberOfTrailingZeros(rest), PackedCardSet.get(s, j));
+                rest &= rest - 1;
+            }
+        }
+    }
+
+    @Test
+    void firstAndNextGoThroughTheSetInOrder() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            long s = nextSet(rng);
+            int j = 0;
+            for (int c = PackedCardSet.first(s); c != PackedCard.INVALID; c = PackedCardSet.next(s, c))
+                assertEquals(PackedCardSet.get(s, j++), c);
+            assertEquals(PackedCardSet.size(s), j);
+        }
+        assertEquals(PackedCard.INVALID, PackedCardSet.first(PackedCardSet.EMPTY));
+    }
+
+    @Test
+    void nextWorksWithCardsNotInTheSet() {
+        long s = PackedCardSet.subsetOfColor(PackedCardSet.ALL_CARDS, Color.HEART);
+        int first = PackedCardSet.get(s, 0);
+        for (int c: ALL_PACKED_CARDS) {
+            if (PackedCard.color(c).ordinal() < Color.HEART.ordinal())
+                assertEquals(first, PackedCardSet.next(s, c));
+            if (PackedCard.color(c).ordinal() > Color.HEART.ordinal())
+                assertEquals(PackedCard.INVALID, PackedCardSet.next(s, c));
+        }
+    }
+
+    @Test
+    void forEachGivesTheCardsOfGet() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            long s = nextSet(rng);
+            int[] seen = new int[PackedCardSet.size(s)];
+            int[] count = new int[1];
+            PackedCardSet.forEach(s, c -> seen[count[0]++] = c);
+            for (int j = 0; j < seen.length; ++j)
+                assertEquals(PackedCardSet.get(s, j), seen[j]);
+        }
+    }
+
     @Test
     void addCanBuildFullSet() {
         long s = PackedCardSet.EMPTY;
@@ -0,0 +1,158 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.test.TestRandomizer.RANDOM_ITERATIONS;
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.javass.jass.Card.Color;
+import ch.epfl.javass.jass.Card.Rank;
+
+public class PackedDealTest {
+    private static int trick(Color trump, PlayerId firstPlayer, Card... cards) {
+        int pkTrick = PackedTrick.firstEmpty(trump, firstPlayer);
+        for (Card c: cards)
+            pkTrick = PackedTrick.withAddedCard(pkTrick, c.packed());
+        return pkTrick;
+    }
+
+    @Test
+    void handSizeWorksForAllPlayers() {
+        int pkTrick = trick(Color.HEART, PlayerId.PLAYER_3,
+                Card.of(Color.SPADE, Rank.SIX), Card.of(Color.SPADE, Rank.SEVEN));
+        assertEquals(8, PackedDeal.handSize(pkTrick, PlayerId.PLAYER_3));
+        assertEquals(8, PackedDeal.handSize(pkTrick, PlayerId.PLAYER_4));
+        assertEquals(9, PackedDeal.handSize(pkTrick, PlayerId.PLAYER_1));
+        assertEquals(9, PackedDeal.handSize(pkTrick, PlayerId.PLAYER_2));
+
+        int next = PackedTrick.nextEmpty(trick(Color.HEART, PlayerId.PLAYER_3, Card.of(Color.SPADE, Rank.SIX),
+                Card.of(Color.SPADE, Rank.SEVEN), Card.of(Color.SPADE, Rank.EIGHT), Card.of(Color.SPADE, Rank.NINE)));
+        for (PlayerId p: PlayerId.ALL)
+            assertEquals(8, PackedDeal.handSize(next, p));
+    }
+
+    @Test
+    void addExclusionsDetectsVoidColors() {
+        long[] excluded = new long[PlayerId.COUNT];
+        // player 2 discards a diamond on spades, player 3 trumps, player 4 follows
+        PackedDeal.addExclusions(trick(Color.HEART, PlayerId.PLAYER_1, Card.of(Color.SPADE, Rank.SIX),
+                Card.of(Color.DIAMOND, Rank.SIX), Card.of(Color.HEART, Rank.SIX), Card.of(Color.SPADE, Rank.ACE)), excluded);
+
+        assertEquals(PackedCardSet.EMPTY, excluded[PlayerId.PLAYER_1.ordinal()]);
+        assertEquals(PackedCardSet.subsetOfColor(PackedCardSet.ALL_CARDS, Color.SPADE), excluded[PlayerId.PLAYER_2.ordinal()]);
+        assertEquals(PackedCardSet.EMPTY, excluded[PlayerId.PLAYER_3.ordinal()]);
+        assertEquals(PackedCardSet.EMPTY, excluded[PlayerId.PLAYER_4.ordinal()]);
+    }
+
+    @Test
+    void addExclusionsKeepsJackOfTrump() {
+        long[] excluded = new long[PlayerId.COUNT];
+        PackedDeal.addExclusions(trick(Color.CLUB, PlayerId.PLAYER_4, Card.of(Color.CLUB, Rank.SIX),
+                Card.of(Color.HEART, Rank.ACE)), excluded);
+
+        long expected = PackedCardSet.remove(PackedCardSet.subsetOfColor(PackedCardSet.ALL_CARDS, Color.CLUB),
+                Card.of(Color.CLUB, Rank.JACK).packed());
+        assertEquals(expected, excluded[PlayerId.PLAYER_1.ordinal()]);
+    }
+
+    @Test
+    void dealRespectsSizesAndExclusions() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            long own = PackedCardSet.subsetOfColor(PackedCardSet.ALL_CARDS, Color.SPADE);
+            long unknown = PackedCardSet.difference(PackedCardSet.ALL_CARDS, own);
+            int[] sizes = {0, 9, 9, 9};
+            long[] excluded = new long[PlayerId.COUNT];
+            // player 2 has no heart, player 3 has no heart nor diamond: player 4 must have 9 of them
+            excluded[1] = PackedCardSet.subsetOfColor(PackedCardSet.ALL_CARDS, Color.HEART);
+            excluded[2] = PackedCardSet.union(excluded[1], PackedCardSet.subsetOfColor(PackedCardSet.ALL_CARDS, Color.DIAMOND));
+            long[] hands = {own, 0, 0, 0};
+
+            assertTrue(PackedDeal.deal(unknown, sizes, excluded, rng, hands));
+            assertEquals(own, hands[0]);
+            long all = PackedCardSet.EMPTY;
+            for (int p = 1; p < PlayerId.COUNT; ++p) {
+                assertEquals(9, PackedCardSet.size(hands[p]));
+                assertEquals(PackedCardSet.EMPTY, PackedCardSet.intersection(hands[p], excluded[p]));
+                all = PackedCardSet.union(all, hands[p]);
+            }
+            assertEquals(unknown, all);
+            assertEquals(PackedCardSet.subsetOfColor(PackedCardSet.ALL_CARDS, Color.CLUB),
+                    PackedCardSet.intersection(hands[2], PackedCardSet.subsetOfColor(PackedCardSet.ALL_CARDS, Color.CLUB)));
+        }
+    }
+
+    @Test
+    void dealIgnoresImpossibleExclusions() {
+        SplittableRandom rng = newRandom();
+        long unknown = PackedCardSet.subsetOfColor(PackedCardSet.ALL_CARDS, Color.HEART);
+        int[] sizes = {0, 3, 3, 3};
+        long[] excluded = {0, unknown, unknown, 0};
+        long[] hands = new long[PlayerId.COUNT];
+
+        assertFalse(PackedDeal.deal(unknown, sizes, excluded, rng, hands));
+        for (int p = 1; p < PlayerId.COUNT; ++p)
+            assertEquals(3, PackedCardSet.size(hands[p]));
+    }
+
+    @Test
+    void dealKeepsTheKnownHandsAfterImpossibleExclusions() {
+        SplittableRandom rng = newRandom();
+        long own = PackedCardSet.subsetOfColor(PackedCardSet.ALL_CARDS, Color.SPADE);
+        long unknown = PackedCardSet.subsetOfColor(PackedCardSet.ALL_CARDS, Color.HEART);
+        int[] sizes = {0, 3, 3, 3};
+        long[] excluded = {0, unknown, unknown, 0};
+        long[] hands = {own, 0, 0, 0};
+
+        assertFalse(PackedDeal.deal(unknown, sizes, excluded, rng, hands));
+        assertEquals(own, hands[0]);
+        long all = PackedCardSet.EMPTY;
+        for (int p = 1; p < PlayerId.COUNT; ++p)
+            all = PackedCardSet.union(all, hands[p]);
+        assertEquals(unknown, all);
+    }
+
+    @Test
+    void dealDoesNotAllocate() {
+        // only the HotSpot family of JVMs measures the allocations of a thread
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+
+        long own = PackedCardSet.subsetOfColor(PackedCardSet.ALL_CARDS, Color.SPADE);
+        long unknown = PackedCardSet.difference(PackedCardSet.ALL_CARDS, own);
+        int[] sizes = {0, 9, 9, 9};
+        long[] excluded = {0, PackedCardSet.subsetOfColor(PackedCardSet.ALL_CARDS, Color.HEART), 0, 0};
+        long[] hands = new long[PlayerId.COUNT];
+        SplittableRandom rng = new SplittableRandom(0);
+        int deals = 10_000;
+
+        deals(unknown, sizes, excluded, rng, hands, own, deals);
+        long before = threads.getCurrentThreadAllocatedBytes();
+        int respected = deals(unknown, sizes, excluded, rng, hands, own, deals);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        // the measure and the compilation of the loop may allocate a little, a single array per deal would be 32 bytes each
+        assertTrue(allocated < 8L * deals, allocated + " bytes allocated");
+        assertEquals(deals, respected);
+    }
+
+    private static int deals(long unknown, int[] sizes, long[] excluded, SplittableRandom rng, long[] hands, long own, int deals) {
+        int respected = 0;
+        for (int i = 0; i < deals; ++i) {
+            hands[0] = own;
+            hands[1] = hands[2] = hands[3] = PackedCardSet.EMPTY;
+            if (PackedDeal.deal(unknown, sizes, excluded, rng, hands))
+                ++respected;
+        }
+        return respected;
+    }
+}
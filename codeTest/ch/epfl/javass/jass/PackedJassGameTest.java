@@ -0,0 +1,114 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.javass.jass.Card.Color;
+
+public class PackedJassGameTest {
+    private static final RolloutPolicy[] POLICIES = {
+            RolloutPolicy.RANDOM, RolloutPolicy.greedy(0.1), RolloutPolicy.trumpConserving(0.2)
+    };
+
+    private static Map<PlayerId, PackedPlayer> players(long seed) {
+        SplittableRandom rng = new SplittableRandom(seed);
+        Map<PlayerId, PackedPlayer> players = new EnumMap<>(PlayerId.class);
+        for (PlayerId p: PlayerId.ALL)
+            players.put(p, PackedPlayer.of(POLICIES[rng.nextInt(POLICIES.length)], rng.nextLong()));
+        return players;
+    }
+
+    private static final class ScoreRecordingPlayer implements Player {
+        private final Player underlyingPlayer;
+        private Score score;
+        private TeamId winningTeam;
+
+        ScoreRecordingPlayer(Player underlyingPlayer) {
+            this.underlyingPlayer = underlyingPlayer;
+        }
+
+        @Override
+        public Card cardToPlay(TurnState state, CardSet hand) {
+            return underlyingPlayer.cardToPlay(state, hand);
+        }
+
+        @Override
+        public Color chooseTrump(CardSet hand) {
+            return underlyingPlayer.chooseTrump(hand);
+        }
+
+        @Override
+        public void updateScore(Score score) {
+            this.score = score;
+        }
+
+        @Override
+        public void setWinningTeam(TeamId winningTeam) {
+            this.winningTeam = winningTeam;
+        }
+    }
+
+    @Test
+    void playGivesTheSameScoreAsJassGame() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < 50; ++i) {
+            long seed = rng.nextLong();
+            Map<PlayerId, PackedPlayer> packedPlayers = players(seed);
+            Map<PlayerId, Player> players = new EnumMap<>(PlayerId.class);
+            Map<PlayerId, String> names = new EnumMap<>(PlayerId.class);
+            ScoreRecordingPlayer recorder = null;
+            for (PlayerId p: PlayerId.ALL) {
+                Player player = packedPlayers.get(p).asPlayer();
+                if (p == PlayerId.PLAYER_1)
+                    player = recorder = new ScoreRecordingPlayer(player);
+                players.put(p, player);
+                names.put(p, p.name());
+            }
+            JassGame game = new JassGame(seed, players, names);
+            while (!game.isGameOver())
+                game.advanceToEndOfNextTrick();
+
+            long pkScore = PackedJassGame.play(seed, players(seed));
+            assertEquals(recorder.score.packed(), pkScore);
+            assertEquals(recorder.winningTeam, PackedJassGame.winningTeam(pkScore));
+        }
+    }
+
+    @Test
+    void playEndsWhenATeamReachesTheWinningPoints() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < 100; ++i) {
+            long pkScore = PackedJassGame.play(rng.nextLong(), players(rng.nextLong()));
+            TeamId winner = PackedJassGame.winningTeam(pkScore);
+            assertTrue(PackedScore.totalPoints(pkScore, winner) >= Jass.WINNING_POINTS);
+            assertTrue(PackedScore.totalPoints(pkScore, winner) >= PackedScore.totalPoints(pkScore, winner.other()));
+        }
+    }
+
+    @Test
+    void playFailsWithAMissingPlayer() {
+        Map<PlayerId, PackedPlayer> players = players(0);
+        players.remove(PlayerId.PLAYER_3);
+        assertThrows(IllegalArgumentException.class, () -> {
+            PackedJassGame.play(0, players);
+        });
+    }
+
+    @Test
+    void playAllDoesNotDependOnTheThreads() {
+        long seed = newRandom().nextLong();
+        long[] scores = PackedJassGame.playAll(40, 1, seed, PackedJassGameTest::players);
+        assertArrayEquals(scores, PackedJassGame.playAll(40, 4, seed, PackedJassGameTest::players));
+        for (int i = 0; i < scores.length; i += 13)
+            assertEquals(PackedJassGame.play(PackedJassGame.gameSeed(seed, i), players(PackedJassGame.gameSeed(seed, i))), scores[i]);
+    }
+}
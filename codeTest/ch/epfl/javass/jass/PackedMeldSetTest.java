@@ -0,0 +1,129 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.test.TestRandomizer.RANDOM_ITERATIONS;
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.javass.jass.Card.Color;
+import ch.epfl.javass.jass.Card.Rank;
+
+public class PackedMeldSetTest {
+    private static Set<Card> cardsOf(long pkHand) {
+        Set<Card> cards = new HashSet<>();
+        PackedCardSet.forEach(pkHand, c -> cards.add(Card.ofPacked(c)));
+        return cards;
+    }
+
+    // Best points of the hand as found by enumerating all its sets of mutually disjoint melds
+    private static int referencePoints(long pkHand) {
+        int best = 0;
+        for (MeldSet melds: MeldSet.allIn(cardsOf(pkHand)))
+            best = Math.max(best, melds.points());
+        return best;
+    }
+
+    private static void assertIsBestIn(long pkHand, long pkMeldSet) {
+        assertEquals(referencePoints(pkHand), PackedMeldSet.points(pkMeldSet));
+        List<Meld> melds = new ArrayList<>(MeldSet.ofPacked(pkMeldSet).getMelds());
+        assertEquals(PackedMeldSet.size(pkMeldSet), melds.size());
+        assertTrue(MeldSet.mutuallyDisjoint(melds));
+        int points = 0;
+        for (Meld m: melds) {
+            assertTrue(cardsOf(pkHand).containsAll(m.cards()));
+            points += m.points();
+        }
+        assertEquals(points, PackedMeldSet.points(pkMeldSet));
+        assertEquals(PackedMeldSet.cards(pkMeldSet), PackedCardSet.intersection(pkHand, PackedMeldSet.cards(pkMeldSet)));
+    }
+
+    private static long nextHand(SplittableRandom rng, long cards) {
+        long hand = PackedCardSet.EMPTY;
+        while (PackedCardSet.size(hand) < Jass.HAND_SIZE)
+            hand = PackedCardSet.add(hand, PackedCardSet.get(cards, rng.nextInt(PackedCardSet.size(cards))));
+        return hand;
+    }
+
+    @Test
+    void bestInIsEmptyForEmptyHand() {
+        assertEquals(PackedMeldSet.EMPTY, PackedMeldSet.bestIn(PackedCardSet.EMPTY));
+        assertEquals(0, PackedMeldSet.size(PackedMeldSet.EMPTY));
+        assertEquals(0, PackedMeldSet.points(PackedMeldSet.EMPTY));
+    }
+
+    @Test
+    void bestInWorksOnRandomHands() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            long hand = nextHand(rng, PackedCardSet.ALL_CARDS);
+            assertIsBestIn(hand, PackedMeldSet.bestIn(hand));
+        }
+    }
+
+    @Test
+    void bestInWorksOnHandsWithManyMelds() {
+        // hands taken from two colors and the ranks of the quartets, where most melds are possible
+        SplittableRandom rng = newRandom();
+        long cards = PackedCardSet.EMPTY;
+        for (Color c: Color.ALL) {
+            for (Rank r: Rank.ALL) {
+                if (c.ordinal() < 2 || r.compareTo(Rank.NINE) >= 0)
+                    cards = PackedCardSet.add(cards, PackedCard.pack(c, r));
+            }
+        }
+        for (int i = 0; i < RANDOM_ITERATIONS / 10; ++i) {
+            long hand = nextHand(rng, cards);
+            assertIsBestIn(hand, PackedMeldSet.bestIn(hand));
+        }
+    }
+
+    @Test
+    void bestInWorksOnHandsOfOneColor() {
+        for (Color c: Color.ALL) {
+            long hand = PackedCardSet.subsetOfColor(PackedCardSet.ALL_CARDS, c);
+            long best = PackedMeldSet.bestIn(hand);
+            assertIsBestIn(hand, best);
+            // a suit of five cards and a suit of the four others
+            assertEquals(150, PackedMeldSet.points(best));
+            assertEquals(2, PackedMeldSet.size(best));
+        }
+    }
+
+    @Test
+    void bestInPrefersTheQuartetOfJacksToTheSuits() {
+        long hand = PackedCardSet.EMPTY;
+        for (Color c: Color.ALL)
+            hand = PackedCardSet.add(hand, PackedCard.pack(c, Rank.JACK));
+        for (Rank r: new Rank[] { Rank.NINE, Rank.TEN, Rank.QUEEN, Rank.KING })
+            hand = PackedCardSet.add(hand, PackedCard.pack(Color.SPADE, r));
+        long best = PackedMeldSet.bestIn(hand);
+        assertIsBestIn(hand, best);
+        assertEquals(200, PackedMeldSet.points(best));
+        assertEquals(1, PackedMeldSet.size(best));
+    }
+
+    @Test
+    void getBestMeldSetFindsAllTheMeldsOfLargeCollections() {
+        // four suits of three cards, more melds than a "packed" meld set can hold
+        List<Card> cards = new ArrayList<>();
+        for (Color c: Color.ALL)
+            for (Rank r: new Rank[] { Rank.SIX, Rank.SEVEN, Rank.EIGHT })
+                cards.add(Card.of(c, r));
+        assertEquals(80, MeldSet.getBestMeldSet(cards).points());
+        assertEquals(4, MeldSet.getBestMeldSet(cards).getMelds().size());
+
+        CardSet hand = CardSet.EMPTY;
+        for (Card c: cards)
+            hand = hand.add(c);
+        assertEquals(80, MeldSet.getBestMeldSet(hand).points());
+        assertEquals(60, MeldSet.getBestMeldSet(cards.subList(0, Jass.HAND_SIZE)).points());
+    }
+}
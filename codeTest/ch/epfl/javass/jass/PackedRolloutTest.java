@@ -0,0 +1,106 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.test.TestRandomizer.RANDOM_ITERATIONS;
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.javass.jass.Card.Color;
+
+public class PackedRolloutTest {
+    private static CardSet randomHand(SplittableRandom rng) {
+        CardSet hand = CardSet.EMPTY;
+        while (hand.size() < Jass.HAND_SIZE)
+            hand = hand.add(CardSet.ALL_CARDS.get(rng.nextInt(CardSet.ALL_CARDS.size())));
+        return hand;
+    }
+
+    private static Score turnStateScore(TurnState state, CardSet hand, PlayerId mctsId, SplittableRandom rng) {
+        while (!state.isTerminal()) {
+            CardSet cards = state.nextPlayer() == mctsId
+                    ? state.unplayedCards().intersection(hand)
+                    : state.unplayedCards().difference(hand);
+            CardSet playable = state.trick().playableCards(cards);
+            state = state.withNewCardPlayedAndTrickCollected(playable.get(rng.nextInt(playable.size())));
+        }
+        return state.score();
+    }
+
+    @Test
+    void randomScoreIsTheSameAsWithTurnState() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            CardSet hand = randomHand(rng);
+            PlayerId mctsId = PlayerId.ALL.get(rng.nextInt(PlayerId.COUNT));
+            TurnState state = TurnState.initial(Color.ALL.get(rng.nextInt(Color.COUNT)), Score.INITIAL, PlayerId.PLAYER_1);
+            long seed = rng.nextLong();
+
+            Score expected = turnStateScore(state, hand, mctsId, new SplittableRandom(seed));
+            long actual = PackedRollout.randomScore(state.packedScore(), state.packedUnplayedCards(),
+                    state.packedTrick(), hand.packed(), mctsId, new SplittableRandom(seed));
+            assertEquals(expected.packed(), actual);
+        }
+    }
+
+    @Test
+    void randomScoreOfDealPlaysAllTheCards() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            long[] hands = new long[PlayerId.COUNT];
+            long remaining = PackedCardSet.ALL_CARDS;
+            for (int p = 0; p < PlayerId.COUNT; ++p) {
+                while (PackedCardSet.size(hands[p]) < Jass.HAND_SIZE) {
+                    int c = PackedCardSet.get(remaining, rng.nextInt(PackedCardSet.size(remaining)));
+                    hands[p] = PackedCardSet.add(hands[p], c);
+                    remaining = PackedCardSet.remove(remaining, c);
+                }
+            }
+            int pkTrick = PackedTrick.firstEmpty(Color.ALL.get(rng.nextInt(Color.COUNT)), PlayerId.PLAYER_2);
+            long score = PackedRollout.randomScore(PackedScore.INITIAL, pkTrick, hands, rng);
+
+            for (long hand: hands)
+                assertEquals(PackedCardSet.EMPTY, hand);
+            assertEquals(Jass.TRICKS_PER_TURN,
+                    PackedScore.turnTricks(score, TeamId.TEAM_1) + PackedScore.turnTricks(score, TeamId.TEAM_2));
+        }
+    }
+
+    private static long randomScores(TurnState state, long pkHand, SplittableRandom rng, int playouts) {
+        long sum = 0;
+        for (int i = 0; i < playouts; ++i) {
+            long score = PackedRollout.randomScore(state.packedScore(), state.packedUnplayedCards(), state.packedTrick(),
+                    pkHand, PlayerId.PLAYER_1, rng);
+            sum += PackedScore.turnPoints(score, TeamId.TEAM_1);
+        }
+        return sum;
+    }
+
+    @Test
+    void randomScoreDoesNotAllocate() {
+        // only the HotSpot family of JVMs measures the allocations of a thread
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+
+        TurnState state = TurnState.initial(Color.HEART, Score.INITIAL, PlayerId.PLAYER_3);
+        long pkHand = randomHand(newRandom()).packed();
+        SplittableRandom rng = new SplittableRandom(0);
+        int playouts = 10_000;
+
+        randomScores(state, pkHand, rng, playouts);
+        long before = threads.getCurrentThreadAllocatedBytes();
+        long sum = randomScores(state, pkHand, rng, playouts);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        // the measure and the compilation of the loop may allocate a little, a single object per playout would be 16 bytes each
+        assertTrue(allocated < 8L * playouts, allocated + " bytes allocated");
+        assertTrue(sum > 0);
+    }
+}
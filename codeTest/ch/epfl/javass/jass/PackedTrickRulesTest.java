@@ -0,0 +1,203 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.test.TestRandomizer.RANDOM_ITERATIONS;
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.javass.jass.Card.Color;
+import ch.epfl.javass.jass.Card.Rank;
+
+/**
+ * Checks that the table-driven rules of PackedTrick give the same results as the card by card implementation they replaced
+ */
+public class PackedTrickRulesTest {
+    private static final int HANDS_PER_TRICK = 4;
+
+    private interface TrickConsumer {
+        void accept(int pkTrick);
+    }
+
+    // All the tricks of up to three distinct cards, with all trumps, first players and indexes 0 and 8
+    private static void forAllTricksUpToThreeCards(TrickConsumer consumer) {
+        for (Color trump: Color.ALL) {
+            for (int index: new int[] { 0, Jass.TRICKS_PER_TURN - 1 }) {
+                for (PlayerId first: PlayerId.ALL) {
+                    int empty = PackedTrick.firstEmpty(trump, first);
+                    for (int i = 0; i < index; ++i)
+                        empty = withIndex(empty, i + 1);
+                    consumer.accept(empty);
+                    forAllExtensions(empty, PackedCardSet.ALL_CARDS, 3, consumer);
+                }
+            }
+        }
+    }
+
+    private static void forAllExtensions(int pkTrick, long unplayed, int cards, TrickConsumer consumer) {
+        if (cards == 0)
+            return;
+        for (int c = PackedCardSet.first(unplayed); c != PackedCard.INVALID; c = PackedCardSet.next(unplayed, c)) {
+            int t = PackedTrick.withAddedCard(pkTrick, c);
+            consumer.accept(t);
+            forAllExtensions(t, PackedCardSet.remove(unplayed, c), cards - 1, consumer);
+        }
+    }
+
+    private static int withIndex(int pkTrick, int index) {
+        return (pkTrick & ~(0xF << 24)) | (index << 24);
+    }
+
+    private static long unplayedAfter(int pkTrick) {
+        long unplayed = PackedCardSet.ALL_CARDS;
+        for (int i = 0; i < PackedTrick.size(pkTrick); ++i)
+            unplayed = PackedCardSet.remove(unplayed, PackedTrick.card(pkTrick, i));
+        return unplayed;
+    }
+
+    private static long nextHand(SplittableRandom rng, long unplayed) {
+        long hand = PackedCardSet.EMPTY;
+        int size = 1 + rng.nextInt(Jass.HAND_SIZE);
+        while (PackedCardSet.size(hand) < Math.min(size, PackedCardSet.size(unplayed))) {
+            hand = PackedCardSet.add(hand, PackedCardSet.get(unplayed, rng.nextInt(PackedCardSet.size(unplayed))));
+        }
+        return hand;
+    }
+
+    @Test
+    void playableCardsIsEquivalentOnAllSmallTricks() {
+        SplittableRandom rng = newRandom();
+        forAllTricksUpToThreeCards(t -> {
+            if (PackedTrick.index(t) != 0)
+                return;
+            long unplayed = unplayedAfter(t);
+            for (int i = 0; i < HANDS_PER_TRICK; ++i) {
+                long hand = nextHand(rng, unplayed);
+                assertEquals(referencePlayableCards(t, hand), PackedTrick.playableCards(t, hand));
+            }
+        });
+    }
+
+    @Test
+    void playableCardsIsEquivalentOnAllColorSubsets() {
+        // every combination of the trumps and the cards of the base color of a hand, the other colors being all present or absent
+        for (Color trump: Color.ALL) {
+            for (Color base: Color.ALL) {
+                for (Rank first: Rank.ALL) {
+                    for (Rank second: Rank.ALL) {
+                        int t = PackedTrick.firstEmpty(trump, PlayerId.PLAYER_1);
+                        t = PackedTrick.withAddedCard(t, PackedCard.pack(base, first));
+                        int secondCard = PackedCard.pack(trump, second);
+                        if (secondCard != PackedTrick.card(t, 0))
+                            t = PackedTrick.withAddedCard(t, secondCard);
+                        long unplayed = unplayedAfter(t);
+                        long trumpCards = PackedCardSet.subsetOfColor(unplayed, trump);
+                        long baseCards = PackedCardSet.subsetOfColor(unplayed, base);
+                        long others = PackedCardSet.difference(unplayed, PackedCardSet.union(trumpCards, baseCards));
+                        for (long trumps = trumpCards; ; trumps = (trumps - 1) & trumpCards) {
+                            for (long bases: new long[] { PackedCardSet.EMPTY, baseCards, Long.lowestOneBit(baseCards) }) {
+                                for (long rest: new long[] { PackedCardSet.EMPTY, others }) {
+                                    long hand = trumps | bases | rest;
+                                    assertEquals(referencePlayableCards(t, hand), PackedTrick.playableCards(t, hand));
+                                }
+                            }
+                            if (trumps == 0)
+                                break;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void winningPlayerAndPointsAreEquivalentOnAllSmallTricks() {
+        forAllTricksUpToThreeCards(t -> {
+            if (!PackedTrick.isEmpty(t))
+                assertEquals(referenceWinningPlayer(t), PackedTrick.winningPlayer(t));
+            assertEquals(referencePoints(t), PackedTrick.points(t));
+        });
+    }
+
+    @Test
+    void rulesAreEquivalentOnRandomTricks() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS * 10; ++i) {
+            int t = PackedTrick.firstEmpty(Color.ALL.get(rng.nextInt(Color.COUNT)), PlayerId.ALL.get(rng.nextInt(PlayerId.COUNT)));
+            t = withIndex(t, rng.nextInt(Jass.TRICKS_PER_TURN));
+            int size = rng.nextInt(PlayerId.COUNT + 1);
+            long unplayed = PackedCardSet.ALL_CARDS;
+            for (int j = 0; j < size; ++j) {
+                int c = PackedCardSet.get(unplayed, rng.nextInt(PackedCardSet.size(unplayed)));
+                t = PackedTrick.withAddedCard(t, c);
+                unplayed = PackedCardSet.remove(unplayed, c);
+            }
+            if (!PackedTrick.isFull(t)) {
+                long hand = nextHand(rng, unplayed);
+                assertEquals(referencePlayableCards(t, hand), PackedTrick.playableCards(t, hand));
+            }
+            if (!PackedTrick.isEmpty(t))
+                assertEquals(referenceWinningPlayer(t), PackedTrick.winningPlayer(t));
+            assertEquals(referencePoints(t), PackedTrick.points(t));
+        }
+    }
+
+    // Implementation of the rules before the tables, card by card with PackedCard.isBetter
+
+    private static long referencePlayableCards(int pkTrick, long pkHand) {
+        int card1 = PackedTrick.card(pkTrick, 0);
+        Color trump = PackedTrick.trump(pkTrick);
+        long trumpToPlay = 0L;
+        long colorToPlay = 0L;
+        long trumpJack = PackedCardSet.singleton(PackedCard.pack(trump, Rank.JACK));
+        if (card1 == PackedCard.INVALID)
+            return pkHand;
+
+        Color turnColor = PackedCard.color(card1);
+        long trumpHand = PackedCardSet.subsetOfColor(pkHand, trump);
+        long colorHand = PackedCardSet.subsetOfColor(pkHand, turnColor);
+        if (trumpHand == 0 || trumpHand == trumpJack) {
+            trumpToPlay = trumpHand;
+        } else {
+            int strongest = PackedTrick.card(pkTrick, referenceStrongestIndex(pkTrick));
+            for (int i = 0; i < PackedCardSet.size(trumpHand); ++i) {
+                if (PackedCard.isBetter(trump, PackedCardSet.get(trumpHand, i), strongest))
+                    trumpToPlay = PackedCardSet.add(trumpToPlay, PackedCardSet.get(trumpHand, i));
+            }
+        }
+        if (turnColor.equals(trump)) {
+            if (trumpHand == 0 || trumpHand == trumpJack)
+                colorToPlay = PackedCardSet.difference(pkHand, trumpHand);
+            else
+                trumpToPlay = trumpHand;
+        } else {
+            colorToPlay = (colorHand == 0 ? PackedCardSet.difference(pkHand, trumpHand) : colorHand);
+        }
+        if (colorToPlay == 0 && trumpToPlay == 0)
+            trumpToPlay = trumpHand;
+        return trumpToPlay | colorToPlay;
+    }
+
+    private static int referenceStrongestIndex(int pkTrick) {
+        Color trump = PackedTrick.trump(pkTrick);
+        int winningIndex = 0;
+        for (int i = 1; i < PackedTrick.size(pkTrick); ++i) {
+            if (PackedCard.isBetter(trump, PackedTrick.card(pkTrick, i), PackedTrick.card(pkTrick, winningIndex)))
+                winningIndex = i;
+        }
+        return winningIndex;
+    }
+
+    private static PlayerId referenceWinningPlayer(int pkTrick) {
+        return PackedTrick.player(pkTrick, referenceStrongestIndex(pkTrick));
+    }
+
+    private static int referencePoints(int pkTrick) {
+        int points = 0;
+        for (int i = 0; i < PackedTrick.size(pkTrick); ++i)
+            points += PackedCard.points(PackedTrick.trump(pkTrick), PackedTrick.card(pkTrick, i));
+        return points + (PackedTrick.isLast(pkTrick) ? Jass.LAST_TRICK_ADDITIONAL_POINTS : 0);
+    }
+}
@@ -0,0 +1,76 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.test.TestRandomizer.RANDOM_ITERATIONS;
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.javass.jass.Card.Color;
+
+public class PackedTurnStateTest {
+    @Test
+    void playingATurnGivesTheSameStatesAsTurnState() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            Color trump = Color.ALL.get(rng.nextInt(Color.COUNT));
+            PlayerId first = PlayerId.ALL.get(rng.nextInt(PlayerId.COUNT));
+            TurnState state = TurnState.initial(trump, Score.INITIAL, first);
+            long pkScore = PackedScore.INITIAL;
+            long pkUnplayed = PackedCardSet.ALL_CARDS;
+            int pkTrick = PackedTrick.firstEmpty(trump, first);
+
+            while (!state.isTerminal()) {
+                assertFalse(PackedTurnState.isTerminal(pkTrick));
+                assertTrue(PackedTurnState.isValid(pkScore, pkUnplayed, pkTrick));
+                assertEquals(state.nextPlayer(), PackedTurnState.nextPlayer(pkTrick));
+
+                int card = PackedCardSet.get(pkUnplayed, rng.nextInt(PackedCardSet.size(pkUnplayed)));
+                state = state.withNewCardPlayedAndTrickCollected(Card.ofPacked(card));
+                pkUnplayed = PackedCardSet.remove(pkUnplayed, card);
+                pkTrick = PackedTrick.withAddedCard(pkTrick, card);
+                pkScore = PackedTurnState.collectedScore(pkScore, pkTrick);
+                pkTrick = PackedTurnState.collectedTrick(pkTrick);
+
+                assertEquals(state.packedScore(), pkScore);
+                assertEquals(state.packedUnplayedCards(), pkUnplayed);
+                assertEquals(state.packedTrick(), pkTrick);
+            }
+            assertTrue(PackedTurnState.isTerminal(pkTrick));
+            assertEquals(PackedTrick.INVALID, pkTrick);
+            assertEquals(Jass.TRICKS_PER_TURN, PackedScore.turnTricks(pkScore, TeamId.TEAM_1) + PackedScore.turnTricks(pkScore, TeamId.TEAM_2));
+        }
+    }
+
+    @Test
+    void collectingLeavesAnIncompleteTrickUnchanged() {
+        int pkTrick = PackedTrick.firstEmpty(Color.HEART, PlayerId.PLAYER_3);
+        long pkScore = PackedScore.pack(2, 30, 100, 3, 40, 200);
+        for (int i = 0; i < PlayerId.COUNT - 1; ++i) {
+            pkTrick = PackedTrick.withAddedCard(pkTrick, PackedCardSet.get(PackedCardSet.ALL_CARDS, i));
+            assertEquals(pkScore, PackedTurnState.collectedScore(pkScore, pkTrick));
+            assertEquals(pkTrick, PackedTurnState.collectedTrick(pkTrick));
+        }
+    }
+
+    @Test
+    void isTerminalIsTrueForAFullLastTrick() {
+        int pkTrick = PackedTrick.firstEmpty(Color.CLUB, PlayerId.PLAYER_1);
+        for (int i = 0; i < Jass.TRICKS_PER_TURN - 1; ++i) {
+            for (int j = 0; j < PlayerId.COUNT; ++j)
+                pkTrick = PackedTrick.withAddedCard(pkTrick, PackedCardSet.get(PackedCardSet.ALL_CARDS, PlayerId.COUNT * i + j));
+            assertFalse(PackedTurnState.isTerminal(pkTrick));
+            pkTrick = PackedTurnState.collectedTrick(pkTrick);
+        }
+        for (int j = 0; j < PlayerId.COUNT; ++j) {
+            assertFalse(PackedTurnState.isTerminal(pkTrick));
+            pkTrick = PackedTrick.withAddedCard(pkTrick, PackedCardSet.get(PackedCardSet.ALL_CARDS, 32 + j));
+        }
+        assertTrue(PackedTurnState.isTerminal(pkTrick));
+        assertTrue(PackedTurnState.isTerminal(PackedTurnState.collectedTrick(pkTrick)));
+    }
+}
@@ -0,0 +1,95 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.test.TestRandomizer.RANDOM_ITERATIONS;
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.javass.jass.Card.Color;
+import ch.epfl.javass.jass.Card.Rank;
+
+public class RolloutPolicyTest {
+    private static int trick(Color trump, PlayerId firstPlayer, Card... cards) {
+        int pkTrick = PackedTrick.firstEmpty(trump, firstPlayer);
+        for (Card c: cards)
+            pkTrick = PackedTrick.withAddedCard(pkTrick, c.packed());
+        return pkTrick;
+    }
+
+    private static long cards(Card... cards) {
+        long s = PackedCardSet.EMPTY;
+        for (Card c: cards)
+            s = PackedCardSet.add(s, c.packed());
+        return s;
+    }
+
+    private static final SplittableRandom RNG = new SplittableRandom(0);
+
+    @Test
+    void policiesFailWithInvalidEpsilon() {
+        for (double epsilon: new double[] { -0.1, 1.1, Double.NaN }) {
+            assertThrows(IllegalArgumentException.class, () -> RolloutPolicy.greedy(epsilon));
+            assertThrows(IllegalArgumentException.class, () -> RolloutPolicy.trumpConserving(epsilon));
+        }
+    }
+
+    @Test
+    void policiesOnlyPlayPlayableCards() {
+        SplittableRandom rng = newRandom();
+        RolloutPolicy[] policies = { RolloutPolicy.RANDOM, RolloutPolicy.greedy(0.2), RolloutPolicy.trumpConserving(0) };
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            TurnState s = TurnState.initial(Color.ALL.get(rng.nextInt(Color.COUNT)), Score.INITIAL, PlayerId.PLAYER_1);
+            while (!s.isTerminal()) {
+                long playable = PackedTrick.playableCards(s.packedTrick(), s.packedUnplayedCards());
+                int c = policies[i % policies.length].cardToPlay(s.packedTrick(), playable, rng);
+                assertTrue(PackedCardSet.contains(playable, c));
+                s = s.withNewCardPlayedAndTrickCollected(Card.ofPacked(c));
+            }
+        }
+    }
+
+    @Test
+    void greedyPolicyWinsTrickCheaply() {
+        int pkTrick = trick(Color.HEART, PlayerId.PLAYER_1, Card.of(Color.SPADE, Rank.TEN));
+        long playable = cards(Card.of(Color.SPADE, Rank.SIX), Card.of(Color.SPADE, Rank.QUEEN), Card.of(Color.SPADE, Rank.ACE));
+        assertEquals(Card.of(Color.SPADE, Rank.QUEEN).packed(), RolloutPolicy.greedy(0).cardToPlay(pkTrick, playable, RNG));
+    }
+
+    @Test
+    void greedyPolicyDiscardsWhenItCannotWin() {
+        int pkTrick = trick(Color.HEART, PlayerId.PLAYER_1, Card.of(Color.SPADE, Rank.ACE));
+        long playable = cards(Card.of(Color.SPADE, Rank.SEVEN), Card.of(Color.SPADE, Rank.TEN), Card.of(Color.SPADE, Rank.KING));
+        assertEquals(Card.of(Color.SPADE, Rank.SEVEN).packed(), RolloutPolicy.greedy(0).cardToPlay(pkTrick, playable, RNG));
+    }
+
+    @Test
+    void greedyPolicyDoesNotOvertakeItsPartner() {
+        int pkTrick = trick(Color.HEART, PlayerId.PLAYER_1, Card.of(Color.SPADE, Rank.KING), Card.of(Color.SPADE, Rank.SIX));
+        long playable = cards(Card.of(Color.SPADE, Rank.EIGHT), Card.of(Color.SPADE, Rank.ACE));
+        assertEquals(Card.of(Color.SPADE, Rank.EIGHT).packed(), RolloutPolicy.greedy(0).cardToPlay(pkTrick, playable, RNG));
+    }
+
+    @Test
+    void greedyPolicyLeadsItsStrongestCard() {
+        int pkTrick = trick(Color.HEART, PlayerId.PLAYER_1);
+        long playable = cards(Card.of(Color.SPADE, Rank.ACE), Card.of(Color.HEART, Rank.SIX), Card.of(Color.CLUB, Rank.KING));
+        assertEquals(Card.of(Color.HEART, Rank.SIX).packed(), RolloutPolicy.greedy(0).cardToPlay(pkTrick, playable, RNG));
+        assertEquals(Card.of(Color.SPADE, Rank.ACE).packed(), RolloutPolicy.trumpConserving(0).cardToPlay(pkTrick, playable, RNG));
+    }
+
+    @Test
+    void trumpConservingPolicyDoesNotTrumpCheapTricks() {
+        int pkTrick = trick(Color.HEART, PlayerId.PLAYER_1, Card.of(Color.SPADE, Rank.SIX));
+        long playable = cards(Card.of(Color.HEART, Rank.SIX), Card.of(Color.CLUB, Rank.SEVEN), Card.of(Color.CLUB, Rank.KING));
+        assertEquals(Card.of(Color.HEART, Rank.SIX).packed(), RolloutPolicy.greedy(0).cardToPlay(pkTrick, playable, RNG));
+        assertEquals(Card.of(Color.CLUB, Rank.SEVEN).packed(), RolloutPolicy.trumpConserving(0).cardToPlay(pkTrick, playable, RNG));
+
+        int valuable = trick(Color.HEART, PlayerId.PLAYER_1, Card.of(Color.SPADE, Rank.TEN));
+        assertEquals(Card.of(Color.HEART, Rank.SIX).packed(), RolloutPolicy.trumpConserving(0).cardToPlay(valuable, playable, RNG));
+    }
+}
@@ -0,0 +1,99 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.javass.jass.Tournament.Entrant;
+import ch.epfl.javass.jass.Tournament.Match;
+
+public class TournamentTest {
+    private static final List<Entrant> ENTRANTS = Arrays.asList(
+            Entrant.of("random", (id, seed) -> PackedPlayer.of(RolloutPolicy.RANDOM, seed).asPlayer()),
+            Entrant.of("greedy", (id, seed) -> PackedPlayer.of(RolloutPolicy.greedy(0), seed).asPlayer()),
+            Entrant.of("conserving", (id, seed) -> PackedPlayer.of(RolloutPolicy.trumpConserving(0.1), seed).asPlayer()));
+
+    @Test
+    void playFailsWithInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            Tournament.play(Collections.singletonList(ENTRANTS.get(0)), 10, 1, 0);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            Tournament.play(ENTRANTS, 0, 1, 0);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            Tournament.play(ENTRANTS, 10, 0, 0);
+        });
+    }
+
+    @Test
+    void playPlaysEveryPairOfEntrants() {
+        List<Match> matches = Tournament.play(ENTRANTS, 6, 2, newRandom().nextLong());
+        assertEquals(3, matches.size());
+        String[][] pairs = { { "random", "greedy" }, { "random", "conserving" }, { "greedy", "conserving" } };
+        for (int i = 0; i < pairs.length; ++i) {
+            assertEquals(pairs[i][0], matches.get(i).first());
+            assertEquals(pairs[i][1], matches.get(i).second());
+            assertEquals(6, matches.get(i).games());
+        }
+    }
+
+    @Test
+    void playDoesNotDependOnTheThreads() {
+        long seed = newRandom().nextLong();
+        List<Match> one = Tournament.play(ENTRANTS, 10, 1, seed);
+        List<Match> four = Tournament.play(ENTRANTS, 10, 4, seed);
+        for (int i = 0; i < one.size(); ++i) {
+            assertEquals(one.get(i).wins(), four.get(i).wins());
+            assertEquals(one.get(i).meanPointDifference(), four.get(i).meanPointDifference());
+            assertEquals(one.get(i).toString(), four.get(i).toString());
+        }
+    }
+
+    @Test
+    void duplicatePlaysEachDealTwice() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            Tournament.play(ENTRANTS, 5, 1, 0, true);
+        });
+        long seed = newRandom().nextLong();
+        List<Match> one = Tournament.play(ENTRANTS, 10, 1, seed, true);
+        List<Match> four = Tournament.play(ENTRANTS, 10, 4, seed, true);
+        for (int i = 0; i < one.size(); ++i) {
+            assertEquals(5, one.get(i).samples());
+            assertEquals(10, one.get(i).games());
+            assertEquals(one.get(i).toString(), four.get(i).toString());
+        }
+        assertEquals(10, Tournament.play(ENTRANTS, 10, 1, seed).get(0).samples());
+    }
+
+    @Test
+    void duplicateMatchOfTheSameConfigurationsIsADraw() {
+        // the second game of each deal mirrors the first one, the players of each seat having the same seeds
+        List<Entrant> twins = Arrays.asList(
+                Entrant.of("first", (id, seed) -> PackedPlayer.of(RolloutPolicy.greedy(0.2), seed).asPlayer()),
+                Entrant.of("second", (id, seed) -> PackedPlayer.of(RolloutPolicy.greedy(0.2), seed).asPlayer()));
+        Match m = Tournament.play(twins, 20, 2, newRandom().nextLong(), true).get(0);
+        assertEquals(10, m.wins());
+        assertEquals(0, m.meanPointDifference());
+        assertEquals(0, m.pointDifferenceMargin());
+    }
+
+    @Test
+    void confidenceIntervalsContainTheMeasures() {
+        List<Match> matches = Tournament.play(ENTRANTS, 40, 2, newRandom().nextLong());
+        for (Match m: matches) {
+            assertTrue(0 <= m.winRateLow() && m.winRateLow() <= m.winRate());
+            assertTrue(m.winRate() <= m.winRateHigh() && m.winRateHigh() <= 1);
+            assertTrue(m.pointDifferenceMargin() >= 0);
+        }
+        // greedy players take more points than random ones
+        assertTrue(matches.get(0).meanPointDifference() < 0);
+    }
+}
@@ -0,0 +1,47 @@
+package ch.epfl.javass.jass;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class TranspositionTableTest {
+    @Test
+    void addedPositionsAreFound() {
+        TranspositionTable t = new TranspositionTable(16);
+        t.add(42, 100);
+        t.add(42, 57);
+        int entry = t.find(42, 0);
+        assertEquals(157, t.points(entry));
+        assertEquals(2, t.computed(entry));
+        assertEquals(-1, t.find(43, 0));
+        assertEquals(2, t.lookups());
+        assertEquals(1, t.hits());
+        assertEquals(1, t.shared());
+        t.find(42, 2);
+        assertEquals(1, t.shared());
+    }
+
+    @Test
+    void leastSimulatedPositionIsReplaced() {
+        TranspositionTable t = new TranspositionTable(16);
+        // 3, 19 and 35 fall in the same bucket of a table of 16 entries
+        t.add(3, 10);
+        t.add(3, 10);
+        t.add(19, 10);
+        t.add(35, 10);
+        assertEquals(1, t.replacements());
+        assertEquals(-1, t.find(19, 0));
+        assertEquals(2, t.computed(t.find(3, 0)));
+        assertEquals(1, t.computed(t.find(35, 0)));
+    }
+
+    @Test
+    void clearRemovesAllPositions() {
+        TranspositionTable t = new TranspositionTable(16);
+        for (int k = 0; k < 16; ++k)
+            t.add(k, 1);
+        t.clear();
+        for (int k = 0; k < 16; ++k)
+            assertEquals(-1, t.find(k, 0));
+    }
+}
@@ -0,0 +1,65 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.javass.jass.Card.Color;
+import ch.epfl.javass.jass.Card.Rank;
+
+public class TrumpEvaluatorTest {
+    private static long randomHand(SplittableRandom rng) {
+        long hand = PackedCardSet.EMPTY;
+        while (PackedCardSet.size(hand) < Jass.HAND_SIZE)
+            hand = PackedCardSet.add(hand, PackedCardSet.get(PackedCardSet.ALL_CARDS, rng.nextInt(PackedCardSet.size(PackedCardSet.ALL_CARDS))));
+        return hand;
+    }
+
+    @Test
+    void averagePointsDoNotDependOnTheThreads() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < 10; ++i) {
+            long hand = randomHand(rng);
+            long seed = rng.nextLong();
+            double[] single = TrumpEvaluator.averagePoints(hand, PlayerId.PLAYER_2, 200, Long.MAX_VALUE, RolloutPolicy.RANDOM, seed, null);
+            for (int threads = 2; threads <= 4; ++threads) {
+                ForkJoinPool pool = new ForkJoinPool(threads);
+                double[] parallel = TrumpEvaluator.averagePoints(hand, PlayerId.PLAYER_2, 200, Long.MAX_VALUE, RolloutPolicy.RANDOM, seed, pool);
+                pool.shutdown();
+                assertArrayEquals(single, parallel);
+            }
+        }
+    }
+
+    @Test
+    void averagePointsAreTurnPoints() {
+        SplittableRandom rng = newRandom();
+        double[] average = TrumpEvaluator.averagePoints(randomHand(rng), PlayerId.PLAYER_1, 100, Long.MAX_VALUE, RolloutPolicy.greedy(0), rng.nextLong(), null);
+        for (double a: average)
+            assertTrue(a >= 0 && a <= Jass.MATCH_ADDITIONAL_POINTS + 157);
+    }
+
+    @Test
+    void strongColorIsChosen() {
+        long hand = PackedCardSet.EMPTY;
+        for (Rank r: new Rank[] { Rank.JACK, Rank.NINE, Rank.ACE, Rank.KING, Rank.TEN, Rank.SIX })
+            hand = PackedCardSet.add(hand, PackedCard.pack(Color.DIAMOND, r));
+        hand = PackedCardSet.add(hand, PackedCard.pack(Color.SPADE, Rank.SIX));
+        hand = PackedCardSet.add(hand, PackedCard.pack(Color.HEART, Rank.SEVEN));
+        hand = PackedCardSet.add(hand, PackedCard.pack(Color.CLUB, Rank.EIGHT));
+        double[] average = TrumpEvaluator.averagePoints(hand, PlayerId.PLAYER_3, 500, Long.MAX_VALUE, RolloutPolicy.greedy(0), 0, null);
+        assertEquals(Color.DIAMOND, TrumpEvaluator.best(average));
+    }
+
+    @Test
+    void bestReturnsTheHighestAverage() {
+        assertEquals(Color.HEART, TrumpEvaluator.best(new double[] { 10, 70, 3, 69.5 }));
+        assertEquals(Color.SPADE, TrumpEvaluator.best(new double[] { 10, 10, 10, 10 }));
+    }
+}
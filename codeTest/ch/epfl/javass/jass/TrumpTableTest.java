@@ -0,0 +1,148 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.test.TestRandomizer.RANDOM_ITERATIONS;
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.javass.jass.Card.Color;
+
+public class TrumpTableTest {
+    private static final int DEALS = 10;
+
+    private static long randomHand(SplittableRandom rng) {
+        long hand = PackedCardSet.EMPTY;
+        while (PackedCardSet.size(hand) < Jass.HAND_SIZE)
+            hand = PackedCardSet.add(hand, PackedCardSet.get(PackedCardSet.ALL_CARDS, rng.nextInt(PackedCardSet.size(PackedCardSet.ALL_CARDS))));
+        return hand;
+    }
+
+    // exchanges the cards of the two given colors
+    private static long swapColors(long hand, Color c1, Color c2) {
+        long swapped = PackedCardSet.EMPTY;
+        for (int i = 0; i < PackedCardSet.size(hand); ++i) {
+            int c = PackedCardSet.get(hand, i);
+            Color color = PackedCard.color(c);
+            Color image = color == c1 ? c2 : color == c2 ? c1 : color;
+            swapped = PackedCardSet.add(swapped, PackedCard.pack(image, PackedCard.rank(c)));
+        }
+        return swapped;
+    }
+
+    @Test
+    void handCountIsBinomial() {
+        assertEquals(94_143_280L, TrumpTable.HAND_COUNT);
+    }
+
+    @Test
+    void unrankIsTheInverseOfRank() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            long hand = randomHand(rng);
+            long rank = TrumpTable.rank(hand);
+            assertTrue(rank >= 0 && rank < TrumpTable.HAND_COUNT);
+            assertEquals(hand, TrumpTable.unrank(rank));
+        }
+        assertEquals(0, TrumpTable.rank(TrumpTable.unrank(0)));
+        assertEquals(TrumpTable.HAND_COUNT - 1, TrumpTable.rank(TrumpTable.unrank(TrumpTable.HAND_COUNT - 1)));
+    }
+
+    @Test
+    void canonicalDoesNotDependOnTheColors() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            long hand = randomHand(rng);
+            long canonical = TrumpTable.canonical(hand);
+            assertEquals(Jass.HAND_SIZE, PackedCardSet.size(canonical));
+            assertEquals(canonical, TrumpTable.canonical(canonical));
+            Color c1 = Color.ALL.get(rng.nextInt(Color.COUNT));
+            Color c2 = Color.ALL.get(rng.nextInt(Color.COUNT));
+            assertEquals(canonical, TrumpTable.canonical(swapColors(hand, c1, c2)));
+        }
+    }
+
+    @Test
+    void permutationGivesEachColorOnceInDecreasingMasks() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            long hand = randomHand(rng);
+            int permutation = TrumpTable.permutation(hand);
+            int seen = 0;
+            for (int c = 0; c < Color.COUNT; ++c) {
+                int color = TrumpTable.color(permutation, c);
+                seen |= 1 << color;
+                // the color at index c of the canonical hand is the color of the permutation in the hand
+                assertEquals(PackedCardSet.subsetOfColor(hand, Color.ALL.get(color)) >>> (color * 16),
+                        PackedCardSet.subsetOfColor(TrumpTable.canonical(hand), Color.ALL.get(c)) >>> (c * 16));
+            }
+            assertEquals((1 << Color.COUNT) - 1, seen);
+        }
+    }
+
+    @Test
+    void generatedTableGivesTheEvaluatedTrumps() throws IOException {
+        Path file = Files.createTempFile("trumps", ".table");
+        try {
+            Files.delete(file);
+            int total = TrumpTable.chunkCount();
+            assertEquals(total - 1, TrumpTable.generate(file, DEALS, 0, 1, 1));
+            TrumpTable table = TrumpTable.open(file);
+            assertEquals(1, table.chunksDone());
+
+            for (long rank = 0; rank < 256; rank += 7) {
+                long hand = TrumpTable.unrank(rank);
+                if (TrumpTable.canonical(hand) != hand)
+                    continue;
+                double[] average = TrumpEvaluator.averagePoints(hand, PlayerId.PLAYER_1, DEALS, Long.MAX_VALUE, RolloutPolicy.greedy(0.1), rank, null);
+                Color trump = table.trump(hand);
+                assertEquals(TrumpEvaluator.best(average), trump);
+                // the same hand with two colors exchanged has a trump as good, once exchanged back
+                Color other = Color.ALL.get((int) (rank % Color.COUNT));
+                Color swapped = table.trump(swapColors(hand, Color.SPADE, other));
+                Color back = swapped == other ? Color.SPADE : swapped == Color.SPADE ? other : swapped;
+                assertEquals(average[trump.ordinal()], average[back.ordinal()]);
+            }
+            long uncovered = TrumpTable.unrank(TrumpTable.HAND_COUNT / 2);
+            assertTrue(TrumpTable.rank(TrumpTable.canonical(uncovered)) >= 256);
+            assertNull(table.trump(uncovered));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void generationCanBeResumed() throws IOException {
+        Path file = Files.createTempFile("trumps", ".table");
+        try {
+            Files.delete(file);
+            int total = TrumpTable.chunkCount();
+            TrumpTable.generate(file, DEALS, 0, 1, 1);
+            assertEquals(total - 3, TrumpTable.generate(file, DEALS, 0, 2, 2));
+            assertEquals(3, TrumpTable.open(file).chunksDone());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void openFailsOnOtherFiles() throws IOException {
+        Path file = Files.createTempFile("trumps", ".table");
+        try {
+            Files.write(file, new byte[] { 1, 2, 3 });
+            assertThrows(IllegalArgumentException.class, () -> {
+                TrumpTable.open(file);
+            });
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
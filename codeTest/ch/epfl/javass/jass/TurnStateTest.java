@@ -4,6 +4,7 @@ import static ch.epfl.test.TestRandomizer.RANDOM_ITERATIONS;
 import static ch.epfl.test.TestRandomizer.newRandom;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -90,6 +91,16 @@ public class TurnStateTest {
         }
     }
 
+    @Test
+    void accessorsReturnTheSameInstanceAtEachCall() {
+        TurnState s = TurnState.initial(Color.HEART, Score.INITIAL, PlayerId.PLAYER_2)
+                .withNewCardPlayed(Card.of(Color.SPADE, Rank.ACE));
+        assertSame(s.score(), s.score());
+        assertSame(s.trick(), s.trick());
+        assertSame(s.unplayedCards(), s.unplayedCards());
+        assertSame(s.trick().card(0), Card.of(Color.SPADE, Rank.ACE));
+    }
+
     @Test
     void ofPackedComponentsFailsWithInvalidComponents() {
         assertThrows(IllegalArgumentException.class, () -> {
@@ -122,6 +133,22 @@ public class TurnStateTest {
         }
     }
 
+    @Test
+    void trickFailsOnceTheLastTrickIsCollected() {
+        SplittableRandom rng = newRandom();
+        CardSet remainingCards = CardSet.ALL_CARDS;
+        TurnState s = TurnState.initial(nextColor(rng), Score.INITIAL, nextPlayerId(rng));
+        while (!s.isTerminal()) {
+            Card cardToPlay = s.trick().playableCards(remainingCards).get(0);
+            remainingCards = remainingCards.remove(cardToPlay);
+            s = s.withNewCardPlayedAndTrickCollected(cardToPlay);
+        }
+        TurnState terminal = s;
+        assertThrows(IllegalArgumentException.class, () -> {
+            terminal.trick();
+        });
+    }
+
     @Test
     void nextPlayerWorks() {
         SplittableRandom rng = newRandom();
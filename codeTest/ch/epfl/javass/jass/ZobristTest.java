@@ -0,0 +1,73 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.test.TestRandomizer.RANDOM_ITERATIONS;
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.javass.jass.Card.Color;
+
+public class ZobristTest {
+    private static long hash(TurnState s) {
+        return Zobrist.hash(s.packedScore(), s.packedUnplayedCards(), s.packedTrick());
+    }
+
+    @Test
+    void incrementalHashIsTheSameAsFullHash() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            TurnState s = TurnState.initial(Color.ALL.get(rng.nextInt(Color.COUNT)), Score.INITIAL,
+                    PlayerId.ALL.get(rng.nextInt(PlayerId.COUNT)));
+            long h = hash(s);
+            while (!s.isTerminal()) {
+                CardSet playable = s.trick().playableCards(s.unplayedCards());
+                Card c = playable.get(rng.nextInt(playable.size()));
+                TurnState next = s.withNewCardPlayedAndTrickCollected(c);
+                h = Zobrist.withCardPlayed(h, s.packedScore(), s.packedTrick(), c.packed(),
+                        next.packedScore(), next.packedTrick());
+                s = next;
+                assertEquals(hash(s), h);
+            }
+        }
+    }
+
+    @Test
+    void transposedTricksHaveTheSameHash() {
+        // two first tricks in different orders, both won by player 1 with the same points
+        TurnState s = TurnState.initial(Color.HEART, Score.INITIAL, PlayerId.PLAYER_1);
+        CardSet cards = CardSet.ALL_CARDS.subsetOfColor(Color.SPADE);
+        TurnState a = s, b = s;
+        int[] first = { 8, 0, 1, 2, 7, 3, 4, 5 };
+        int[] second = { 7, 3, 4, 5, 8, 0, 1, 2 };
+        for (int i = 0; i < first.length; ++i) {
+            a = a.withNewCardPlayedAndTrickCollected(cards.get(first[i]));
+            b = b.withNewCardPlayedAndTrickCollected(cards.get(second[i]));
+        }
+        assertEquals(a.packedUnplayedCards(), b.packedUnplayedCards());
+        assertEquals(a.packedScore(), b.packedScore());
+        assertEquals(hash(a), hash(b));
+    }
+
+    @Test
+    void differentStatesHaveDifferentHashes() {
+        SplittableRandom rng = newRandom();
+        Set<Long> hashes = new HashSet<>();
+        Set<String> states = new HashSet<>();
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            TurnState s = TurnState.initial(Color.ALL.get(rng.nextInt(Color.COUNT)), Score.INITIAL, PlayerId.PLAYER_1);
+            int cards = rng.nextInt(20);
+            for (int j = 0; j < cards; ++j) {
+                CardSet playable = s.trick().playableCards(s.unplayedCards());
+                s = s.withNewCardPlayedAndTrickCollected(playable.get(rng.nextInt(playable.size())));
+            }
+            if (states.add(s.packedScore() + "/" + s.packedUnplayedCards() + "/" + s.packedTrick()))
+                assertTrue(hashes.add(hash(s)));
+        }
+    }
+}
@@ -9,6 +9,7 @@ import java.util.Random;
 import ch.epfl.javass.gui.GraphicalPlayerAdapter;
 import ch.epfl.javass.jass.JassGame;
 import ch.epfl.javass.jass.MctsPlayer;
+import ch.epfl.javass.jass.MctsSettings;
 import ch.epfl.javass.jass.PacedPlayer;
 import ch.epfl.javass.jass.Player;
 import ch.epfl.javass.jass.PlayerId;
@@ -28,6 +29,9 @@ public class LocalMain extends Application{
 	
 	// default settings for simulated and remote players
 	public static final int DEFAULT_ITERATIONS = 10000;
+	// without given iterations, the simulated players search during the whole paced time, but at least DEFAULT_ITERATIONS times
+	public static final MctsSettings DEFAULT_SETTINGS = MctsSettings.ofTimeBudget(SIM_TIME)
+			.withIterationBounds(DEFAULT_ITERATIONS, Integer.MAX_VALUE);
 	public static final String DEFAULT_HOST = "localhost";
 	
 	private final String[] defaultNames = {"Aline", "Bastien", "Colette", "David"};
@@ -151,14 +155,14 @@ public class LocalMain extends Application{
 		
 		case 1 :
 			players.put(pId, new PacedPlayer(
-					new MctsPlayer(pId, mainRandom.nextLong(), DEFAULT_ITERATIONS),
+					new MctsPlayer(pId, mainRandom.nextLong(), DEFAULT_SETTINGS),
 					SIM_TIME));
 			playerNames.put(pId, defaultNames[pId.ordinal()]);
 			break;
 			
 		case 2 : 
 			players.put(pId, new PacedPlayer(
-					new MctsPlayer(pId, mainRandom.nextLong(), DEFAULT_ITERATIONS),
+					new MctsPlayer(pId, mainRandom.nextLong(), DEFAULT_SETTINGS),
 					SIM_TIME));
 			playerNames.put(pId, s[1]);
 			break;
@@ -101,5 +101,95 @@ public final class Bits32 {
 		return v1 | (v2 << s1) | (v3 << s1+s2) | (v4 << s1+s2+s3) | (v5 << s1+s2+s3+s4) | (v6 << s1+s2+s3+s4+s5) | (v7 << s1+s2+s3+s4+s5+s6);
 	}
 
+	/**
+	 * Same as mask, the arguments being only checked when assertions are enabled
+	 * Meant for the "packed" classes, whose positions and sizes are constants, so that the calls reduce to a few shifts
+	 * @param start		starting index of the mask
+	 * @param size		size of the mask
+	 * @return			mask in integer form
+	 */
+	public static int maskUnchecked(int start, int size) {
+		assert(start >= 0 && size >= 0 && start + size <= Integer.SIZE);
+		
+		return (int)((1L << size) - 1) << start; // computed on a long so that a size of 32 gives -1
+	}
+
+	/**
+	 * Same as extract, the arguments being only checked when assertions are enabled
+	 * @param bits		source integer from which to extract
+	 * @param start		starting index of the part to extract
+	 * @param size		size of the part to extract
+	 * @return			extracted part in integer form
+	 */
+	public static int extractUnchecked(int bits, int start, int size) {
+		assert(start >= 0 && size >= 0 && start + size <= Integer.SIZE);
+		
+		return (bits >>> start) & maskUnchecked(0, size);
+	}
+	
+	/**
+	 * Checks, without floating point operations, that the given value is positive and fits in the given size
+	 * @param value		value of the integer
+	 * @param size		size allocated for the value
+	 * @return			true if it fits, false if it doesn't
+	 */
+	private static boolean fits(int value, int size) {
+		return size >= 0 && size <= Integer.SIZE && (size == Integer.SIZE || (value >>> size) == 0);
+	}
+
+	/**
+	 * Same as pack with 2 values, the arguments being only checked when assertions are enabled
+	 * @param v1	first value
+	 * @param s1	size allocated to first value
+	 * @param v2	second value
+	 * @param s2	size allocated to second value
+	 * @return		"packed" integer with the values, the first one in the lowest bits
+	 */
+	public static int packUnchecked(int v1, int s1, int v2, int s2) {
+		assert(fits(v1, s1) && fits(v2, s2) && s1 + s2 <= Integer.SIZE);
+		
+		return v1 | (v2 << s1);
+	}
+
+	/**
+	 * Same as pack with 3 values, the arguments being only checked when assertions are enabled
+	 * @param v1	first value
+	 * @param s1	size allocated to first value
+	 * @param v2	second value
+	 * @param s2	size allocated to second value
+	 * @param v3	third value
+	 * @param s3	size allocated to third value
+	 * @return		"packed" integer with the values, the first one in the lowest bits
+	 */
+	public static int packUnchecked(int v1, int s1, int v2, int s2, int v3, int s3) {
+		assert(fits(v1, s1) && fits(v2, s2) && fits(v3, s3) && s1 + s2 + s3 <= Integer.SIZE);
+		
+		return v1 | (v2 << s1) | (v3 << s1+s2);
+	}
 
-}
\ No newline at end of file
+	/**
+	 * Same as pack with 7 values, the arguments being only checked when assertions are enabled
+	 * @param v1	first value
+	 * @param s1	size allocated to first value
+	 * @param v2	second value
+	 * @param s2	size allocated to second value
+	 * @param v3	third value
+	 * @param s3	size allocated to third value
+	 * @param v4	fourth value
+	 * @param s4	size allocated to fourth value
+	 * @param v5	fifth value
+	 * @param s5	size allocated to fifth value
+	 * @param v6	sixth value
+	 * @param s6	size allocated to sixth value
+	 * @param v7	seventh value
+	 * @param s7	size allocated to seventh value
+	 * @return		"packed" integer with the values, the first one in the lowest bits
+	 */
+	public static int packUnchecked(int v1, int s1, int v2, int s2, int v3, int s3, int v4, int s4,
+									int v5, int s5, int v6, int s6, int v7, int s7) {
+		assert(fits(v1, s1) && fits(v2, s2) && fits(v3, s3) && fits(v4, s4) && fits(v5, s5) && fits(v6, s6) && fits(v7, s7) 
+				&& s1 + s2 + s3 + s4 + s5 + s6 + s7 <= Integer.SIZE);
+		
+		return v1 | (v2 << s1) | (v3 << s1+s2) | (v4 << s1+s2+s3) | (v5 << s1+s2+s3+s4) | (v6 << s1+s2+s3+s4+s5) | (v7 << s1+s2+s3+s4+s5+s6);
+	}
+}
@@ -75,4 +75,53 @@ public  final class Bits64 {
 
     }
 
+    /**
+     * Same as mask, the arguments being only checked when assertions are enabled
+     * Meant for the "packed" classes, whose positions and sizes are constants, so that the calls reduce to a few shifts
+     * @param   start   starting index of the mask
+     * @param   size    size of the mask
+     * @return          mask in long form
+     */
+    public static long maskUnchecked(int start, int size) {
+        assert(start >= 0 && size >= 0 && start + size <= Long.SIZE);
+        
+        return (size == Long.SIZE ? -1L : (1L << size) - 1L) << start;
+    }
+
+    /**
+     * Same as extract, the arguments being only checked when assertions are enabled
+     * @param bits      source long from which to extract
+     * @param start     starting index of the part to extract
+     * @param size      size of the part to extract
+     * @return          extracted part in long form
+     */
+    public static long extractUnchecked(long bits, int start, int size) {
+        assert(start >= 0 && size >= 0 && start + size <= Long.SIZE);
+        
+        return (bits >>> start) & maskUnchecked(0, size);
+    }
+    
+    /**
+     * Checks, without floating point operations, that the given value is positive and fits in the given size
+     * @param value     value of the long
+     * @param size      size allocated for the value
+     * @return          true if it fits, false if it doesn't
+     */
+    private static boolean fits(long value, int size) {
+        return size >= 0 && size <= Long.SIZE && (size == Long.SIZE || (value >>> size) == 0);
+    }
+
+    /**
+     * Same as pack, the arguments being only checked when assertions are enabled
+     * @param v1    first value
+     * @param s1    size allocated to first value
+     * @param v2    second value
+     * @param s2    size allocated to second value
+     * @return      "packed" long with the values, the first one in the lowest bits
+     */
+    public static long packUnchecked(long v1, int s1, long v2, int s2) {
+        assert(fits(v1, s1) && fits(v2, s2) && s1 + s2 <= Long.SIZE);
+        
+        return v1 | (v2 << s1);
+    }
 }
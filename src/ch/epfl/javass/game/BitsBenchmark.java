@@ -0,0 +1,74 @@
+package ch.epfl.javass.game;
+
+import java.util.SplittableRandom;
+
+import ch.epfl.javass.bits.Bits32;
+import ch.epfl.javass.bits.Bits64;
+
+/**
+ * @author GARANDEL.Eloi (SCIPER : 300326) / D'ETERNOD.Kilian (SCIPER : 296357)
+ * Compares the checked primitives of Bits32 and Bits64 to their unchecked variants, called as the "packed" classes call them:
+ * extraction of a card of a trick, packing of an empty trick and extraction of the points of a score
+ * Prints the time per call of each, the values coming from an array so that the calls cannot be folded into constants
+ */
+public final class BitsBenchmark {
+
+	private static final int VALUES = 1 << 12;
+	private static final int CALLS = 50_000_000;
+	private static final int WARMUP_ROUNDS = 3;
+	private static final int MEASURED_ROUNDS = 5;
+	private static final String[] NAMES = {"Bits32.extract", "Bits32.pack (7)", "Bits64.extract"};
+
+	public static void main(String[] args) {
+		SplittableRandom rng = new SplittableRandom(2019);
+		int[] ints = new int[VALUES];
+		long[] longs = new long[VALUES];
+		for(int i = 0; i < VALUES; i++) {
+			ints[i] = rng.nextInt();
+			longs[i] = rng.nextLong();
+		}
+
+		System.out.println("primitive           checked ns/call   unchecked ns/call");
+		for(int operation = 0; operation < NAMES.length; operation++) {
+			double[] nanos = new double[2];
+			long checksum = 0;
+			for(int unchecked = 0; unchecked < 2; unchecked++) {
+				for(int i = 0; i < WARMUP_ROUNDS; i++) {
+					checksum += run(operation, unchecked == 1, ints, longs);
+				}
+				long start = System.nanoTime();
+				for(int i = 0; i < MEASURED_ROUNDS; i++) {
+					checksum += run(operation, unchecked == 1, ints, longs);
+				}
+				nanos[unchecked] = (double)(System.nanoTime() - start) / ((long)CALLS * MEASURED_ROUNDS);
+			}
+			System.out.println(String.format("%-18s %16.2f %19.2f   (checksum %d)", NAMES[operation], nanos[0], nanos[1], checksum));
+		}
+	}
+
+	/**
+	 * Does all the calls of a round and returns the sum of their results, so that they cannot be optimized away
+	 */
+	private static long run(int operation, boolean unchecked, int[] ints, long[] longs) {
+		long sum = 0;
+		for(int i = 0; i < CALLS; i++) {
+			int v = ints[i & (VALUES - 1)];
+			switch(operation) {
+			case 0 :
+				int slot = (i & 3) * 6;
+				sum += unchecked ? Bits32.extractUnchecked(v, slot, 6) : Bits32.extract(v, slot, 6);
+				break;
+			case 1 :
+				int player = v & 3, index = (v >>> 2) & 7, trump = (v >>> 5) & 3;
+				sum += unchecked ? Bits32.packUnchecked(63, 6, 63, 6, 63, 6, 63, 6, index, 4, player, 2, trump, 2)
+						: Bits32.pack(63, 6, 63, 6, 63, 6, 63, 6, index, 4, player, 2, trump, 2);
+				break;
+			default :
+				long score = longs[i & (VALUES - 1)];
+				sum += unchecked ? Bits64.extractUnchecked(score, 36, 13) : Bits64.extract(score, 36, 13);
+				break;
+			}
+		}
+		return sum;
+	}
+}
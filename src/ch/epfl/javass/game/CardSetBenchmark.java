@@ -0,0 +1,93 @@
+package ch.epfl.javass.game;
+
+import java.util.SplittableRandom;
+
+import ch.epfl.javass.jass.PackedCard;
+import ch.epfl.javass.jass.PackedCardSet;
+
+/**
+ * @author GARANDEL.Eloi (SCIPER : 300326) / D'ETERNOD.Kilian (SCIPER : 296357)
+ * Compares the access to the cards of a "packed" card set by index, as PackedCardSet.get did it before (clearing the lowest card
+ * index times), to the constant time PackedCardSet.get, and the loops on all the cards done with get to the ones done with first and next
+ * Prints the operations per second of each way on random sets of all sizes
+ */
+public final class CardSetBenchmark {
+
+	private static final int SETS = 1 << 12;
+	private static final int OPERATIONS = 20_000_000;
+	private static final int WARMUP_ROUNDS = 3;
+	private static final int MEASURED_ROUNDS = 5;
+
+	public static void main(String[] args) {
+		SplittableRandom rng = new SplittableRandom(2019);
+		long[] sets = new long[SETS];
+		int[] indexes = new int[SETS];
+		for(int i = 0; i < SETS; i++) {
+			do {
+				sets[i] = rng.nextLong() & PackedCardSet.ALL_CARDS;
+			} while(sets[i] == PackedCardSet.EMPTY);
+			indexes[i] = rng.nextInt(PackedCardSet.size(sets[i]));
+		}
+
+		System.out.println("access             operations/s");
+		for(int way = 0; way < 4; way++) {
+			long checksum = 0;
+			for(int i = 0; i < WARMUP_ROUNDS; i++) {
+				checksum += run(way, sets, indexes);
+			}
+			long start = System.nanoTime();
+			for(int i = 0; i < MEASURED_ROUNDS; i++) {
+				checksum += run(way, sets, indexes);
+			}
+			double seconds = (System.nanoTime() - start) / 1e9;
+			String name = new String[] {"get, clearing", "get, select", "loop on get", "first/next"}[way];
+			System.out.println(String.format("%-15s %15.0f   (checksum %d)", name, (double)OPERATIONS * MEASURED_ROUNDS / seconds, checksum));
+		}
+	}
+
+	/**
+	 * Does all the operations of a round and returns the sum of the cards read, so that they cannot be optimized away
+	 * The loops count one operation per card
+	 */
+	private static long run(int way, long[] sets, int[] indexes) {
+		long sum = 0;
+		int done = 0;
+		for(int i = 0; done < OPERATIONS; i = (i + 1) & (SETS - 1)) {
+			long s = sets[i];
+			switch(way) {
+			case 0 :
+				sum += clearingGet(s, indexes[i]);
+				++done;
+				break;
+			case 1 :
+				sum += PackedCardSet.get(s, indexes[i]);
+				++done;
+				break;
+			case 2 :
+				for(int j = 0; j < PackedCardSet.size(s); j++) {
+					sum += clearingGet(s, j);
+				}
+				done += PackedCardSet.size(s);
+				break;
+			default :
+				for(int c = PackedCardSet.first(s); c != PackedCard.INVALID; c = PackedCardSet.next(s, c)) {
+					sum += c;
+				}
+				done += PackedCardSet.size(s);
+				break;
+			}
+		}
+		return sum;
+	}
+
+	/**
+	 * PackedCardSet.get as it was before the constant time select
+	 */
+	private static int clearingGet(long pkCardSet, int index) {
+		long cardSet = pkCardSet;
+		for(int i = 0; i < index; i++) {
+			cardSet = cardSet & ~Long.lowestOneBit(cardSet);
+		}
+		return Long.numberOfTrailingZeros(cardSet);
+	}
+}
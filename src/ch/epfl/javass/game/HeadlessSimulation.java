@@ -0,0 +1,83 @@
+package ch.epfl.javass.game;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import ch.epfl.javass.jass.JassGame;
+import ch.epfl.javass.jass.PackedJassGame;
+import ch.epfl.javass.jass.PackedPlayer;
+import ch.epfl.javass.jass.PackedScore;
+import ch.epfl.javass.jass.Player;
+import ch.epfl.javass.jass.PlayerId;
+import ch.epfl.javass.jass.RolloutPolicy;
+import ch.epfl.javass.jass.TeamId;
+
+/**
+ * @author GARANDEL.Eloi (SCIPER : 300326) / D'ETERNOD.Kilian (SCIPER : 296357)
+ * Plays many games without interface, the first team choosing its cards greedily and the second one at random,
+ * and prints the games played per second by PackedJassGame and by JassGame, then the wins and mean points of each team
+ * Arguments: [games [threads [seed]]]
+ */
+public final class HeadlessSimulation {
+
+	private static final int DEFAULT_GAMES = 20_000;
+	private static final long DEFAULT_SEED = 2019;
+	private static final int JASS_GAME_DIVISOR = 10;
+
+	public static void main(String[] args) {
+		int games = (args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_GAMES);
+		int threads = (args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors());
+		long seed = (args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_SEED);
+
+		// warmup, then the measured games
+		PackedJassGame.playAll(games / JASS_GAME_DIVISOR, threads, seed + 1, HeadlessSimulation::players);
+		long start = System.nanoTime();
+		long[] scores = PackedJassGame.playAll(games, threads, seed, HeadlessSimulation::players);
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.println(String.format("PackedJassGame  %d games on %d threads, %.1f s, %.0f games/s", games, threads, seconds, games / seconds));
+
+		// the same first games played by JassGame on one thread, for comparison
+		int jassGames = games / JASS_GAME_DIVISOR;
+		start = System.nanoTime();
+		for(int i = 0; i < jassGames; i++) {
+			long gameSeed = PackedJassGame.gameSeed(seed, i);
+			Map<PlayerId, PackedPlayer> players = players(gameSeed);
+			Map<PlayerId, String> names = new EnumMap<>(PlayerId.class);
+			Map<PlayerId, Player> wrapped = new EnumMap<>(PlayerId.class);
+			for(PlayerId p : PlayerId.ALL) {
+				names.put(p, p.name());
+				wrapped.put(p, players.get(p).asPlayer());
+			}
+			JassGame game = new JassGame(gameSeed, wrapped, names);
+			while(!game.isGameOver()) {
+				game.advanceToEndOfNextTrick();
+			}
+		}
+		seconds = (System.nanoTime() - start) / 1e9;
+		System.out.println(String.format("JassGame        %d games on 1 thread, %.1f s, %.0f games/s", jassGames, seconds, jassGames / seconds));
+
+		for(TeamId t : TeamId.ALL) {
+			int wins = 0;
+			long points = 0;
+			for(long score : scores) {
+				wins += (PackedJassGame.winningTeam(score) == t ? 1 : 0);
+				points += PackedScore.totalPoints(score, t);
+			}
+			System.out.println(String.format("%s  %6d wins (%.1f %%), %.1f points per game", t, wins, 100.0 * wins / games, (double)points / games));
+		}
+	}
+
+	/**
+	 * Returns the players of the game of given seed, TEAM_1 playing greedily and TEAM_2 at random
+	 */
+	private static Map<PlayerId, PackedPlayer> players(long gameSeed) {
+		SplittableRandom rng = new SplittableRandom(gameSeed);
+		Map<PlayerId, PackedPlayer> players = new EnumMap<>(PlayerId.class);
+		for(PlayerId p : PlayerId.ALL) {
+			RolloutPolicy policy = (p.team() == TeamId.TEAM_1 ? RolloutPolicy.greedy(0.1) : RolloutPolicy.RANDOM);
+			players.put(p, PackedPlayer.of(policy, rng.nextLong()));
+		}
+		return players;
+	}
+}
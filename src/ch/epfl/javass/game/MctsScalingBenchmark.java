@@ -0,0 +1,55 @@
+package ch.epfl.javass.game;
+
+import ch.epfl.javass.jass.CardSet;
+import ch.epfl.javass.jass.MctsPlayer;
+import ch.epfl.javass.jass.MctsPlayer.Engine;
+import ch.epfl.javass.jass.PlayerId;
+import ch.epfl.javass.jass.Score;
+import ch.epfl.javass.jass.TurnState;
+import ch.epfl.javass.jass.Card.Color;
+
+/**
+ * @author GARANDEL.Eloi (SCIPER : 300326) / D'ETERNOD.Kilian (SCIPER : 296357)
+ * Measures how the simulations per second of the MctsPlayer engines scale from 1 to 32 threads
+ * on the first card of a turn, the hardest decision of the game
+ */
+public final class MctsScalingBenchmark {
+
+	private static final int[] THREADS = {1, 2, 4, 8, 16, 32};
+	private static final int ITERATIONS = 100_000;
+	private static final int WARMUP_ROUNDS = 2;
+	private static final int MEASURED_ROUNDS = 5;
+
+	public static void main(String[] args) {
+		TurnState state = TurnState.initial(Color.SPADE, Score.INITIAL, PlayerId.PLAYER_1);
+		CardSet hand = CardSet.ALL_CARDS.subsetOfColor(Color.SPADE).remove(CardSet.ALL_CARDS.get(0))
+				.add(CardSet.ALL_CARDS.subsetOfColor(Color.HEART).get(8));
+
+		System.out.println("cores available : " + Runtime.getRuntime().availableProcessors());
+		System.out.println("engine          threads   simulations/s   speedup");
+
+		for(Engine engine : Engine.values()) {
+			double reference = 0;
+			for(int threads : THREADS) {
+				// tree parallel shares ITERATIONS in the single tree, the other engines do them in each tree
+				int iterations = (engine == Engine.TREE_PARALLEL ? ITERATIONS : ITERATIONS / threads);
+				MctsPlayer player = new MctsPlayer(PlayerId.PLAYER_1, 2019, iterations, threads, engine);
+
+				for(int i = 0; i < WARMUP_ROUNDS; i++) {
+					player.cardToPlay(state, hand);
+				}
+				long start = System.nanoTime();
+				for(int i = 0; i < MEASURED_ROUNDS; i++) {
+					player.cardToPlay(state, hand);
+				}
+				double seconds = (System.nanoTime() - start) / 1e9;
+				double perSecond = (double)ITERATIONS * MEASURED_ROUNDS / seconds;
+
+				if(threads == 1) {
+					reference = perSecond;
+				}
+				System.out.println(String.format("%-15s %7d %15.0f %9.2f", engine, threads, perSecond, perSecond / reference));
+			}
+		}
+	}
+}
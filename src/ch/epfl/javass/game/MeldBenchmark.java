@@ -0,0 +1,100 @@
+package ch.epfl.javass.game;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import ch.epfl.javass.jass.Card;
+import ch.epfl.javass.jass.CardSet;
+import ch.epfl.javass.jass.Jass;
+import ch.epfl.javass.jass.MeldCache;
+import ch.epfl.javass.jass.MeldSet;
+import ch.epfl.javass.jass.PackedCardSet;
+import ch.epfl.javass.jass.PackedMeldSet;
+
+/**
+ * @author GARANDEL.Eloi (SCIPER : 300326) / D'ETERNOD.Kilian (SCIPER : 296357)
+ * Compares the search of the best meld set of a hand through the power set of its melds, as MeldSet.getBestMeldSet did it before,
+ * to PackedMeldSet.bestIn, on random hands of nine cards, then the MeldSet of the hands built for each hand to the ones of a MeldCache,
+ * keyed by the hands or by their canonical hands, the same hands coming back at each round
+ * Prints the hands handled per second and the bytes allocated per hand by each way, and the hit ratios of the caches
+ */
+public final class MeldBenchmark {
+
+	private static final int HANDS = 1 << 12;
+	private static final int[] OPERATIONS = {200_000, 20_000_000, 5_000_000, 5_000_000, 5_000_000};
+	private static final String[] NAMES = {"power set", "packed", "MeldSet", "cache", "canonical"};
+	private static final int WARMUP_ROUNDS = 3;
+	private static final int MEASURED_ROUNDS = 5;
+
+	public static void main(String[] args) {
+		SplittableRandom rng = new SplittableRandom(2019);
+		long[] hands = new long[HANDS];
+		for(int i = 0; i < HANDS; i++) {
+			while(PackedCardSet.size(hands[i]) < Jass.HAND_SIZE) {
+				hands[i] = PackedCardSet.add(hands[i], PackedCardSet.get(PackedCardSet.ALL_CARDS, rng.nextInt(PackedCardSet.size(PackedCardSet.ALL_CARDS))));
+			}
+		}
+
+		CardSet[] cardSets = new CardSet[HANDS];
+		for(int i = 0; i < HANDS; i++) {
+			cardSets[i] = CardSet.ofPacked(hands[i]);
+		}
+		MeldCache[] caches = {new MeldCache(HANDS * 4, false), new MeldCache(HANDS * 4, true)};
+
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+		System.out.println("meld set         hands/s   bytes/hand");
+		for(int way = 0; way < NAMES.length; way++) {
+			long checksum = 0;
+			for(int i = 0; i < WARMUP_ROUNDS; i++) {
+				checksum += run(way, hands, cardSets, caches);
+			}
+			long bytes = threads.getCurrentThreadAllocatedBytes();
+			long start = System.nanoTime();
+			for(int i = 0; i < MEASURED_ROUNDS; i++) {
+				checksum += run(way, hands, cardSets, caches);
+			}
+			double seconds = (System.nanoTime() - start) / 1e9;
+			bytes = threads.getCurrentThreadAllocatedBytes() - bytes;
+
+			double handled = (double)OPERATIONS[way] * MEASURED_ROUNDS;
+			System.out.println(String.format("%-10s %13.0f %12.1f   (checksum %d)", NAMES[way], handled / seconds, bytes / handled, checksum));
+		}
+		for(int i = 0; i < caches.length; i++) {
+			System.out.println(String.format("hit ratio of %-10s %.4f", NAMES[3 + i], caches[i].hitRatio()));
+		}
+	}
+
+	/**
+	 * Finds the best meld sets of a round of hands and returns the sum of their points, so that they cannot be optimized away
+	 */
+	private static long run(int way, long[] hands, CardSet[] cardSets, MeldCache[] caches) {
+		long sum = 0;
+		for(int i = 0; i < OPERATIONS[way]; i++) {
+			long hand = hands[i & (HANDS - 1)];
+			switch(way) {
+			case 0 :
+				Set<Card> cards = new HashSet<>();
+				PackedCardSet.forEach(hand, c -> cards.add(Card.ofPacked(c)));
+				int best = 0;
+				for(MeldSet melds : MeldSet.allIn(cards)) {
+					best = Math.max(best, melds.points());
+				}
+				sum += best;
+				break;
+			case 1 :
+				sum += PackedMeldSet.points(PackedMeldSet.bestIn(hand));
+				break;
+			case 2 :
+				sum += MeldSet.getBestMeldSet(cardSets[i & (HANDS - 1)]).points();
+				break;
+			default :
+				sum += caches[way - 3].bestMeldSet(cardSets[i & (HANDS - 1)]).points();
+				break;
+			}
+		}
+		return sum;
+	}
+}
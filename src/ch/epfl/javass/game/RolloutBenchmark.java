@@ -0,0 +1,86 @@
+package ch.epfl.javass.game;
+
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+
+import ch.epfl.javass.jass.Card;
+import ch.epfl.javass.jass.CardSet;
+import ch.epfl.javass.jass.PackedRollout;
+import ch.epfl.javass.jass.PackedScore;
+import ch.epfl.javass.jass.PlayerId;
+import ch.epfl.javass.jass.Score;
+import ch.epfl.javass.jass.TeamId;
+import ch.epfl.javass.jass.TurnState;
+import ch.epfl.javass.jass.Card.Color;
+
+/**
+ * @author GARANDEL.Eloi (SCIPER : 300326) / D'ETERNOD.Kilian (SCIPER : 296357)
+ * Compares the random simulations of a turn done with TurnState objects to the ones done by PackedRollout
+ * Prints the playouts per second and the bytes allocated per playout, measured by the JVM for the current thread
+ */
+public final class RolloutBenchmark {
+
+	private static final int PLAYOUTS = 200_000;
+	private static final int WARMUP_ROUNDS = 5;
+	private static final int MEASURED_ROUNDS = 5;
+
+	public static void main(String[] args) {
+		TurnState state = TurnState.initial(Color.SPADE, Score.INITIAL, PlayerId.PLAYER_1);
+		CardSet hand = CardSet.EMPTY;
+		for(int i = 0; i < CardSet.ALL_CARDS.size(); i += PlayerId.COUNT) { // one card out of four, of all the colors
+			hand = hand.add(CardSet.ALL_CARDS.get(i));
+		}
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+		System.out.println("rollout      playouts/s   bytes/playout");
+		for(boolean packed : new boolean[] {false, true}) {
+			SplittableRandom rng = new SplittableRandom(2019);
+			long checksum = 0;
+			for(int i = 0; i < WARMUP_ROUNDS; i++) {
+				checksum += run(packed, state, hand, rng);
+			}
+
+			long bytes = threads.getCurrentThreadAllocatedBytes();
+			long start = System.nanoTime();
+			for(int i = 0; i < MEASURED_ROUNDS; i++) {
+				checksum += run(packed, state, hand, rng);
+			}
+			double seconds = (System.nanoTime() - start) / 1e9;
+			bytes = threads.getCurrentThreadAllocatedBytes() - bytes;
+
+			double playouts = (double)PLAYOUTS * MEASURED_ROUNDS;
+			System.out.println(String.format("%-10s %12.0f %15.1f   (checksum %d)", packed ? "packed" : "TurnState",
+					playouts / seconds, bytes / playouts, checksum));
+		}
+	}
+
+	/**
+	 * Does all the playouts of a round and returns the sum of the points of the first team, so that they cannot be optimized away
+	 */
+	private static long run(boolean packed, TurnState state, CardSet hand, SplittableRandom rng) {
+		long sum = 0;
+		for(int i = 0; i < PLAYOUTS; i++) {
+			if(packed) {
+				long score = PackedRollout.randomScore(state.packedScore(), state.packedUnplayedCards(), state.packedTrick(), hand.packed(), PlayerId.PLAYER_1, rng);
+				sum += PackedScore.turnPoints(score, TeamId.TEAM_1);
+			} else {
+				sum += turnStateScore(state, hand, rng).turnPoints(TeamId.TEAM_1);
+			}
+		}
+		return sum;
+	}
+
+	/**
+	 * Simulation of the end of a turn as MctsPlayer did it before PackedRollout, creating new objects for each card
+	 */
+	private static Score turnStateScore(TurnState state, CardSet hand, SplittableRandom rng) {
+		while(!state.isTerminal()) {
+			CardSet cards = (state.nextPlayer() == PlayerId.PLAYER_1 ? state.unplayedCards().intersection(hand) : state.unplayedCards().difference(hand));
+			CardSet playable = state.trick().playableCards(cards);
+
+			Card c = playable.get(rng.nextInt(playable.size()));
+			state = state.withNewCardPlayedAndTrickCollected(c);
+		}
+		return state.score();
+	}
+}
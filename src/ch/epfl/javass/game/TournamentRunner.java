@@ -0,0 +1,60 @@
+package ch.epfl.javass.game;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import ch.epfl.javass.jass.MctsPlayer;
+import ch.epfl.javass.jass.MctsSettings;
+import ch.epfl.javass.jass.RolloutPolicy;
+import ch.epfl.javass.jass.Tournament;
+import ch.epfl.javass.jass.Tournament.Entrant;
+import ch.epfl.javass.jass.Tournament.Match;
+
+/**
+ * @author GARANDEL.Eloi (SCIPER : 300326) / D'ETERNOD.Kilian (SCIPER : 296357)
+ * Plays a round-robin tournament between random players and MctsPlayer of different settings, on all the cores by default,
+ * and prints the win rates and point differences of each pair with their 95% confidence intervals
+ * Arguments: [games per pair [threads [seed [duplicate [csv file]]]]], the same seed giving the same results whatever the threads,
+ * duplicate being true to play each deal twice with the seats swapped (the default)
+ */
+public final class TournamentRunner {
+
+	private static final int DEFAULT_GAMES = 20;
+	private static final long DEFAULT_SEED = 2019;
+
+	private static final List<Entrant> ENTRANTS = Arrays.asList(
+			Entrant.of("random", (id, seed) -> new RandomPlayer(seed)),
+			Entrant.of("mcts-100", (id, seed) -> new MctsPlayer(id, seed, 100)),
+			Entrant.of("mcts-1000", (id, seed) -> new MctsPlayer(id, seed, 1_000)),
+			Entrant.of("mcts-1000-greedy", (id, seed) -> new MctsPlayer(id, seed, MctsSettings.ofIterations(1_000).withRolloutPolicy(RolloutPolicy.greedy(0.1)))));
+
+	public static void main(String[] args) throws IOException {
+		int games = (args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_GAMES);
+		int threads = (args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors());
+		long seed = (args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_SEED);
+		boolean duplicate = (args.length > 3 ? Boolean.parseBoolean(args[3]) : true);
+
+		long start = System.nanoTime();
+		List<Match> matches = Tournament.play(ENTRANTS, games, threads, seed, duplicate);
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		for(Match m : matches) {
+			System.out.println(m);
+		}
+		int played = games * matches.size();
+		System.out.println(String.format("%d games on %d threads, %.1f s, %.2f games/s", played, threads, seconds, played / seconds));
+
+		if(args.length > 4) {
+			try(PrintStream csv = new PrintStream(args[4], "UTF-8")) {
+				csv.println("first,second,games,samples,wins,win rate,win rate low,win rate high,point difference,point difference margin");
+				for(Match m : matches) {
+					csv.println(String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%.4f,%.4f,%.4f,%.2f,%.2f", m.first(), m.second(), m.games(), m.samples(), m.wins(),
+							m.winRate(), m.winRateLow(), m.winRateHigh(), m.meanPointDifference(), m.pointDifferenceMargin()));
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,42 @@
+package ch.epfl.javass.game;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import ch.epfl.javass.jass.TrumpTable;
+
+/**
+ * @author GARANDEL.Eloi (SCIPER : 300326) / D'ETERNOD.Kilian (SCIPER : 296357)
+ * Generates the table of the best trumps, or resumes its generation if the file already exists
+ * Arguments: file [deals [threads [chunks]]], the chunks being the maximum number evaluated by this run
+ * The generation is done by batches of chunks, so that the progress is printed and the run can be stopped at any time
+ */
+public final class TrumpTableGenerator {
+
+	private static final int DEFAULT_DEALS = 1_000;
+	private static final long SEED = 2019;
+	private static final int BATCH = 16;
+
+	public static void main(String[] args) throws IOException {
+		if(args.length < 1) {
+			System.err.println("usage: TrumpTableGenerator file [deals [threads [chunks]]]");
+			System.exit(1);
+		}
+		Path file = Paths.get(args[0]);
+		int deals = (args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_DEALS);
+		int threads = (args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors());
+		int chunks = (args.length > 3 ? Integer.parseInt(args[3]) : TrumpTable.chunkCount());
+
+		long start = System.nanoTime();
+		int done = 0;
+		int left = TrumpTable.chunkCount();
+		while(done < chunks && left > 0) {
+			int batch = Math.min(BATCH * threads, chunks - done);
+			left = TrumpTable.generate(file, deals, SEED, threads, batch);
+			done += batch;
+			double seconds = (System.nanoTime() - start) / 1e9;
+			System.out.println(String.format("%d chunks left of %d, %.1f s, %.2f chunks/s", left, TrumpTable.chunkCount(), seconds, Math.min(done, chunks) / seconds));
+		}
+	}
+}
@@ -416,17 +416,17 @@ public class GraphicalPlayer {
 	private ObservableMap<Card, Image> cardNameSet(int width){
 		
 		ObservableMap<Card, Image> nameSet = FXCollections.observableHashMap();
-		for(int i = 0; i < CardSet.ALL_CARDS.size(); i++) {
+		CardSet.ALL_CARDS.forEach(c -> {
 			StringBuilder sb = new StringBuilder();
 			sb.append("card_");
-			sb.append(CardSet.ALL_CARDS.get(i).color().ordinal());
+			sb.append(c.color().ordinal());
 			sb.append('_');
-			sb.append(CardSet.ALL_CARDS.get(i).rank().ordinal());
+			sb.append(c.rank().ordinal());
 			sb.append('_');
 			sb.append(width);
 			sb.append(".png");
-			nameSet.put(CardSet.ALL_CARDS.get(i), new Image(sb.toString()));
-		}
+			nameSet.put(c, new Image(sb.toString()));
+		});
 		return FXCollections.unmodifiableObservableMap(nameSet);
 	}
 	
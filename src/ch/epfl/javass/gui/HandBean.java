@@ -1,6 +1,8 @@
 package ch.epfl.javass.gui;
 
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import ch.epfl.javass.jass.Card;
 import ch.epfl.javass.jass.CardSet;
@@ -71,9 +73,9 @@ public final class HandBean {
 	public void setHand(CardSet newHand) {	
 		
 		if(newHand.size()==Jass.HAND_SIZE) {
-			for(int i=0;i<newHand.size();i++) {
-				this.hand.set(i, newHand.get(i));
-			}
+			List<Card> cards = new ArrayList<>(Jass.HAND_SIZE);
+			newHand.forEach(cards::add);
+			this.hand.setAll(cards);
 			
 		} else {
 
@@ -98,8 +100,6 @@ public final class HandBean {
 	 */
 	public void setPlayableCards(CardSet newPlayableCards) {
 		this.playableCards.get().clear();
-		for(int i = 0; i < newPlayableCards.size(); ++i) {
-			this.playableCards.add(newPlayableCards.get(i));
-		}
+		newPlayableCards.forEach(this.playableCards::add);
 	}
 }
@@ -0,0 +1,17 @@
+package ch.epfl.javass.jass;
+
+/**
+ * @author GARANDEL.Eloi (SCIPER : 300326) / D'ETERNOD.Kilian (SCIPER : 296357)
+ * Player able to use all the time left before a given deadline to choose its card
+ * PacedPlayer gives it the time it would otherwise spend sleeping
+ */
+public interface AnytimePlayer extends Player {
+
+	/**
+	 * Returns the card to play, taking at least the time left before the given deadline if it can use it
+	 * @param state			current state of the turn
+	 * @param hand			hand of the player
+	 * @param deadline		time, in the scale of System.nanoTime(), until which the player may think
+	 */
+	abstract Card cardToPlay(TurnState state, CardSet hand, long deadline);
+}
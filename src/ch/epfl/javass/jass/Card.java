@@ -12,6 +12,9 @@ import java.util.List;
  */
 public final class Card {
 
+    // the 36 cards, indexed by color then rank, so that each card has a single instance
+    private static final Card[] ALL_CARDS = allCards();
+
     private final int nbCard ;
 
     /**
@@ -27,16 +30,16 @@ public final class Card {
      * Create new card of color and rank given
      * @param c		color of card
      * @param r		rank of card
-     * @return		card of color and rank given, using regular constructor
+     * @return		the only instance of the card of color and rank given
      */
     public static Card of(Color c, Rank r) {
-        return new Card(c, r);
+        return ALL_CARDS[c.ordinal() * Rank.COUNT + r.ordinal()];
     }
 
     /**
      * Create new card represented by "packed" integer given
      * @param packed	"packed" integer of card
-     * @return			card of color and rank given in "packed" integer, using regular constructor
+     * @return			the only instance of the card of color and rank given in "packed" integer
      */
     public static Card ofPacked(int packed) {
     	
@@ -46,6 +49,19 @@ public final class Card {
         return of(c,r);
     }
 
+    /**
+     * Creates the instances of all the cards, in the order of their colors then of their ranks
+     */
+    private static Card[] allCards() {
+        Card[] cards = new Card[Color.COUNT * Rank.COUNT];
+        for (Color c : Color.ALL) {
+            for (Rank r : Rank.ALL) {
+                cards[c.ordinal() * Rank.COUNT + r.ordinal()] = new Card(c, r);
+            }
+        }
+        return cards;
+    }
+
     /**
      * Returns "packed" integer of the card
      */
@@ -1,6 +1,7 @@
 package ch.epfl.javass.jass;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import ch.epfl.javass.Preconditions;
 
@@ -71,16 +72,26 @@ public final class CardSet {
     /**
      * Get the n-th card of the CardSet according to the index
      * @param index						n-th card to get
-     * @throws IllegalArgumentException if the given index is less than 0 or greater than the index of the highest card in the cardSet
+     * @throws IndexOutOfBoundsException if the given index is less than 0 or not less than the size of the cardSet
      * @return Card						instance of the wanted card
      */
     public Card get(int index) {
-    	Preconditions.checkIndex(index, Long.SIZE);
+    	Preconditions.checkIndex(index, size());
 
     	int card = PackedCardSet.get(this.cardSet, index);
         return Card.ofPacked(card);
     }
     
+    /**
+     * Applies the given action to each card of the CardSet, in the order of get
+     * @param action		action applied to each card
+     */
+    public void forEach(Consumer<Card> action) {
+    	for(int c = PackedCardSet.first(cardSet); c != PackedCard.INVALID; c = PackedCardSet.next(cardSet, c)) {
+    		action.accept(Card.ofPacked(c));
+    	}
+    }
+    
     /**
      * Add a card to the CardSet
      * @param card		Card instance of the card to add to the CardSet
@@ -0,0 +1,215 @@
+package ch.epfl.javass.jass;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import ch.epfl.javass.jass.Card.Color;
+
+/**
+ * @author GARANDEL.Eloi (SCIPER : 300326) / D'ETERNOD.Kilian (SCIPER : 296357)
+ * Exact solver of the end of a turn when all the hands are known, used by the MctsPlayer instead of random simulations
+ * once few cards are left to play
+ * It is an alpha-beta search on "packed" values: the team of the simulated player maximizes its turn points,
+ * the other team minimizes them; the moves that win the trick are tried first, and the values of the positions
+ * at the beginning of a trick are kept in a small cache for the duration of a solve
+ * An instance is used by a single thread
+ */
+final class EndgameSolver {
+
+	private static final int CACHE_SIZE = 1 << 14;
+	private static final int MAX_DEPTH = Jass.TRICKS_PER_TURN * PlayerId.COUNT;
+	private static final int EXACT = 0, LOWER = 1, UPPER = 2;
+
+	private final int threshold;
+	private final TeamId team;
+	private final int[] sizes = new int[PlayerId.COUNT];
+	private final long[] deal = new long[PlayerId.COUNT];
+	private final int[][] moves = new int[MAX_DEPTH][Jass.HAND_SIZE];
+
+	// cache of the positions at the beginning of a trick, valid for the current solve only
+	private final long[] cachedUnplayed = new long[CACHE_SIZE];
+	private final long[] cachedScore = new long[CACHE_SIZE];
+	private final int[] cachedTag = new int[CACHE_SIZE]; // first player and solve number
+	private final long[] cachedResult = new long[CACHE_SIZE];
+	private final byte[] cachedBound = new byte[CACHE_SIZE];
+	private int solveNumber;
+
+	/**
+	 * Constructor of a solver
+	 * @param threshold		number of unplayed cards from which the turns are solved
+	 * @param team			team whose turn points are maximized
+	 */
+	EndgameSolver(int threshold, TeamId team) {
+		this.threshold = threshold;
+		this.team = team;
+	}
+
+	/**
+	 * Returns true if a state with the given unplayed cards has to be solved rather than simulated
+	 * @param pkUnplayed	"packed" unplayed cards
+	 */
+	boolean applies(long pkUnplayed) {
+		return PackedCardSet.size(pkUnplayed) <= threshold;
+	}
+
+	/**
+	 * Returns the score at the end of the turn when all the players play perfectly with the given hands
+	 * @param pkScore		"packed" score of the state to solve
+	 * @param pkTrick		"packed" trick of that state
+	 * @param hands			"packed" hands of the players, indexed by PlayerId ordinal, left unchanged
+	 * @return long			"packed" score at the end of the turn
+	 */
+	long solve(long pkScore, int pkTrick, long[] hands) {
+		// a new number invalidates the positions cached for other hands
+		solveNumber = (solveNumber + 1) & (Integer.MAX_VALUE >>> 2);
+		if(solveNumber == 0) {
+			Arrays.fill(cachedTag, -1);
+		}
+		return search(pkScore, pkTrick, hands, Integer.MIN_VALUE, Integer.MAX_VALUE, 0);
+	}
+
+	/**
+	 * Returns the score at the end of the turn of the MctsPlayer model: the given player knows its hand and deals the other
+	 * unplayed cards at random to the others, then the turn is solved exactly on that deal
+	 * If the hand does not have the size the state implies, no deal is possible and the turn is simulated with the policy
+	 * @param pkScore		"packed" score of the state
+	 * @param pkUnplayed	"packed" unplayed cards of the state
+	 * @param pkTrick		"packed" trick of the state
+	 * @param pkHand		"packed" hand of the simulated player
+	 * @param mctsId		PlayerId of the simulated player
+	 * @param policy		policy of the simulated player if the turn cannot be solved
+	 * @param rng			random generator of the deal
+	 * @return long			"packed" score at the end of the turn
+	 */
+	long solveRandomDeal(long pkScore, long pkUnplayed, int pkTrick, long pkHand, PlayerId mctsId, RolloutPolicy policy, SplittableRandom rng) {
+
+		if(pkTrick == PackedTrick.INVALID) {
+			return pkScore;
+		}
+		long own = PackedCardSet.intersection(pkUnplayed, pkHand);
+		long unknown = PackedCardSet.difference(pkUnplayed, pkHand);
+		int total = 0;
+		for(PlayerId p : PlayerId.ALL) {
+			sizes[p.ordinal()] = (p == mctsId ? 0 : PackedDeal.handSize(pkTrick, p));
+			total += sizes[p.ordinal()];
+			deal[p.ordinal()] = (p == mctsId ? own : PackedCardSet.EMPTY);
+		}
+		if(total != PackedCardSet.size(unknown) || PackedCardSet.size(own) != PackedDeal.handSize(pkTrick, mctsId)) {
+			return PackedRollout.randomScore(pkScore, pkUnplayed, pkTrick, pkHand, mctsId, policy, rng);
+		}
+		PackedDeal.deal(unknown, sizes, PackedDeal.NO_EXCLUSION, rng, deal);
+		return solve(pkScore, pkTrick, deal);
+	}
+
+	/**
+	 * Alpha-beta search of the given state
+	 * @return long		"packed" final score of the best line found; its turn points are exact if they are strictly between alpha and beta
+	 */
+	private long search(long pkScore, int pkTrick, long[] hands, int alpha, int beta, int depth) {
+
+		if(pkTrick == PackedTrick.INVALID) {
+			return pkScore;
+		}
+
+		boolean trickStart = PackedTrick.isEmpty(pkTrick);
+		int slot = -1;
+		long unplayed = PackedCardSet.EMPTY;
+		int tag = 0;
+		if(trickStart) {
+			for(long hand : hands) {
+				unplayed = PackedCardSet.union(unplayed, hand);
+			}
+			tag = PackedTrick.player(pkTrick, 0).ordinal() | (solveNumber << 2);
+			slot = slot(unplayed, pkScore, tag);
+			if(cachedTag[slot] == tag && cachedUnplayed[slot] == unplayed && cachedScore[slot] == pkScore) {
+				long result = cachedResult[slot];
+				int value = PackedScore.turnPoints(result, team);
+				if(cachedBound[slot] == EXACT || (cachedBound[slot] == LOWER && value >= beta) || (cachedBound[slot] == UPPER && value <= alpha)) {
+					return result;
+				}
+			}
+		}
+
+		PlayerId player = PackedTurnState.nextPlayer(pkTrick);
+		boolean maximizing = (player.team() == team);
+		int count = orderedMoves(pkTrick, PackedTrick.playableCards(pkTrick, hands[player.ordinal()]), moves[depth]);
+
+		int alphaStart = alpha, betaStart = beta;
+		long best = 0;
+		int bestValue = maximizing ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+		long hand = hands[player.ordinal()];
+
+		for(int i = 0; i < count && alpha < beta; i++) {
+			int c = moves[depth][i];
+			int trick = PackedTrick.withAddedCard(pkTrick, c);
+			long score = PackedTurnState.collectedScore(pkScore, trick);
+			trick = PackedTurnState.collectedTrick(trick);
+			hands[player.ordinal()] = PackedCardSet.remove(hand, c);
+			long result = search(score, trick, hands, alpha, beta, depth + 1);
+			hands[player.ordinal()] = hand;
+
+			int value = PackedScore.turnPoints(result, team);
+			if(maximizing ? value > bestValue : value < bestValue) {
+				bestValue = value;
+				best = result;
+			}
+			if(maximizing) {
+				alpha = Math.max(alpha, value);
+			} else {
+				beta = Math.min(beta, value);
+			}
+		}
+
+		if(trickStart) {
+			cachedTag[slot] = tag;
+			cachedUnplayed[slot] = unplayed;
+			cachedScore[slot] = pkScore;
+			cachedResult[slot] = best;
+			cachedBound[slot] = (byte)(bestValue <= alphaStart ? UPPER : bestValue >= betaStart ? LOWER : EXACT);
+		}
+		return best;
+	}
+
+	/**
+	 * Returns the slot of the cache of the given position
+	 */
+	private static int slot(long unplayed, long pkScore, int tag) {
+		long h = unplayed * 0x9E3779B97F4A7C15L ^ pkScore * 0xC2B2AE3D27D4EB4FL ^ tag;
+		return (int)(h ^ (h >>> 32)) & (CACHE_SIZE - 1);
+	}
+
+	/**
+	 * Writes the playable cards in the order in which they are searched: the cards winning the trick first,
+	 * the strongest first, then the others from the weakest
+	 * @return int		number of moves written
+	 */
+	private static int orderedMoves(int pkTrick, long pkPlayable, int[] buffer) {
+
+		Color trump = PackedTrick.trump(pkTrick);
+		int size = PackedTrick.size(pkTrick);
+		int winning = PackedCard.INVALID;
+		for(int i = 0; i < size; i++) {
+			int c = PackedTrick.card(pkTrick, i);
+			if(winning == PackedCard.INVALID || PackedCard.isBetter(trump, c, winning)) {
+				winning = c;
+			}
+		}
+
+		int count = PackedCardSet.size(pkPlayable);
+		int first = 0, last = count;
+		for(int c = PackedCardSet.first(pkPlayable); c != PackedCard.INVALID; c = PackedCardSet.next(pkPlayable, c)) {
+			if(winning == PackedCard.INVALID || PackedCard.isBetter(trump, c, winning)) {
+				buffer[first++] = c;
+			} else {
+				buffer[--last] = c;
+			}
+		}
+		// the cards of a set come from the weakest to the strongest in each color: the winners are reversed
+		for(int i = 0, j = first - 1; i < j; i++, j--) {
+			int t = buffer[i];
+			buffer[i] = buffer[j];
+			buffer[j] = t;
+		}
+		return count;
+	}
+}
@@ -0,0 +1,204 @@
+package ch.epfl.javass.jass;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import ch.epfl.javass.jass.SearchMetrics.Phase;
+
+/**
+ * @author GARANDEL.Eloi (SCIPER : 300326) / D'ETERNOD.Kilian (SCIPER : 296357)
+ * Node of an information set Monte Carlo tree: it represents all the deals consistent with what the simulated player knows
+ * Each simulation is done on a deal sampled at random, only the children playable in that deal can be selected,
+ * and a child is scored by the points of the team of the player who played its card
+ * The state of a node (score, unplayed cards, trick) is public, only the hands of the other players are hidden
+ */
+final class InformationSetNode {
+
+	private static final int CURIOSITY = 40; // same curiosity value as the nodes of MctsPlayer
+	private static final int CARD_SLOTS = 64; // packed cards are smaller than 64
+
+	private final long pkScore;
+	private final long pkUnplayed;
+	private final int pkTrick;
+	private final int card;
+	private final TeamId team; // team of the player who played the card of the node
+
+	private InformationSetNode[] childNodes; // indexed by packed card, created on the first expansion
+	private long childCards = PackedCardSet.EMPTY;
+	private double points;
+	private int computed;
+	private int available; // simulations in which the card of the node was playable from its parent
+
+	/**
+	 * Constructor of the root of a tree
+	 * @param state			state of the turn from which the simulated player has to play
+	 */
+	InformationSetNode(TurnState state) {
+		this(state.packedScore(), state.packedUnplayedCards(), state.packedTrick(), PackedCard.INVALID, null);
+	}
+
+	private InformationSetNode(long pkScore, long pkUnplayed, int pkTrick, int card, TeamId team) {
+		this.pkScore = pkScore;
+		this.pkUnplayed = pkUnplayed;
+		this.pkTrick = pkTrick;
+		this.card = card;
+		this.team = team;
+	}
+
+	/**
+	 * Returns the number of simulations that went through this node
+	 */
+	int computed() {
+		return computed;
+	}
+
+	/**
+	 * Returns the total points gathered by the team that played the card of the given child
+	 * @param pkCard		"packed" card of the child
+	 * @return double		points of the child, 0 if it was never expanded
+	 */
+	double childPoints(int pkCard) {
+		return PackedCardSet.contains(childCards, pkCard) ? childNodes[pkCard].points : 0;
+	}
+
+	/**
+	 * Returns the number of simulations that went through the given child
+	 * @param pkCard		"packed" card of the child
+	 * @return int			simulations of the child, 0 if it was never expanded
+	 */
+	int childComputed(int pkCard) {
+		return PackedCardSet.contains(childCards, pkCard) ? childNodes[pkCard].computed : 0;
+	}
+
+	/**
+	 * Returns true if all the given cards have a child
+	 * @param pkCards		"packed" card set of the cards to check
+	 */
+	boolean hasChildren(long pkCards) {
+		return PackedCardSet.difference(pkCards, childCards) == PackedCardSet.EMPTY;
+	}
+
+	/**
+	 * Returns the node of this subtree reached by playing the given cards, if its state is the given one
+	 * @param state					state of the node searched
+	 * @param played				"packed" card set of the cards played between this node and the one searched
+	 * @return InformationSetNode	node found, null if it was never expanded
+	 */
+	InformationSetNode descendant(TurnState state, long played) {
+
+		if(played == PackedCardSet.EMPTY) {
+			return pkScore == state.packedScore() && pkUnplayed == state.packedUnplayedCards() && pkTrick == state.packedTrick() ? this : null;
+		}
+		long candidates = PackedCardSet.intersection(childCards, played);
+		for(int c = PackedCardSet.first(candidates); c != PackedCard.INVALID; c = PackedCardSet.next(candidates, c)) {
+			InformationSetNode found = childNodes[c].descendant(state, PackedCardSet.remove(played, c));
+			if(found != null) {
+				return found;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Does one simulation on the given deal: descends the tree following the cards playable in it,
+	 * expands one new child, finishes the turn at random (or exactly once few cards are left) and adds the result to the nodes gone through
+	 * @param hands			"packed" hands of all the players in the sampled deal, indexed by PlayerId ordinal, consumed by the simulation
+	 * @param path			empty list used to store the nodes gone through
+	 * @param policy		policy of all the players once out of the tree
+	 * @param solver		solver of the end of the turn on the deal, null to always simulate it
+	 * @param probe			probe timing the phases of the simulation
+	 * @param rng			random generator of the search
+	 */
+	void simulate(long[] hands, List<InformationSetNode> path, RolloutPolicy policy, EndgameSolver solver, SearchProbe probe, SplittableRandom rng) {
+
+		probe.begin();
+		InformationSetNode node = this;
+		path.add(node);
+		boolean expanded = false;
+
+		while(node.pkTrick != PackedTrick.INVALID) {
+			PlayerId player = PackedTurnState.nextPlayer(node.pkTrick);
+			long playable = PackedTrick.playableCards(node.pkTrick, hands[player.ordinal()]);
+
+			// every existing child playable in this deal was available to the selection
+			long availableChildren = PackedCardSet.intersection(playable, node.childCards);
+			for(int c = PackedCardSet.first(availableChildren); c != PackedCard.INVALID; c = PackedCardSet.next(availableChildren, c)) {
+				node.childNodes[c].available++;
+			}
+
+			long untried = PackedCardSet.difference(playable, node.childCards);
+			InformationSetNode next;
+			if(untried != PackedCardSet.EMPTY) {
+				probe.lap(Phase.SELECTION);
+				next = node.expand(PackedCardSet.get(untried, rng.nextInt(PackedCardSet.size(untried))), player.team());
+				expanded = true;
+			} else {
+				next = node.bestChild(availableChildren);
+			}
+			hands[player.ordinal()] = PackedCardSet.remove(hands[player.ordinal()], next.card);
+			path.add(next);
+			node = next;
+
+			if(expanded) {
+				break;
+			}
+		}
+		probe.lap(expanded ? Phase.EXPANSION : Phase.SELECTION);
+
+		long unplayed = PackedCardSet.EMPTY;
+		for(long hand : hands) {
+			unplayed = PackedCardSet.union(unplayed, hand);
+		}
+		long score = (solver != null && solver.applies(unplayed))
+				? solver.solve(node.pkScore, node.pkTrick, hands)
+				: PackedRollout.randomScore(node.pkScore, node.pkTrick, hands, policy, rng);
+		probe.lap(Phase.SIMULATION);
+		for(InformationSetNode n : path) {
+			if(n.team != null) {
+				n.points += PackedScore.turnPoints(score, n.team);
+			}
+			n.computed++;
+		}
+		probe.lap(Phase.BACKPROPAGATION);
+		probe.end(path.size(), expanded);
+	}
+
+	/**
+	 * Creates the child of the given card, playable in the current deal
+	 */
+	private InformationSetNode expand(int pkCard, TeamId playerTeam) {
+
+		int trick = PackedTrick.withAddedCard(pkTrick, pkCard);
+		long score = PackedTurnState.collectedScore(pkScore, trick);
+		trick = PackedTurnState.collectedTrick(trick);
+		if(childNodes == null) {
+			childNodes = new InformationSetNode[CARD_SLOTS];
+		}
+		InformationSetNode child = new InformationSetNode(score, PackedCardSet.remove(pkUnplayed, pkCard), trick, pkCard, playerTeam);
+		child.available = 1;
+		childNodes[pkCard] = child;
+		childCards = PackedCardSet.add(childCards, pkCard);
+		return child;
+	}
+
+	/**
+	 * Returns the child, among the given ones, with the highest score
+	 * The exploration term uses the number of simulations in which each child was available instead of the visits of the parent
+	 * @param candidates	"packed" card set of the children playable in the current deal
+	 */
+	private InformationSetNode bestChild(long candidates) {
+
+		InformationSetNode best = null;
+		double bestScore = Double.NEGATIVE_INFINITY;
+		for(int c = PackedCardSet.first(candidates); c != PackedCard.INVALID; c = PackedCardSet.next(candidates, c)) {
+			InformationSetNode child = childNodes[c];
+			double score = child.points / child.computed
+					+ CURIOSITY * Math.sqrt(2 * Math.log(child.available) / child.computed);
+			if(best == null || score > bestScore) {
+				best = child;
+				bestScore = score;
+			}
+		}
+		return best;
+	}
+}
@@ -0,0 +1,64 @@
+package ch.epfl.javass.jass;
+
+/**
+ * @author GARANDEL.Eloi (SCIPER : 300326) / D'ETERNOD.Kilian (SCIPER : 296357)
+ * Budget of simulations of a player for a whole turn, spread over its decisions according to their difficulty
+ * A decision with a hand of h cards and p playable cards weighs p * h (branching of the root times depth of the tree),
+ * the later decisions being assumed to have their whole hand playable; each decision gets the part of the budget left
+ * that its weight is of the weights of all the decisions left, kept between a floor and a ceiling
+ * The last card of a hand is played without search, so it weighs nothing, and so do the forced cards, whose part goes to the later decisions
+ */
+final class IterationBudget {
+
+	private final int perTurn;
+	private final int floor;
+	private final int ceiling;
+	private long left;
+	private int lastHandSize = 0; // 0 before the first decision of a turn
+
+	/**
+	 * Constructor of a budget
+	 * @param perTurn		simulations of all the decisions of a turn
+	 * @param floor			minimum number of simulations of a decision
+	 * @param ceiling		maximum number of simulations of a decision
+	 */
+	IterationBudget(int perTurn, int floor, int ceiling) {
+		assert(floor <= ceiling);
+
+		this.perTurn = perTurn;
+		this.floor = floor;
+		this.ceiling = ceiling;
+	}
+
+	/**
+	 * Returns the number of simulations of the decision with the given hand, and removes them from the budget of the turn
+	 * A hand at least as big as the one of the previous decision starts a new turn
+	 * @param handSize		number of cards in the hand of the player
+	 * @param playable		number of cards that the player can play, at least 2
+	 * @return int			simulations of the decision, between the floor and the ceiling
+	 */
+	int next(int handSize, int playable) {
+		assert(playable >= 2 && playable <= handSize);
+
+		if(handSize >= lastHandSize) {
+			left = perTurn;
+		}
+		lastHandSize = handSize;
+
+		long weight = (long)playable * handSize;
+		long later = 0;
+		for(int h = 2; h < handSize; h++) {
+			later += h * h;
+		}
+		int share = (int)Math.max(floor, Math.min(ceiling, left * weight / (weight + later)));
+		left = Math.max(0, left - share);
+		return share;
+	}
+
+	/**
+	 * Starts a new turn, with the whole budget
+	 */
+	void reset() {
+		lastHandSize = 0;
+	}
+}
@@ -4,11 +4,9 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
-import java.util.Set;
 import ch.epfl.javass.jass.Card.Color;
 import ch.epfl.javass.jass.Card.Rank;
 
@@ -36,10 +34,20 @@ public final class JassGame {
 	 * @param playerNames	names of the players participating in the game
 	 */
 	public JassGame(long rngSeed, Map<PlayerId, Player> players, Map<PlayerId, String> playerNames) {
-		
-		Random rng = new Random(rngSeed);
-		this.shuffleRng = new Random(rng.nextLong());
-		
+		this(new Random(new Random(rngSeed).nextLong()), players, playerNames);
+	}
+
+	/**
+	 * Constructor of game instance whose deals are given by the generator, the only source of randomness of the game:
+	 * two games given generators of the same seed deal the same hands to the same seats at each turn, whoever the players are
+	 * @param shuffleRng	generator shuffling the cards before each deal, which must not be shared with other games
+	 * @param players		players participating in the game
+	 * @param playerNames	names of the players participating in the game
+	 */
+	public JassGame(Random shuffleRng, Map<PlayerId, Player> players, Map<PlayerId, String> playerNames) {
+
+		this.shuffleRng = shuffleRng;
+
 		this.players = Collections.unmodifiableMap(new EnumMap<>(players));
 		this.playerNames = Collections.unmodifiableMap(new EnumMap<>(playerNames));
 		this.playerHands = new HashMap<>();
@@ -73,6 +81,14 @@ public final class JassGame {
 			   turnState.score().totalPoints(TeamId.TEAM_2) >= Jass.WINNING_POINTS;
 	}
 	
+	/**
+	 * Returns the current score of the game, the final one once the game is over
+	 * @return		score of the game
+	 */
+	public Score score() {
+		return turnState.score();
+	}
+
 	/**
 	 * Sets the winning team and updates the score for all the players of the game
 	 * @param team   winning team of the game   
@@ -175,9 +191,7 @@ public final class JassGame {
 		
 		List<PlayerId> playersIds = new ArrayList<>(players.keySet());
 		
-		for(int i = 0; i < CardSet.ALL_CARDS.size(); ++i) {
-			deck.add(CardSet.ALL_CARDS.get(i));
-		}
+		CardSet.ALL_CARDS.forEach(deck::add);
 		
 		Collections.shuffle(deck, shuffleRng); // shuffling of all cards according to the "random" long seed shuffleRng
 		
@@ -193,13 +207,7 @@ public final class JassGame {
 		}
 		
 		for(PlayerId player : playerHands.keySet()) {
-			CardSet hand = playerHands.get(player);
-			Set<Card> cards = new HashSet<>();
-			for(int i=0;i<hand.size();i++) {
-				cards.add(hand.get(i));
-			}
-			
-			MeldSet melds = MeldSet.getBestMeldSet(cards);
+			MeldSet melds = MeldSet.getBestMeldSet(playerHands.get(player));
 			playerMelds.put(player, melds);
 			playerMeldsString.put(player, melds.toString());
 		}
@@ -1,75 +1,391 @@
 package ch.epfl.javass.jass;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import ch.epfl.javass.Preconditions;
 import ch.epfl.javass.jass.Card.Color;
+import ch.epfl.javass.jass.SearchMetrics.Phase;
 
 /**
  * @author GARANDEL.Eloi (SCIPER : 300326) / D'ETERNOD.Kilian (SCIPER : 296357) 
  */
-public final class MctsPlayer implements Player {
+public final class MctsPlayer implements AnytimePlayer {
 	
 	private final PlayerId ownId;
 	private final SplittableRandom srng;
-	private final int iterations;
+	private final MctsSettings settings;
+	private ForkJoinPool pool; // threads of the searches, created by the first one and shut down at the end of each game
+	
+	// trees of the previous decision of the turn, kept when the settings reuse them (null otherwise)
+	private TurnState previousState;
+	private CardSet previousHand;
+	private NodePool[] pools; // trees of the ROOT_PARALLEL engine, kept between decisions to reuse their memory
+	private SharedNode previousSharedRoot;
+	private InformationSetNode[] previousInformationSetRoots;
+	
+	// cards that each player cannot have according to the tricks of the turn, indexed by PlayerId ordinal
+	private final long[] excluded = new long[PlayerId.COUNT];
+	
+	// bounds of the simulations of the running search, and request to stop it, read by the threads searching
+	private volatile int iterationMinimum;
+	private volatile int iterationLimit;
+	private volatile boolean stopRequested;
+	
+	// state of the turn rebuilt from the notifications, searched while the other players think (pondering)
+	private Thread ponderer; // null if no search is running in the background
+	private CardSet ponderHand;
+	private long ponderScore;
+	private long ponderUnplayed = PackedCardSet.ALL_CARDS;
+	
+	// statistics of the searches, only recorded if the settings ask for them: summed since the creation, of the running search
+	// and of the last decision, the search being never done by two calls at the same time
+	private final SearchMetrics metrics = new SearchMetrics();
+	private volatile SearchMetrics searchMetrics; // null if the settings do not record the statistics
+	private volatile SearchMetrics lastDecision = new SearchMetrics();
+	
+	// simulations of the turn spread over the decisions, null if every decision has the bounds of the settings
+	private final IterationBudget budget;
 	
 	/**
-	 * Constructor of a MctsPlayer (simulated player)
+	 * Constructor of a MctsPlayer (simulated player) searching a single tree on the calling thread
 	 * @param ownId			PlayerId of the simulated player
 	 * @param rngSeed		seed for the random values
 	 * @param iterations	number of simulations that the simulated player will do before playing a card
 	 */
 	public MctsPlayer(PlayerId ownId, long rngSeed, int iterations) {
-		Preconditions.checkArgument(iterations >= Jass.MINIMUM_ITERATIONS);
+		this(ownId, rngSeed, iterations, 1);
+	}
+	
+	/**
+	 * Constructor of a MctsPlayer (simulated player) searching one independent tree per thread (root parallelization)
+	 * @param ownId			PlayerId of the simulated player
+	 * @param rngSeed		seed for the random values
+	 * @param iterations	number of simulations done in each tree before playing a card
+	 * @param threads		number of trees searched in parallel, their root statistics are merged to choose the card
+	 */
+	public MctsPlayer(PlayerId ownId, long rngSeed, int iterations, int threads) {
+		this(ownId, rngSeed, iterations, threads, Engine.ROOT_PARALLEL);
+	}
+	
+	/**
+	 * Constructor of a MctsPlayer (simulated player) using the given search engine
+	 * @param ownId			PlayerId of the simulated player
+	 * @param rngSeed		seed for the random values
+	 * @param iterations	number of simulations per tree (ROOT_PARALLEL, INFORMATION_SET) or in the shared tree (TREE_PARALLEL)
+	 * @param threads		number of threads searching before playing a card
+	 * @param engine		way the threads share the search
+	 */
+	public MctsPlayer(PlayerId ownId, long rngSeed, int iterations, int threads, Engine engine) {
+		this(ownId, rngSeed, MctsSettings.ofIterations(iterations).withThreads(threads).withEngine(engine));
+	}
+	
+	/**
+	 * Constructor of a MctsPlayer (simulated player) searching according to the given settings
+	 * @param ownId			PlayerId of the simulated player
+	 * @param rngSeed		seed for the random values
+	 * @param settings		settings of the search done before playing each card
+	 */
+	public MctsPlayer(PlayerId ownId, long rngSeed, MctsSettings settings) {
 		
 		this.ownId = ownId;
 		this.srng = new SplittableRandom(rngSeed);
-		this.iterations = iterations;
+		this.settings = settings;
+		this.budget = (settings.turnIterations() > 0 ? new IterationBudget(settings.turnIterations(), settings.turnFloor(), settings.turnCeiling()) : null);
 	}
 	
 	/**
-	 * Calculates the score of a particular child node
-	 * @param child			child node to calculate the score of
-	 * @param curiosity		curiosity factor of the calculation
-	 * @param parent		parent node of the child node
-	 * @return double		score of the child node
+	 * Returns the threads of the searches, created when first needed as the previous ones are shut down at the end of each game
+	 * The searches and the choices of trump are never done by two calls at the same time, so the pool needs no lock
+	 * @return ForkJoinPool		pool of settings.threads() threads, null if the search is done on the calling thread
 	 */
-	private static double bestFunction(Node child, int curiosity, Node parent) {
-
-		if(child == null) { // always go for empty child
-			return Double.POSITIVE_INFINITY;
-		} else {
-			double nodeScore = child.points / child.computed;
-			double intermediate = 2 * Math.log(parent.computed) / child.computed;
-			double curiosityScore = curiosity * Math.sqrt(intermediate);
-			return nodeScore + curiosityScore;
+	private ForkJoinPool pool() {
+		if(pool == null && settings.threads() > 1) {
+			pool = new ForkJoinPool(settings.threads());
 		}
+		return pool;
 	}
 	
 	/**
-	 * Simulates a turn from the given state and returns the Score instance of it
+	 * Checks if a search that already did the given number of simulations has to go on
+	 * @param done			number of simulations already done
+	 * @param deadline		time, in the scale of System.nanoTime(), after which the search stops once the minimum of simulations is done
+	 * @return boolean		true if another simulation has to be done
+	 */
+	private boolean searchGoesOn(int done, long deadline) {
+		return !stopRequested && done < iterationLimit && (done < iterationMinimum || System.nanoTime() < deadline);
+	}
+	
+	/**
+	 * Returns a new solver of the end of the turn for one thread, null if the settings always simulate the turns
+	 */
+	private EndgameSolver endgameSolver() {
+		return settings.endgameThreshold() > 0 ? new EndgameSolver(settings.endgameThreshold(), ownId.team()) : null;
+	}
+	
+	/**
+	 * Simulates a turn from the given state and returns its "packed" score, without creating any object
 	 * @param state			state from which we want to simulate the end of turn
 	 * @param mctsHand		hand from the simulated player
-	 * @param root			root node
-	 * @return Score		Score instance of the simulated turn
+	 * @param mctsId		PlayerId of the simulated player
+	 * @param policy		policy choosing the cards of the simulated player
+	 * @param rng			random generator of the tree being searched
+	 * @return long			"packed" score of the simulated turn
+	 */
+	static long getRandomScore(TurnState state, CardSet mctsHand, PlayerId mctsId, RolloutPolicy policy, SplittableRandom rng) {
+		return PackedRollout.randomScore(state.packedScore(), state.packedUnplayedCards(), state.packedTrick(), mctsHand.packed(), mctsId, policy, rng);
+	}
+	
+	/**
+	 * Defines which cards are playable according to the current situation
+	 * @param state			current TurnState
+	 * @param hand			current hand available
+	 * @param nextPlayer	player playing now
+	 * @param mctsId		PlayerId of the simulated player
+	 * @return CardSet		playable cards
 	 */
-	private Score getRandomScore(TurnState state, CardSet mctsHand, Node root) {
+	static CardSet playableCards(TurnState state, CardSet hand, PlayerId nextPlayer, PlayerId mctsId) {
+		// computed on the "packed" components, so that the states of the nodes do not create their wrappers
+		long pkCandidates;
 		
-		while(!state.isTerminal()) {
-			CardSet playable = root.playableCards(state, mctsHand, state.nextPlayer(), this.ownId);
-			
-			Card cardToPlay = playable.get(srng.nextInt(playable.size()));
-			state = state.withNewCardPlayedAndTrickCollected(cardToPlay);
+		if(nextPlayer == mctsId) {
+			pkCandidates = PackedCardSet.intersection(state.packedUnplayedCards(), hand.packed());
+		} else {
+			pkCandidates = PackedCardSet.difference(state.packedUnplayedCards(), hand.packed());
+		}
+		return CardSet.ofPacked(PackedTrick.playableCards(state.packedTrick(), pkCandidates));
+	}
+	
+	/**
+	 * Checks if two states are the same, TurnState not redefining equals
+	 */
+	static boolean sameState(TurnState s1, TurnState s2) {
+		return s1.packedScore() == s2.packedScore() 
+				&& s1.packedUnplayedCards() == s2.packedUnplayedCards() 
+				&& s1.packedTrick() == s2.packedTrick();
+	}
+	
+	/**
+	 * Returns the cards played between the previous decision and the given state, if its tree can be searched for it
+	 * @param state			state of the new decision
+	 * @param hand			hand of the simulated player for the new decision
+	 * @return long			"packed" card set of the cards played since, or PackedCardSet.ALL_CARDS if the tree cannot be reused
+	 */
+	private long playedSincePreviousDecision(TurnState state, CardSet hand) {
+		if(previousState == null) {
+			return PackedCardSet.ALL_CARDS;
+		}
+		long previousUnplayed = previousState.packedUnplayedCards();
+		long unplayed = state.packedUnplayedCards();
+		long played = PackedCardSet.difference(previousUnplayed, unplayed);
+		long handPlayed = PackedCardSet.difference(previousHand.packed(), hand.packed());
+		
+		// a state of the same turn can only have less unplayed cards, and the hand can only have lost played cards
+		if(PackedCardSet.difference(unplayed, previousUnplayed) != PackedCardSet.EMPTY 
+				|| PackedCardSet.difference(hand.packed(), previousHand.packed()) != PackedCardSet.EMPTY
+				|| PackedCardSet.difference(handPlayed, played) != PackedCardSet.EMPTY) {
+			return PackedCardSet.ALL_CARDS;
 		}
-		return state.score();
+		return played;
+	}
+	
+	@Override
+	public void updateHand(CardSet newHand) {
+		stopPondering();
+		ponderHand = newHand;
+	}
+	
+	@Override
+	public void updateScore(Score score) {
+		ponderScore = score.packed();
 	}
 	
+	@Override
+	public void setTrump(Color trump) {
+		stopPondering();
+		forgetTrees(); // new turn, the trees of the previous one are useless
+		Arrays.fill(excluded, PackedCardSet.EMPTY);
+		ponderUnplayed = PackedCardSet.ALL_CARDS;
+		if(budget != null) {
+			budget.reset();
+		}
+	}
+	
+	/**
+	 * Updates the constraints on the hidden hands and, when pondering, starts searching the new state if another player has to play
+	 */
+	@Override
+	public void updateTrick(Trick newTrick) {
+		stopPondering(); // the background search reads the constraints
+		PackedDeal.addExclusions(newTrick.packed(), excluded);
+		for(int i = 0; i < newTrick.size(); i++) {
+			ponderUnplayed = PackedCardSet.remove(ponderUnplayed, newTrick.card(i).packed());
+		}
+		
+		if(settings.ponderSimulations() > 0 && ponderHand != null && !newTrick.isFull() && newTrick.player(newTrick.size()) != ownId) {
+			startPondering(TurnState.ofPackedComponents(ponderScore, ponderUnplayed, newTrick.packed()), ponderHand);
+		}
+	}
+	
+	@Override
+	public void setWinningTeam(TeamId winningTeam) {
+		stopPondering(); // the game is over, no state will be searched anymore
+		forgetTrees();
+		if(pool != null) {
+			pool.shutdown(); // the players are often created for a single game, their threads must not outlive it
+			pool = null;
+		}
+		if(settings.telemetry() != null) {
+			settings.telemetry().println(ownId + ": " + metrics);
+		}
+	}
+	
+	/**
+	 * Returns the statistics of the searches of this player since its creation, which stay empty if the settings do not record them
+	 */
+	public SearchMetrics metrics() {
+		return metrics;
+	}
+	
+	/**
+	 * Returns the statistics of the search of the last card chosen, background searches excluded, which are empty before
+	 * the first decision or if the settings do not record them
+	 */
+	public SearchMetrics lastDecision() {
+		return lastDecision;
+	}
+	
+	/**
+	 * Returns a probe for a thread of the running search, disabled if the settings do not record the statistics
+	 */
+	private SearchProbe probe() {
+		return SearchProbe.of(searchMetrics);
+	}
+	
+	/**
+	 * Starts searching the given state, where another player has to play, on a background thread
+	 * The tree is kept as if a decision had been taken in that state, so that the next decision goes on with its statistics
+	 */
+	private void startPondering(TurnState state, CardSet hand) {
+		
+		// the information set trees find the cards of the other players in their deals
+		CardSet rootCards = (settings.engine() == Engine.INFORMATION_SET ? CardSet.EMPTY : state.trick().playableCards(state.unplayedCards().difference(hand)));
+		double[] points = new double[rootCards.size()];
+		int[] computed = new int[rootCards.size()];
+		
+		ponderer = new Thread(() -> search(state, hand, rootCards, Long.MAX_VALUE, 0, settings.ponderSimulations(), true, points, computed));
+		ponderer.setDaemon(true);
+		ponderer.start();
+	}
+	
+	/**
+	 * Stops the background search, if any, and waits for its end
+	 */
+	private void stopPondering() {
+		if(ponderer == null) {
+			return;
+		}
+		stopRequested = true;
+		boolean interrupted = false;
+		while(ponderer.isAlive()) {
+			try {
+				ponderer.join();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if(interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		ponderer = null;
+		stopRequested = false;
+	}
+	
+	/**
+	 * Returns true if a search is running in the background
+	 */
+	boolean isPondering() {
+		return ponderer != null && ponderer.isAlive();
+	}
+	
+	/**
+	 * Drops the trees kept from the previous decision
+	 */
+	private void forgetTrees() {
+		previousState = null;
+		previousHand = null;
+		previousSharedRoot = null;
+		previousInformationSetRoots = null;
+	}
+	
+	/**
+	 * Returns the number of positions looked up in the transposition tables of the player since its creation
+	 * The counters of the tables are only up to date between decisions
+	 */
+	public long transpositionLookups() {
+		long lookups = 0;
+		for(int t = 0; pools != null && t < pools.length; t++) {
+			lookups += (pools[t].table() == null ? 0 : pools[t].table().lookups());
+		}
+		return lookups;
+	}
+	
+	/**
+	 * Returns the number of positions found in the transposition tables of the player since its creation
+	 */
+	public long transpositionHits() {
+		long hits = 0;
+		for(int t = 0; pools != null && t < pools.length; t++) {
+			hits += (pools[t].table() == null ? 0 : pools[t].table().hits());
+		}
+		return hits;
+	}
+	
+	/**
+	 * Returns the number of positions found in the transposition tables with simulations coming from other paths
+	 */
+	public long transpositionsShared() {
+		long shared = 0;
+		for(int t = 0; pools != null && t < pools.length; t++) {
+			shared += (pools[t].table() == null ? 0 : pools[t].table().shared());
+		}
+		return shared;
+	}
+	
+	/**
+	 * Returns the number of positions removed from the transposition tables of the player to make room for others
+	 */
+	public long transpositionReplacements() {
+		long replacements = 0;
+		for(int t = 0; pools != null && t < pools.length; t++) {
+			replacements += (pools[t].table() == null ? 0 : pools[t].table().replacements());
+		}
+		return replacements;
+	}
+	
+	/**
+	 * Chooses the trump in the table of the settings if it covers the hand, else by simulating turns on random deals
+	 * when the settings ask for it, with the heuristic otherwise
+	 */
 	@Override
 	public Color chooseTrump(CardSet hand) {
 		
+		if(settings.trumpTable() != null && hand.size() == Jass.HAND_SIZE) {
+			Color trump = settings.trumpTable().trump(hand.packed());
+			if(trump != null) {
+				return trump;
+			}
+		}
+		if(settings.trumpDeals() > 0 && hand.size() == Jass.HAND_SIZE) {
+			long deadline = (settings.trumpBudgetNanos() > 0 ? System.nanoTime() + settings.trumpBudgetNanos() : Long.MAX_VALUE);
+			return TrumpEvaluator.best(TrumpEvaluator.averagePoints(hand.packed(), ownId, settings.trumpDeals(), deadline, settings.rolloutPolicy(), srng.nextLong(), pool()));
+		}
+		
 		List<CardSet> sets = new ArrayList<>();
 		
 		for(Color c : Color.ALL) {
@@ -89,9 +405,11 @@ public final class MctsPlayer implements Player {
 		
 		Card bestC = null, bestOfSet = null;
 		for(CardSet set : sets) {
-			for(int j = 0; j < set.size(); ++j) {
-				if(bestOfSet == null || set.get(j).rank().trumpOrdinal() > bestOfSet.rank().trumpOrdinal()) {
-					bestOfSet = set.get(j);
+			long pkSet = set.packed();
+			for(int c = PackedCardSet.first(pkSet); c != PackedCard.INVALID; c = PackedCardSet.next(pkSet, c)) {
+				Card card = Card.ofPacked(c);
+				if(bestOfSet == null || card.rank().trumpOrdinal() > bestOfSet.rank().trumpOrdinal()) {
+					bestOfSet = card;
 				}
 			}
 			if(bestC == null || bestOfSet.rank().trumpOrdinal() > bestC.rank().trumpOrdinal()) {
@@ -103,6 +421,17 @@ public final class MctsPlayer implements Player {
 	
 	@Override
 	public Card cardToPlay(TurnState state, CardSet hand) {
+		return cardToPlay(state, hand, System.nanoTime());
+	}
+	
+	/**
+	 * Chooses the card to play, searching at least until the given deadline when the settings are bounded by time
+	 * A search only bounded by iterations always does the same number of simulations, whatever the deadline
+	 */
+	@Override
+	public Card cardToPlay(TurnState state, CardSet hand, long deadline) {
+		
+		stopPondering(); // its tree is reused below
 		
 		// choice of cards
 		CardSet playableHand = state.trick().playableCards(hand);
@@ -112,179 +441,309 @@ public final class MctsPlayer implements Player {
 			return playableHand.get(0);
 		}
 		
-		// root creation, node at the base of the tree
-		Node root = new Node(state, playableHand, null, ownId, ownId);
+		if(settings.isTimeBudgeted()) {
+			deadline = Math.max(deadline, System.nanoTime() + settings.timeBudgetNanos());
+		}
 		
-		// main loop
-		for(int i = 0; i < iterations; i++) {
-			
-			// select best end, returns path
-			List<Node> path = root.selected();
-			
-			// get last from path, current
-			Node current = path.get(path.size() - 1);
-			
-			// add child to end of path, returns child, if not possible returns end
-			Node child = current.addChild(hand, ownId);
-			path.add(child);
-
-			// simulate score
-			Score randomScore = getRandomScore(child.nodeState, hand, root);
-
-			// update scores
-			child.update(path, randomScore, ownId);
+		int min = settings.minIterations(), max = settings.maxIterations();
+		if(budget != null) {
+			min = max = budget.next(hand.size(), playableHand.size());
 		}
 		
-		int best = 0;
-		for(int i = 0; i < root.childNodes.length; i++) {
-			if(bestFunction(root.childNodes[i], 0, root) > bestFunction(root.childNodes[best], 0, root) ) {
+		double[] points = new double[playableHand.size()];
+		int[] computed = new int[playableHand.size()];
+		search(state, hand, playableHand, deadline, min, max, false, points, computed);
+		
+		int best = -1;
+		for(int i = 0; i < points.length; i++) {
+			if(computed[i] > 0 && (best == -1 || points[i] / computed[i] > points[best] / computed[best])) {
 				best = i;
 			}
 		} // choose best child node of the root, best of the card from the hand of the simulated player
 		
-		return root.childNodes[best].card;
+		return playableHand.get(best);
 	}
 	
-////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Searches the given state with the engine of the settings, going on with the tree of the previous search if it leads to the state
+	 * @param state			state searched
+	 * @param hand			hand of the simulated player
+	 * @param rootCards		cards that the next player can play, in the order of the statistics
+	 * @param deadline		time after which the search stops, once the minimum of simulations is done
+	 * @param minimum		minimum number of simulations below the root
+	 * @param limit			maximum number of simulations below the root
+	 * @param pondering		true if the search is done while another player thinks, its tree being then always kept
+	 * @param points		points gathered by each card of rootCards, filled by the search
+	 * @param computed		simulations done for each card of rootCards, filled by the search
+	 */
+	private void search(TurnState state, CardSet hand, CardSet rootCards, long deadline, int minimum, int limit, boolean pondering, double[] points, int[] computed) {
+		
+		iterationMinimum = minimum;
+		iterationLimit = limit;
+		long start = System.nanoTime();
+		searchMetrics = (settings.recordsMetrics() ? new SearchMetrics() : null);
+		switch(settings.engine()) {
+		case TREE_PARALLEL :
+			treeParallelSearch(state, hand, rootCards, deadline, points, computed);
+			break;
+			
+		case INFORMATION_SET :
+			informationSetSearch(state, hand, rootCards, deadline, points, computed);
+			break;
+			
+		default :
+			rootParallelSearch(state, hand, rootCards, deadline, points, computed);
+			break;
+		}
+		if(settings.recordsMetrics()) {
+			searchMetrics.addSearch(System.nanoTime() - start, !pondering);
+			metrics.add(searchMetrics);
+			if(!pondering) {
+				lastDecision = searchMetrics;
+			}
+		}
+		previousState = (settings.treeReuse() || pondering ? state : null);
+		previousHand = hand;
+	}
 	
-	private static class Node{
+	/**
+	 * Searches one independent tree per thread and sums the statistics of their root children
+	 * @param state			state from which the simulated player has to play
+	 * @param hand			hand of the simulated player
+	 * @param playableHand	cards that the next player can play, the cards of the hand if it is the simulated player
+	 * @param deadline		time after which each tree stops, once its minimum of simulations is done
+	 * @param points		points gathered by each card of playableHand, filled by the search
+	 * @param computed		simulations done for each card of playableHand, filled by the search
+	 */
+	private void rootParallelSearch(TurnState state, CardSet hand, CardSet playableHand, long deadline, double[] points, int[] computed) {
 		
-		private final int CURIOSITY = 40; // curiosity value of the simulation, the higher it is, the less conservative and more curious the simulation will be
+		if(pools == null) {
+			pools = new NodePool[settings.threads()];
+			for(int t = 0; t < pools.length; t++) {
+				pools[t] = new NodePool(settings.treeCapacity(), ownId, settings.transpositionEntries(), settings.rolloutPolicy(), settings.endgameThreshold());
+			}
+		}
 		
-		private TurnState nodeState;
-		private Node[] childNodes;
-		private CardSet remainingLinks;
-		private double points;
-		private int computed;
-		private Card card;
+		// root of each tree, the node of the previous tree matching the state or a new one
+		long played = playedSincePreviousDecision(state, hand);
+		for(NodePool tree : pools) {
+			if(played == PackedCardSet.ALL_CARDS || !tree.reRoot(state, played)) {
+				tree.reset(state, playableHand.packed(), hand.packed());
+			}
+		}
 		
-		/**
-		 * Constructor of the Node used for the Monte Carlo simulation tree
-		 * @param state			TurnState of the node, containing the Score, UnplayedCards and Trick
-		 * @param hand			Cards with which the simulation can go further down this node
-		 * @param card			Card that this node represents
-		 * @param nextPlayer	next player to play after this node
-		 * @param mctsId		PlayerId of the simulated player
-		 */
-		public Node(TurnState state, CardSet hand, Card card, PlayerId nextPlayer, PlayerId mctsId) {
-			
-			this.nodeState = state;
-			
-			if(state.isTerminal()) { // when state is terminal, cannot further develop down this node
-				this.remainingLinks = CardSet.EMPTY;
-				this.childNodes = new Node[0];
-			} else {
-				this.remainingLinks = playableCards(state, hand, nextPlayer, mctsId);
-				this.childNodes = new Node[remainingLinks.size()];
+		if(settings.threads() == 1) {
+			search(pools[0], hand, srng, deadline);
+		} else {
+			// generators are split before forking so that the result only depends on the seed and the number of threads
+			List<ForkJoinTask<?>> tasks = new ArrayList<>();
+			for(NodePool tree : pools) {
+				SplittableRandom treeRng = srng.split();
+				tasks.add(pool().submit(() -> search(tree, hand, treeRng, deadline)));
 			}
-			
-			this.card = card;
-		}
-		
-		/**
-		 * Defines which cards are playable according to the current situation
-		 * @param state			current TurnState
-		 * @param hand			current hand available
-		 * @param nextPlayer	player playing now
-		 * @param mctsId		PlayerId of the simulated player
-		 * @return CardSet		playable cards
-		 */
-		private CardSet playableCards(TurnState state, CardSet hand, PlayerId nextPlayer, PlayerId mctsId) {
-			CardSet playable;
-			
-			if(nextPlayer == mctsId) {
-				playable = state.trick().playableCards(state.unplayedCards().intersection(hand));
-			} else {
-				playable = state.trick().playableCards(state.unplayedCards().difference(hand));
+			for(ForkJoinTask<?> task : tasks) {
+				task.join();
 			}
-			return playable;
 		}
 		
-		/**
-		 * Selects the best node to simulate more according to their respective scores
-		 * @return List<Node>	list of nodes from the root node (included, first position) to the node to the expand, (included, last position)
-		 */
-		private List<Node> selected(){
-			
-			Node toFollow = this;
-			
-			List<Node> path = new ArrayList<>();
-			path.add(toFollow);
-			
-			// if can go further down this node and all children are full
-			while(!toFollow.remainingLinks.isEmpty() && toFollow.childsFull()) {
-				
-				// selecting where to continue
-				Node best = toFollow.childNodes[0];
-				for(Node n : toFollow.childNodes) {
-					if(bestFunction(n, CURIOSITY, this) > bestFunction(best, CURIOSITY, this)) {
-						best = n;
-					}
-				}
-				
-				toFollow = best;
-				// add it to the node before going further
-				path.add(toFollow);
+		// all roots have their children in the order of playableHand
+		for(NodePool tree : pools) {
+			for(int i = 0; i < points.length; i++) {
+				points[i] += tree.rootChildPoints(i);
+				computed[i] += tree.rootChildComputed(i);
 			}
-			// otherwise, we are at the node to expand
-			return path;
 		}
+	}
+	
+	/**
+	 * Searches a single tree with all the threads at once, the iterations being shared between them
+	 * @param state			state from which the simulated player has to play
+	 * @param hand			hand of the simulated player
+	 * @param playableHand	cards that the next player can play, the cards of the hand if it is the simulated player
+	 * @param deadline		time after which the threads stop, once the minimum of simulations is done in the tree
+	 * @param points		points gathered by each card of playableHand, filled by the search
+	 * @param computed		simulations done for each card of playableHand, filled by the search
+	 */
+	private void treeParallelSearch(TurnState state, CardSet hand, CardSet playableHand, long deadline, double[] points, int[] computed) {
 		
-		/**
-		 * Returns true if all children are full
-		 */
-		private boolean childsFull() {
-			for(int i = 0; i < childNodes.length; i++) {
-				if(childNodes[i] == null) {
-					return false;
-				}
+		long played = playedSincePreviousDecision(state, hand);
+		SharedNode reused = (previousSharedRoot == null || played == PackedCardSet.ALL_CARDS ? null : previousSharedRoot.descendant(state, played));
+		SharedNode root = (reused != null ? reused : new SharedNode(state, hand, null, ownId));
+		
+		// the simulations already done below the reused root count in the iterations of this decision
+		AtomicInteger started = new AtomicInteger(root.computed());
+		
+		Runnable worker = workerOf(root, hand, started, deadline, srng.split());
+		if(settings.threads() == 1) {
+			worker.run();
+		} else {
+			List<ForkJoinTask<?>> tasks = new ArrayList<>();
+			for(int t = 0; t < settings.threads(); t++) {
+				tasks.add(pool().submit(t == 0 ? worker : workerOf(root, hand, started, deadline, srng.split())));
+			}
+			for(ForkJoinTask<?> task : tasks) {
+				task.join();
 			}
-			return true;
 		}
+		previousSharedRoot = (settings.treeReuse() ? root : null);
 		
-		/**
-		 * Adds a new child in the children nodes of the given node and returns it
-		 * @param mctsHand		hand of the simulated player
-		 * @param mctsId		PlayerId of the simulated player
-		 * @return Node			child Node just created
-		 */
-		private Node addChild(CardSet mctsHand, PlayerId mctsId) {
-			
-			for(int i = 0; i < childNodes.length; i++) {
-				if(childNodes[i] == null) {
-					// card correspond to the position in the childNodes
-					Card childCard = remainingLinks.get(i);
-					TurnState childState = nodeState.withNewCardPlayedAndTrickCollected(childCard);
-					
-					PlayerId nextPlayer;
-					if(childState.packedTrick()==PackedTrick.INVALID) {
-						nextPlayer = this.nodeState.trick().winningPlayer();
-					} else {
-						nextPlayer = childState.nextPlayer();
-					}
-					
-					childNodes[i] = new Node(childState, mctsHand, childCard, nextPlayer, mctsId);
-					return childNodes[i];
-				}
+		for(int i = 0; i < root.childCount(); i++) {
+			SharedNode child = root.child(i);
+			// a thread losing the race for a slot follows the child of the winner, so a child is only missing if the search
+			// was stopped (the background search interrupted by a decision) before every card of the root was expanded
+			if(child != null) {
+				points[i] = child.points();
+				computed[i] = child.computed();
 			}
-			// if we are at the end of a branch, returns itself so it will re-simulate once more
-			return this;
-		}
-		
-		/**
-		 * Updates all the scores of the concerned nodes according to the new simulated Score
-		 * @param path			list of all the nodes that should be updated, from the new child up to the root node
-		 * @param randomScore	random simulated Score
-		 * @param mctsId		PlayerId of the simulated player
-		 */
-		private void update(List<Node> path, Score randomScore, PlayerId mctsId) {
-			for(int i = 0; i < path.size(); i++) {
-				Node toUpdate = path.get(i);
-				
-				toUpdate.points += (double)randomScore.turnPoints(mctsId.team());
+		}
+	}
+	
+	/**
+	 * Returns a task doing simulations in the shared tree as long as the search goes on
+	 * @param root			root of the shared tree
+	 * @param hand			hand of the simulated player
+	 * @param started		simulations started in the shared tree by all the threads
+	 * @param deadline		time after which the search stops, once the minimum of simulations is done
+	 * @param rng			random generator of this worker
+	 */
+	private Runnable workerOf(SharedNode root, CardSet hand, AtomicInteger started, long deadline, SplittableRandom rng) {
+		return () -> {
+			EndgameSolver solver = endgameSolver();
+			SearchProbe probe = probe();
+			// a stopped search ends at once, even if some children of the root are still missing
+			while(!stopRequested && (searchGoesOn(started.getAndIncrement(), deadline) || !root.isFullyExpanded())) {
+				probe.begin();
+				List<SharedNode> path = new ArrayList<>();
+				boolean expanded = root.selectAndExpand(path, hand, ownId, probe);
 				
-				toUpdate.computed++;
+				TurnState leaf = path.get(path.size() - 1).state();
+				long randomScore = (solver != null && solver.applies(leaf.packedUnplayedCards()))
+						? solver.solveRandomDeal(leaf.packedScore(), leaf.packedUnplayedCards(), leaf.packedTrick(), hand.packed(), ownId, settings.rolloutPolicy(), rng)
+						: getRandomScore(leaf, hand, ownId, settings.rolloutPolicy(), rng);
+				probe.lap(Phase.SIMULATION);
+				SharedNode.update(path, randomScore, ownId);
+				probe.lap(Phase.BACKPROPAGATION);
+				probe.end(path.size(), expanded);
+			}
+			probe.flush();
+		};
+	}
+	
+	/**
+	 * Searches one information set tree per thread, each simulation being done on a deal of the unknown cards
+	 * consistent with the tricks seen during the turn, and sums the statistics of the root children
+	 * @param state			state from which the simulated player has to play
+	 * @param hand			hand of the simulated player, whose size must be the one implied by the state
+	 * @param playableHand	cards that the next player can play, the cards of the hand if it is the simulated player
+	 * @param deadline		time after which each tree stops, once its minimum of simulations is done
+	 * @param points		points gathered by each card of playableHand, filled by the search
+	 * @param computed		simulations done for each card of playableHand, filled by the search
+	 * @throws IllegalArgumentException	if the hand does not have the number of cards the player must still have
+	 */
+	private void informationSetSearch(TurnState state, CardSet hand, CardSet playableHand, long deadline, double[] points, int[] computed) {
+		
+		long ownHand = PackedCardSet.intersection(hand.packed(), state.packedUnplayedCards());
+		Preconditions.checkArgument(PackedCardSet.size(ownHand) == PackedDeal.handSize(state.packedTrick(), ownId));
+		
+		// the cards of the current trick may not have been notified yet
+		PackedDeal.addExclusions(state.packedTrick(), excluded);
+		long[] constraints = excluded.clone();
+		
+		InformationSetNode[] roots = new InformationSetNode[settings.threads()];
+		long played = playedSincePreviousDecision(state, hand);
+		for(int t = 0; t < roots.length; t++) {
+			InformationSetNode reused = (previousInformationSetRoots == null || played == PackedCardSet.ALL_CARDS ? null : previousInformationSetRoots[t].descendant(state, played));
+			roots[t] = (reused != null ? reused : new InformationSetNode(state));
+		}
+		
+		if(settings.threads() == 1) {
+			searchInformationSets(roots[0], state, ownHand, playableHand.packed(), constraints, srng, deadline);
+		} else {
+			List<ForkJoinTask<?>> tasks = new ArrayList<>();
+			for(InformationSetNode root : roots) {
+				SplittableRandom treeRng = srng.split();
+				tasks.add(pool().submit(() -> searchInformationSets(root, state, ownHand, playableHand.packed(), constraints, treeRng, deadline)));
+			}
+			for(ForkJoinTask<?> task : tasks) {
+				task.join();
+			}
+		}
+		previousInformationSetRoots = (settings.treeReuse() ? roots : null);
+		
+		long pkPlayable = playableHand.packed();
+		for(InformationSetNode root : roots) {
+			int i = 0; // the statistics are in the order of the cards of playableHand
+			for(int pkCard = PackedCardSet.first(pkPlayable); pkCard != PackedCard.INVALID; pkCard = PackedCardSet.next(pkPlayable, pkCard), i++) {
+				points[i] += root.childPoints(pkCard);
+				computed[i] += root.childComputed(pkCard);
+			}
+		}
+	}
+	
+	/**
+	 * Searches the information set tree below the given root, sampling a new deal for each simulation
+	 * @param root			root node of the tree
+	 * @param state			state of the root
+	 * @param ownHand		"packed" unplayed cards of the simulated player
+	 * @param playable		"packed" cards of the simulated player that can be played, all simulated at least once
+	 * @param excluded		"packed" cards that each player cannot have, indexed by PlayerId ordinal
+	 * @param rng			random generator used for the deals and simulations of this tree
+	 * @param deadline		time after which the search stops, once the minimum of simulations is done
+	 */
+	private void searchInformationSets(InformationSetNode root, TurnState state, long ownHand, long playable, long[] excluded, SplittableRandom rng, long deadline) {
+		
+		long unknown = PackedCardSet.difference(state.packedUnplayedCards(), ownHand);
+		int[] sizes = new int[PlayerId.COUNT];
+		for(PlayerId p : PlayerId.ALL) {
+			if(p != ownId) {
+				sizes[p.ordinal()] = PackedDeal.handSize(state.packedTrick(), p);
 			}
 		}
+		
+		long[] hands = new long[PlayerId.COUNT];
+		List<InformationSetNode> path = new ArrayList<>();
+		EndgameSolver solver = endgameSolver();
+		SearchProbe probe = probe();
+		while(!stopRequested && (searchGoesOn(root.computed(), deadline) || !root.hasChildren(playable))) {
+			Arrays.fill(hands, PackedCardSet.EMPTY);
+			hands[ownId.ordinal()] = ownHand;
+			PackedDeal.deal(unknown, sizes, excluded, rng, hands);
+			
+			path.clear();
+			root.simulate(hands, path, settings.rolloutPolicy(), solver, probe, rng);
+		}
+		probe.flush();
+	}
+	
+	/**
+	 * Searches the tree below the root of the given pool
+	 * The simulations already done below the root (if it comes from a previous decision) count in the iterations
+	 * @param tree			pool holding the tree
+	 * @param hand			hand of the simulated player
+	 * @param rng			random generator used for the simulations of this tree
+	 * @param deadline		time after which the search stops, once the minimum of simulations is done
+	 */
+	private void search(NodePool tree, CardSet hand, SplittableRandom rng, long deadline) {
+		
+		long pkHand = hand.packed();
+		SearchProbe probe = probe();
+		// main loop, going on until every card of the root has been simulated at least once, unless the search is stopped
+		while(!stopRequested && (searchGoesOn(tree.rootComputed(), deadline) || !tree.rootFull())) {
+			tree.simulate(pkHand, rng, probe);
+		}
+		probe.flush();
+	}
+	
+	/**
+	 * Enumeration of the ways the search can be spread over the threads of the player
+	 * ROOT_PARALLEL: one independent tree per thread, the statistics of their root children are merged at the end
+	 * TREE_PARALLEL: a single tree shared by all the threads, which descend it concurrently
+	 * INFORMATION_SET: one independent information set tree per thread, each simulation being done on a deal of the hidden cards
+	 * consistent with the cards the other players showed they do not have
+	 */
+	public enum Engine {
+		ROOT_PARALLEL,
+		TREE_PARALLEL,
+		INFORMATION_SET;
 	}
-}
\ No newline at end of file
+}
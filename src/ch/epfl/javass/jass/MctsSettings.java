@@ -0,0 +1,488 @@
+package ch.epfl.javass.jass;
+
+import java.io.PrintStream;
+
+import ch.epfl.javass.Preconditions;
+import ch.epfl.javass.jass.MctsPlayer.Engine;
+
+/**
+ * @author GARANDEL.Eloi (SCIPER : 300326) / D'ETERNOD.Kilian (SCIPER : 296357)
+ * Immutable settings of the search done by a MctsPlayer before playing each card
+ */
+public final class MctsSettings {
+
+	private static final long NANOS_PER_SECOND = 1_000_000_000L;
+	private static final int DEFAULT_TREE_CAPACITY = 1 << 20;
+	// the largest root is the one of a search done while another player thinks, whose children are the cards of the three other hands
+	static final int MIN_TREE_CAPACITY = Jass.HAND_SIZE * 3 + 1;
+
+	private final int minIterations;
+	private final int maxIterations;
+	private final long timeBudget; // in nanoseconds, 0 if the search is only bounded by the iterations
+	private final int threads;
+	private final Engine engine;
+	private final boolean treeReuse;
+	private final int treeCapacity;
+	private final int transpositionEntries;
+	private final RolloutPolicy rolloutPolicy;
+	private final int endgameThreshold;
+	private final int trumpDeals; // 0 if the trump is chosen by the heuristic
+	private final long trumpBudget; // in nanoseconds, 0 if the trump choice is only bounded by the deals
+	private final TrumpTable trumpTable;
+	private final int ponderSimulations;
+	private final boolean metrics;
+	private final PrintStream telemetry;
+	private final int turnIterations; // 0 if every decision has the same bounds
+	private final int turnFloor;
+	private final int turnCeiling;
+
+	/**
+	 * Constructor of the settings, from the values of the builder
+	 */
+	private MctsSettings(Builder b) {
+		this.minIterations = b.minIterations;
+		this.maxIterations = b.maxIterations;
+		this.timeBudget = b.timeBudget;
+		this.threads = b.threads;
+		this.engine = b.engine;
+		this.treeReuse = b.treeReuse;
+		this.treeCapacity = b.treeCapacity;
+		this.transpositionEntries = b.transpositionEntries;
+		this.rolloutPolicy = b.rolloutPolicy;
+		this.endgameThreshold = b.endgameThreshold;
+		this.trumpDeals = b.trumpDeals;
+		this.trumpBudget = b.trumpBudget;
+		this.trumpTable = b.trumpTable;
+		this.ponderSimulations = b.ponderSimulations;
+		this.metrics = b.metrics;
+		this.telemetry = b.telemetry;
+		this.turnIterations = b.turnIterations;
+		this.turnFloor = b.turnFloor;
+		this.turnCeiling = b.turnCeiling;
+	}
+
+	/**
+	 * Returns a builder holding the settings of this instance, to be modified before building new settings
+	 */
+	private Builder builder() {
+		Builder b = new Builder(minIterations, maxIterations, timeBudget);
+		b.threads = threads;
+		b.engine = engine;
+		b.treeReuse = treeReuse;
+		b.treeCapacity = treeCapacity;
+		b.transpositionEntries = transpositionEntries;
+		b.rolloutPolicy = rolloutPolicy;
+		b.endgameThreshold = endgameThreshold;
+		b.trumpDeals = trumpDeals;
+		b.trumpBudget = trumpBudget;
+		b.trumpTable = trumpTable;
+		b.ponderSimulations = ponderSimulations;
+		b.metrics = metrics;
+		b.telemetry = telemetry;
+		b.turnIterations = turnIterations;
+		b.turnFloor = turnFloor;
+		b.turnCeiling = turnCeiling;
+		return b;
+	}
+
+	/**
+	 * Mutable values of settings being built, by default on a single thread and reusing the tree between decisions,
+	 * never shared so that the settings built can have final fields
+	 */
+	private static final class Builder {
+		private int minIterations;
+		private int maxIterations;
+		private long timeBudget;
+		private int threads = 1;
+		private Engine engine = Engine.ROOT_PARALLEL;
+		private boolean treeReuse = true;
+		private int treeCapacity = DEFAULT_TREE_CAPACITY;
+		private int transpositionEntries = 0;
+		private RolloutPolicy rolloutPolicy = RolloutPolicy.RANDOM;
+		private int endgameThreshold = 0;
+		private int trumpDeals = 0;
+		private long trumpBudget = 0;
+		private TrumpTable trumpTable = null;
+		private int ponderSimulations = 0;
+		private boolean metrics = false;
+		private PrintStream telemetry = null;
+		private int turnIterations = 0;
+		private int turnFloor;
+		private int turnCeiling;
+
+		private Builder(int minIterations, int maxIterations, long timeBudget) {
+			this.minIterations = minIterations;
+			this.maxIterations = maxIterations;
+			this.timeBudget = timeBudget;
+		}
+	}
+
+	/**
+	 * Returns settings doing exactly the given number of simulations, on a single thread
+	 * @param iterations				number of simulations before playing a card
+	 * @throws IllegalArgumentException	if there are less iterations than Jass.MINIMUM_ITERATIONS
+	 */
+	public static MctsSettings ofIterations(int iterations) {
+		Preconditions.checkArgument(iterations >= Jass.MINIMUM_ITERATIONS);
+
+		return new MctsSettings(new Builder(iterations, iterations, 0));
+	}
+
+	/**
+	 * Returns settings searching until the given time has elapsed, on a single thread
+	 * At least Jass.MINIMUM_ITERATIONS simulations are done whatever the time they take
+	 * @param seconds					time given to each decision, in seconds
+	 * @throws IllegalArgumentException	if the time is not strictly positive
+	 */
+	public static MctsSettings ofTimeBudget(double seconds) {
+		Preconditions.checkArgument(seconds > 0);
+
+		return new MctsSettings(new Builder(Jass.MINIMUM_ITERATIONS, Integer.MAX_VALUE, (long)(seconds * NANOS_PER_SECOND)));
+	}
+
+	/**
+	 * Returns the same settings with the number of simulations kept between the given bounds, whatever the time
+	 * @param min						minimum number of simulations, done even if the time budget is exceeded
+	 * @param max						maximum number of simulations, the search stops there even if there is time left
+	 * @throws IllegalArgumentException	if min is less than Jass.MINIMUM_ITERATIONS or greater than max
+	 */
+	public MctsSettings withIterationBounds(int min, int max) {
+		Preconditions.checkArgument(min >= Jass.MINIMUM_ITERATIONS && max >= min);
+
+		Builder b = builder();
+		b.minIterations = min;
+		b.maxIterations = max;
+		return new MctsSettings(b);
+	}
+
+	/**
+	 * Returns the same settings searching with the given number of threads
+	 * @param threads					number of threads
+	 * @throws IllegalArgumentException	if there is not at least one thread
+	 */
+	public MctsSettings withThreads(int threads) {
+		Preconditions.checkArgument(threads >= 1);
+
+		Builder b = builder();
+		b.threads = threads;
+		return new MctsSettings(b);
+	}
+
+	/**
+	 * Returns the same settings with the given search engine
+	 * @param engine	way the threads share the search
+	 */
+	public MctsSettings withEngine(Engine engine) {
+		Builder b = builder();
+		b.engine = engine;
+		return new MctsSettings(b);
+	}
+
+	/**
+	 * Returns the same settings keeping or not the tree of a decision for the next decisions of the turn
+	 * When kept, the simulations already done below the new state count in the iterations of the next decision
+	 * @param treeReuse		true to keep the tree, false to start each decision from an empty tree
+	 */
+	public MctsSettings withTreeReuse(boolean treeReuse) {
+		Builder b = builder();
+		b.treeReuse = treeReuse;
+		return new MctsSettings(b);
+	}
+
+	/**
+	 * Returns the same settings with the given maximum number of nodes in each tree of the ROOT_PARALLEL engine
+	 * The memory of a tree grows with the search up to about 50 bytes per node, and it stops expanding when full
+	 * @param nodes						maximum number of nodes of a tree
+	 * @throws IllegalArgumentException	if a tree cannot hold the largest root and all its children (Jass.HAND_SIZE * 3 + 1 nodes)
+	 */
+	public MctsSettings withTreeCapacity(int nodes) {
+		Preconditions.checkArgument(nodes >= MIN_TREE_CAPACITY);
+		
+		Builder b = builder();
+		b.treeCapacity = nodes;
+		return new MctsSettings(b);
+	}
+	
+	/**
+	 * Returns the same settings sharing the statistics of the positions reached by different orders of cards,
+	 * in a transposition table of the given size attached to each tree of the ROOT_PARALLEL engine
+	 * A table takes 20 bytes per entry; when full, the least simulated position of a bucket is replaced
+	 * @param entries					maximum number of positions in each table (rounded up to a power of two), 0 for no table
+	 * @throws IllegalArgumentException	if the number of entries is negative
+	 */
+	public MctsSettings withTranspositionTable(int entries) {
+		Preconditions.checkArgument(entries >= 0);
+		
+		Builder b = builder();
+		b.transpositionEntries = entries;
+		return new MctsSettings(b);
+	}
+	
+	/**
+	 * Returns the same settings simulating the turns with the given policy
+	 * The INFORMATION_SET engine uses it for all the players, the other engines only for the simulated player,
+	 * the others playing at random among all the cards they may have
+	 * @param policy	policy choosing the cards during the simulations
+	 */
+	public MctsSettings withRolloutPolicy(RolloutPolicy policy) {
+		Builder b = builder();
+		b.rolloutPolicy = policy;
+		return new MctsSettings(b);
+	}
+	
+	/**
+	 * Returns the same settings solving the end of the turn exactly instead of simulating it once at most the given number
+	 * of cards are left to play: the INFORMATION_SET engine solves its sampled deal, the other engines deal the unknown cards
+	 * at random to the other players and solve that deal
+	 * A solve costs much more than a simulation as the threshold grows, 8 to 12 cards is a reasonable range
+	 * @param unplayedCards				number of unplayed cards from which the turn is solved, 0 to always simulate
+	 * @throws IllegalArgumentException	if the number of cards is negative or greater than the number of cards of a turn
+	 */
+	public MctsSettings withEndgameThreshold(int unplayedCards) {
+		Preconditions.checkArgument(unplayedCards >= 0 && unplayedCards <= Jass.TRICKS_PER_TURN * PlayerId.COUNT);
+		
+		Builder b = builder();
+		b.endgameThreshold = unplayedCards;
+		return new MctsSettings(b);
+	}
+	
+	/**
+	 * Returns the same settings choosing the trump by simulating turns with each color on random deals of the other cards,
+	 * the same deals for every color, instead of judging the hand by its colors' lengths and highest cards
+	 * The colors are evaluated in parallel by the threads of the player and the turns are played with the rollout policy
+	 * @param deals						maximum number of deals simulated for each color, 0 to use the heuristic
+	 * @param seconds					time given to the choice, in seconds, 0 if it is only bounded by the deals
+	 * 									(at least Jass.MINIMUM_ITERATIONS deals are simulated whatever the time they take)
+	 * @throws IllegalArgumentException	if the number of deals or the time is negative
+	 */
+	public MctsSettings withTrumpSimulations(int deals, double seconds) {
+		Preconditions.checkArgument(deals >= 0 && seconds >= 0);
+		
+		Builder b = builder();
+		b.trumpDeals = deals;
+		b.trumpBudget = (long)(seconds * NANOS_PER_SECOND);
+		return new MctsSettings(b);
+	}
+	
+	/**
+	 * Returns the same settings looking the trump up in the given precomputed table
+	 * The hands that the table does not cover yet are handled by the simulations or the heuristic
+	 * @param table		table of the best trumps, null to choose the trump without table
+	 */
+	public MctsSettings withTrumpTable(TrumpTable table) {
+		Builder b = builder();
+		b.trumpTable = table;
+		return new MctsSettings(b);
+	}
+	
+	/**
+	 * Returns the same settings searching in the background while the other players think (pondering)
+	 * The state of the turn is rebuilt from the notifications of the game, and the tree searched is the one
+	 * the next decision goes on with; the search stops as soon as a notification or a decision arrives,
+	 * so that the choices depend on the time the other players take
+	 * @param simulations				maximum number of simulations below each state searched in the background, 0 not to ponder
+	 * @throws IllegalArgumentException	if the number of simulations is negative
+	 */
+	public MctsSettings withPondering(int simulations) {
+		Preconditions.checkArgument(simulations >= 0);
+		
+		Builder b = builder();
+		b.ponderSimulations = simulations;
+		return new MctsSettings(b);
+	}
+	
+	/**
+	 * Returns the same settings spreading the given number of simulations over the decisions of each turn,
+	 * the decisions with many cards in hand and many playable cards getting more of them than the last ones
+	 * The number of simulations of each decision then replaces the bounds of the iterations, so that the time budget no longer applies
+	 * @param iterations				simulations of all the decisions of a turn, 0 to give each decision the same bounds
+	 * @param floor						minimum number of simulations of a decision
+	 * @param ceiling					maximum number of simulations of a decision
+	 * @throws IllegalArgumentException	if iterations is negative, or if floor is less than Jass.MINIMUM_ITERATIONS or greater than ceiling
+	 */
+	public MctsSettings withTurnBudget(int iterations, int floor, int ceiling) {
+		Preconditions.checkArgument(iterations >= 0 && floor >= Jass.MINIMUM_ITERATIONS && ceiling >= floor);
+		
+		Builder b = builder();
+		b.turnIterations = iterations;
+		b.turnFloor = floor;
+		b.turnCeiling = ceiling;
+		return new MctsSettings(b);
+	}
+	
+	/**
+	 * Returns the same settings recording, or not, the statistics of the searches (simulations per second, nodes, depth,
+	 * time of each phase of the simulations, allocations), which are read with MctsPlayer.metrics() for all the decisions
+	 * and MctsPlayer.lastDecision() for the last one
+	 * @param record	true to record the statistics, which are also recorded if the settings have a telemetry stream
+	 */
+	public MctsSettings withMetrics(boolean record) {
+		Builder b = builder();
+		b.metrics = record;
+		return new MctsSettings(b);
+	}
+	
+	/**
+	 * Returns the same settings recording the statistics of the searches, as withMetrics(true), and printing them
+	 * on the given stream at the end of each game
+	 * @param dump		stream on which the statistics are printed, null not to print them
+	 */
+	public MctsSettings withTelemetry(PrintStream dump) {
+		Builder b = builder();
+		b.telemetry = dump;
+		return new MctsSettings(b);
+	}
+	
+	/**
+	 * Returns the minimum number of simulations done for each decision
+	 */
+	public int minIterations() {
+		return minIterations;
+	}
+
+	/**
+	 * Returns the maximum number of simulations done for each decision
+	 */
+	public int maxIterations() {
+		return maxIterations;
+	}
+
+	/**
+	 * Returns true if the search is bounded by time, false if it only depends on the iterations
+	 */
+	public boolean isTimeBudgeted() {
+		return timeBudget > 0;
+	}
+
+	/**
+	 * Returns the time given to each decision, in nanoseconds (0 if the search is not bounded by time)
+	 */
+	public long timeBudgetNanos() {
+		return timeBudget;
+	}
+
+	/**
+	 * Returns the number of threads searching
+	 */
+	public int threads() {
+		return threads;
+	}
+
+	/**
+	 * Returns the way the threads share the search
+	 */
+	public Engine engine() {
+		return engine;
+	}
+
+	/**
+	 * Returns true if the tree of a decision is kept for the next decisions of the turn
+	 */
+	public boolean treeReuse() {
+		return treeReuse;
+	}
+
+	/**
+	 * Returns the maximum number of nodes in each tree of the ROOT_PARALLEL engine
+	 */
+	public int treeCapacity() {
+		return treeCapacity;
+	}
+	
+	/**
+	 * Returns the number of entries of the transposition table of each tree, 0 if the positions are not shared
+	 */
+	public int transpositionEntries() {
+		return transpositionEntries;
+	}
+	
+	/**
+	 * Returns the policy choosing the cards during the simulations
+	 */
+	public RolloutPolicy rolloutPolicy() {
+		return rolloutPolicy;
+	}
+	
+	/**
+	 * Returns the number of unplayed cards from which the end of the turn is solved exactly, 0 if it is always simulated
+	 */
+	public int endgameThreshold() {
+		return endgameThreshold;
+	}
+	
+	/**
+	 * Returns the maximum number of deals simulated for each color to choose the trump, 0 if it is chosen by the heuristic
+	 */
+	public int trumpDeals() {
+		return trumpDeals;
+	}
+	
+	/**
+	 * Returns the time given to the choice of the trump, in nanoseconds (0 if it is only bounded by the deals)
+	 */
+	public long trumpBudgetNanos() {
+		return trumpBudget;
+	}
+	
+	/**
+	 * Returns the table in which the trump is looked up, null if there is none
+	 */
+	public TrumpTable trumpTable() {
+		return trumpTable;
+	}
+	
+	/**
+	 * Returns the maximum number of simulations below each state searched while the other players think, 0 if the player does not ponder
+	 */
+	public int ponderSimulations() {
+		return ponderSimulations;
+	}
+	
+	/**
+	 * Returns the number of simulations spread over the decisions of a turn, 0 if every decision has the same bounds
+	 */
+	public int turnIterations() {
+		return turnIterations;
+	}
+	
+	/**
+	 * Returns the minimum number of simulations of a decision when they are spread over the turn
+	 */
+	public int turnFloor() {
+		return turnFloor;
+	}
+	
+	/**
+	 * Returns the maximum number of simulations of a decision when they are spread over the turn
+	 */
+	public int turnCeiling() {
+		return turnCeiling;
+	}
+	
+	/**
+	 * Returns true if the statistics of the searches are recorded, as asked by withMetrics or to be printed on the telemetry stream
+	 */
+	public boolean recordsMetrics() {
+		return metrics || telemetry != null;
+	}
+	
+	/**
+	 * Returns the stream on which the statistics of the searches are printed, null if they are not printed
+	 */
+	public PrintStream telemetry() {
+		return telemetry;
+	}
+	
+	@Override
+	public String toString() {
+		String budget = isTimeBudgeted() ? (timeBudget / 1e9) + "s" : "no time budget";
+		return "[" + minIterations + ", " + maxIterations + "] iterations, " + budget + ", " + threads + " thread(s), " + engine
+				+ (treeReuse ? ", tree reused" : "") + (transpositionEntries > 0 ? ", transposition table of " + transpositionEntries : "")
+				+ (endgameThreshold > 0 ? ", solved from " + endgameThreshold + " cards" : "")
+				+ (trumpDeals > 0 ? ", trump simulated on " + trumpDeals + " deals" : "")
+				+ (trumpTable != null ? ", trump table" : "")
+				+ (ponderSimulations > 0 ? ", pondering " + ponderSimulations + " simulations" : "")
+				+ (turnIterations > 0 ? ", " + turnIterations + " iterations per turn in [" + turnFloor + ", " + turnCeiling + "]" : "")
+				+ (metrics ? ", metrics" : "") + (telemetry != null ? ", telemetry" : "");
+	}
+}
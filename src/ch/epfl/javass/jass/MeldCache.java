@@ -0,0 +1,146 @@
+package ch.epfl.javass.jass;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import ch.epfl.javass.Preconditions;
+
+/**
+ * @author GARANDEL.Eloi (SCIPER : 300326) / D'ETERNOD.Kilian (SCIPER : 296357)
+ * Bounded cache of the best meld sets of the hands, which can be shared by any number of threads (and of games)
+ * The cache is made of buckets of two entries, chosen by the hash of the hands; a hand computed goes first in its bucket and
+ * pushes the first entry to the second place, so that the hand computed the longest time ago is the one removed (a hit does not
+ * move its entry, the order of a bucket being the order of insertion)
+ * The entries are immutable, so a thread reads either a complete entry or none; two threads missing the same hand only compute it
+ * twice, and two threads filling the same bucket at once can only lose an entry, never return a wrong one
+ * As the melds do not favor any color, the cache can be keyed by the canonical hands of TrumpTable, so that all the hands
+ * equal up to a permutation of the colors share their entry; the melds are then permuted back for each lookup
+ * The cache only pays off for hands that come back (the hands of a benchmark, of a training set, ...): the random deals of a
+ * game hardly ever repeat among the millions of possible hands, and a miss costs more than finding the melds directly
+ */
+public final class MeldCache {
+
+	private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+	private static final int BUCKET_SIZE = 2;
+	// with a single bucket, the shift of the hash would be 64, which Java reduces to 0
+	private static final int MIN_BUCKETS = 2;
+
+	private final AtomicReferenceArray<Entry> entries;
+	private final int shift;
+	private final boolean canonical;
+	private final LongAdder lookups = new LongAdder();
+	private final LongAdder hits = new LongAdder();
+
+	/**
+	 * Entry of a hand, with its best meld set in both representations
+	 */
+	private static final class Entry {
+		private final long pkHand;
+		private final long pkMeldSet;
+		private final MeldSet meldSet;
+
+		private Entry(long pkHand, long pkMeldSet) {
+			this.pkHand = pkHand;
+			this.pkMeldSet = pkMeldSet;
+			this.meldSet = MeldSet.ofPacked(pkMeldSet);
+		}
+	}
+
+	/**
+	 * Constructor of an empty cache
+	 * @param entries						maximum number of hands, rounded up to a power of two (at least two buckets)
+	 * @param canonical						true if the hands equal up to a permutation of the colors share their entry
+	 * @throws IllegalArgumentException		if there is not at least one entry
+	 */
+	public MeldCache(int entries, boolean canonical) {
+		Preconditions.checkArgument(entries > 0 && entries <= 1 << 30);
+
+		int size = Math.max(BUCKET_SIZE * MIN_BUCKETS, Integer.highestOneBit(Math.max(1, entries - 1)) << 1);
+		this.entries = new AtomicReferenceArray<>(size);
+		this.shift = Long.SIZE - Integer.numberOfTrailingZeros(size / BUCKET_SIZE);
+		this.canonical = canonical;
+	}
+
+	/**
+	 * Returns the best meld set of the given hand
+	 * @param pkHand		"packed" hand
+	 * @return				"packed" best meld set, as PackedMeldSet.bestIn
+	 */
+	public long bestIn(long pkHand) {
+		assert(PackedCardSet.isValid(pkHand));
+
+		if(!canonical) {
+			return entry(pkHand).pkMeldSet;
+		}
+		int permutation = TrumpTable.permutation(pkHand);
+		long pkMeldSet = entry(TrumpTable.canonical(pkHand, permutation)).pkMeldSet;
+		return PackedMeldSet.permuted(pkMeldSet, permutation);
+	}
+
+	/**
+	 * Returns the best meld set of the given hand, the same instance for each lookup of a cached hand
+	 * (of a cached canonical hand that is its own canonical hand if the cache is canonical)
+	 * @param hand		hand
+	 * @return			best meld set of the hand, as MeldSet.getBestMeldSet
+	 */
+	public MeldSet bestMeldSet(CardSet hand) {
+		if(!canonical) {
+			return entry(hand.packed()).meldSet;
+		}
+		int permutation = TrumpTable.permutation(hand.packed());
+		long pkCanonical = TrumpTable.canonical(hand.packed(), permutation);
+		Entry e = entry(pkCanonical);
+		return pkCanonical == hand.packed() ? e.meldSet : MeldSet.ofPacked(PackedMeldSet.permuted(e.pkMeldSet, permutation));
+	}
+
+	/**
+	 * Returns the entry of the given hand, computing it if it is not cached
+	 */
+	private Entry entry(long pkHand) {
+		lookups.increment();
+		int first = (int)((pkHand * HASH_MULTIPLIER) >>> shift) * BUCKET_SIZE;
+		Entry head = entries.get(first);
+		if(head != null && head.pkHand == pkHand) {
+			hits.increment();
+			return head;
+		}
+		Entry second = entries.get(first + 1);
+		if(second != null && second.pkHand == pkHand) {
+			hits.increment();
+			return second;
+		}
+		Entry e = new Entry(pkHand, PackedMeldSet.bestIn(pkHand));
+		entries.set(first + 1, head);
+		entries.set(first, e);
+		return e;
+	}
+
+	/**
+	 * Returns the number of hands looked up since the creation of the cache
+	 */
+	public long lookups() {
+		return lookups.sum();
+	}
+
+	/**
+	 * Returns the number of hands looked up and found in the cache
+	 */
+	public long hits() {
+		return hits.sum();
+	}
+
+	/**
+	 * Returns the proportion of the lookups that were found in the cache, 0 before the first lookup
+	 */
+	public double hitRatio() {
+		long l = lookups();
+		return l == 0 ? 0 : (double)hits() / l;
+	}
+
+	/**
+	 * Returns the maximum number of hands of the cache
+	 */
+	public int capacity() {
+		return entries.length();
+	}
+}
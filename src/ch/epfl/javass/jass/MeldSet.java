@@ -3,7 +3,6 @@ package ch.epfl.javass.jass;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -12,6 +11,7 @@ import java.util.StringJoiner;
 public final class MeldSet {
 	
 	  private final Set<Meld> melds;
+	  private final int points;
 
 	  /**
 	   * Method to test if the given collection of melds is mutually disjoint to each other, if they do not contain the same cards
@@ -42,14 +42,61 @@ public final class MeldSet {
 	  }
 	  
 	  /**
-	   * Returns the best meld set possible from a given collection of cards using the MeldSetByPointsComparator
+	   * Returns the best meld set possible from a given collection of cards, the one with the most points
+	   * A hand of at most Jass.HAND_SIZE cards is searched by PackedMeldSet, a larger collection (which can hold more melds than
+	   * a "packed" meld set) through the power set of its melds
 	   * @param hand	given collection of cards representing the hand
 	   * @return		best possible meld set from the given hand
 	   */
 	  public static MeldSet getBestMeldSet(Collection<Card> hand) {
-		  List<MeldSet> melds = MeldSet.allIn(hand);
-		  melds.sort(new MeldSetByPointsComparator());
-		  return melds.get(melds.size()-1);
+		  if (hand.size() > Jass.HAND_SIZE) {
+			  return bestOf(allIn(hand));
+		  }
+		  long pkHand = PackedCardSet.EMPTY;
+		  for (Card c: hand) {
+			  pkHand = PackedCardSet.add(pkHand, c.packed());
+		  }
+		  return ofPacked(PackedMeldSet.bestIn(pkHand));
+	  }
+
+	  /**
+	   * Returns the best meld set possible from a given hand, the one with the most points
+	   * @param hand	given hand
+	   * @return		best possible meld set from the given hand
+	   */
+	  public static MeldSet getBestMeldSet(CardSet hand) {
+		  if (hand.size() > Jass.HAND_SIZE) {
+			  List<Card> cards = new ArrayList<>();
+			  hand.forEach(cards::add);
+			  return bestOf(allIn(cards));
+		  }
+		  return ofPacked(PackedMeldSet.bestIn(hand.packed()));
+	  }
+
+	  /**
+	   * Returns the meld set with the most points among the given ones, which cannot be empty
+	   */
+	  private static MeldSet bestOf(List<MeldSet> meldSets) {
+		  MeldSet best = meldSets.get(0);
+		  for (MeldSet m: meldSets) {
+			  if (m.points() > best.points()) {
+				  best = m;
+			  }
+		  }
+		  return best;
+	  }
+
+	  /**
+	   * Method to create a meld set from a "packed" meld set
+	   * @param pkMeldSet	"packed" meld set, made of mutually disjoint melds
+	   * @return			new MeldSet instance of the melds of the "packed" meld set
+	   */
+	  public static MeldSet ofPacked(long pkMeldSet) {
+		  List<Meld> melds = new ArrayList<>();
+		  for (int i = 0; i < PackedMeldSet.size(pkMeldSet); i++) {
+			  melds.add(Meld.ALL_MELDS.get(PackedMeldSet.meld(pkMeldSet, i)));
+		  }
+		  return new MeldSet(melds);
 	  }
 
 	  /**
@@ -69,6 +116,10 @@ public final class MeldSet {
 	   */
 	  private MeldSet(Collection<Meld> melds) {
 	    this.melds = Collections.unmodifiableSet(new HashSet<>(melds));
+	    int points = 0;
+	    for (Meld m: melds)
+	      points += m.points();
+	    this.points = points;
 	  }
 	  
 	  /**
@@ -82,9 +133,6 @@ public final class MeldSet {
 	   * Returns the total points of all the melds in the meld set
 	   */
 	  public int points() {
-	    int points = 0;
-	    for (Meld m: melds)
-	      points += m.points();
 	    return points;
 	  }
 
@@ -98,14 +146,3 @@ public final class MeldSet {
 	    return String.format("%3d points \n %s", points(), s);
 	  }
 }
-
-/**
- * Comparator used to compare the meld sets to each other
- * Compares the meld sets in regard of the respective points of each
- */
-class MeldSetByPointsComparator implements Comparator<MeldSet> {
-	@Override
-	public int compare(MeldSet m1, MeldSet m2) {
-		return Integer.compare(m1.points(), m2.points());
-	}
-}
\ No newline at end of file
@@ -0,0 +1,342 @@
+package ch.epfl.javass.jass;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import ch.epfl.javass.jass.SearchMetrics.Phase;
+
+/**
+ * @author GARANDEL.Eloi (SCIPER : 300326) / D'ETERNOD.Kilian (SCIPER : 296357)
+ * Monte Carlo tree of a MctsPlayer stored in parallel arrays of primitives instead of node objects
+ * A node is an index in the arrays, the children of a node occupy consecutive indices, reserved when the first one is created,
+ * in the order of the cards of the node's links
+ * The arrays grow up to the capacity of the pool and are kept from one decision to the next, so that a search
+ * creates almost no object; once the pool is full, the search goes on without expanding the tree
+ * With a transposition table, the nodes of a same position reached by different paths share their statistics for the selection
+ */
+final class NodePool {
+
+	private static final int CURIOSITY = 40; // curiosity value of the simulation, the higher it is, the less conservative and more curious the simulation will be
+	private static final int INITIAL_CAPACITY = 1 << 10;
+	private static final int MAX_PATH = Jass.TRICKS_PER_TURN * PlayerId.COUNT + 2; // root, one node per card and a repeated leaf
+
+	private final int capacity;
+	private final PlayerId mctsId;
+	private final RolloutPolicy policy;
+	private final TranspositionTable table; // null if the positions are not shared
+	private final EndgameSolver solver; // null if the turns are always simulated
+	private long tableHand; // hand of the simulated player when the table was filled
+
+	// state of the node
+	private long[] pkScore;
+	private long[] pkUnplayed;
+	private int[] pkTrick;
+	private int[] card; // card that the node represents
+	// links to the children
+	private long[] links; // cards with which the simulation can go further down the node
+	private int[] firstChild;
+	private int[] expanded; // number of children already created
+	// statistics
+	private long[] points;
+	private int[] computed;
+	private long[] hash; // Zobrist hash of the state, only used with a transposition table
+
+	private int size;
+	private int root;
+	private final int[] path = new int[MAX_PATH];
+
+	/**
+	 * Constructor of an empty pool
+	 * @param capacity		maximum number of nodes of the tree
+	 * @param mctsId		PlayerId of the simulated player
+	 * @param tableEntries	number of entries of the transposition table, 0 for no table
+	 * @param policy		policy of the simulated player in the simulations
+	 * @param endgame		number of unplayed cards from which the turns are solved instead of simulated, 0 to always simulate
+	 */
+	NodePool(int capacity, PlayerId mctsId, int tableEntries, RolloutPolicy policy, int endgame) {
+		assert(capacity >= MctsSettings.MIN_TREE_CAPACITY);
+
+		this.capacity = capacity;
+		this.mctsId = mctsId;
+		this.policy = policy;
+		this.table = (tableEntries > 0 ? new TranspositionTable(Math.max(tableEntries, 2)) : null);
+		this.solver = (endgame > 0 ? new EndgameSolver(endgame, mctsId.team()) : null);
+		allocate(Math.min(capacity, INITIAL_CAPACITY));
+	}
+
+	/**
+	 * Allocates or enlarges the arrays to the given length, keeping the existing nodes
+	 */
+	private void allocate(int length) {
+		pkScore = (pkScore == null ? new long[length] : Arrays.copyOf(pkScore, length));
+		pkUnplayed = (pkUnplayed == null ? new long[length] : Arrays.copyOf(pkUnplayed, length));
+		pkTrick = (pkTrick == null ? new int[length] : Arrays.copyOf(pkTrick, length));
+		card = (card == null ? new int[length] : Arrays.copyOf(card, length));
+		links = (links == null ? new long[length] : Arrays.copyOf(links, length));
+		firstChild = (firstChild == null ? new int[length] : Arrays.copyOf(firstChild, length));
+		expanded = (expanded == null ? new int[length] : Arrays.copyOf(expanded, length));
+		points = (points == null ? new long[length] : Arrays.copyOf(points, length));
+		computed = (computed == null ? new int[length] : Arrays.copyOf(computed, length));
+		if(table != null) {
+			hash = (hash == null ? new long[length] : Arrays.copyOf(hash, length));
+		}
+	}
+
+	/**
+	 * Reserves the given number of consecutive nodes, enlarging the arrays if needed
+	 * @return int		index of the first reserved node, -1 if the pool is full
+	 */
+	private int reserve(int count) {
+		if(size + count > capacity) {
+			return -1;
+		}
+		if(size + count > links.length) {
+			allocate((int)Math.min(capacity, Math.max(2L * links.length, size + count)));
+		}
+		int first = size;
+		size += count;
+		return first;
+	}
+
+	/**
+	 * Initializes the node at the given index
+	 */
+	private void init(int node, long score, long unplayed, int trick, int nodeCard, long hand, long nodeHash) {
+		if(table != null) {
+			hash[node] = nodeHash;
+		}
+		pkScore[node] = score;
+		pkUnplayed[node] = unplayed;
+		pkTrick[node] = trick;
+		card[node] = nodeCard;
+		firstChild[node] = -1;
+		expanded[node] = 0;
+		points[node] = 0;
+		computed[node] = 0;
+
+		if(trick == PackedTrick.INVALID) { // when state is terminal, cannot further develop down this node
+			links[node] = PackedCardSet.EMPTY;
+		} else {
+			boolean own = PackedTurnState.nextPlayer(trick) == mctsId;
+			long cards = (own ? PackedCardSet.intersection(unplayed, hand) : PackedCardSet.difference(unplayed, hand));
+			links[node] = PackedTrick.playableCards(trick, cards);
+		}
+	}
+
+	/**
+	 * Empties the pool and creates the root of a new tree
+	 * @param state			state from which the simulated player has to play
+	 * @param playable		"packed" cards of the hand of the simulated player that can be played
+	 * @param hand			"packed" hand of the simulated player
+	 * @throws IllegalStateException	if the pool cannot hold the root and all its children, the search could then never stop
+	 */
+	void reset(TurnState state, long playable, long hand) {
+		if(1 + PackedCardSet.size(playable) > capacity) {
+			throw new IllegalStateException("a tree of " + capacity + " nodes cannot hold a root with " + PackedCardSet.size(playable) + " children");
+		}
+		long unplayed = state.packedUnplayedCards();
+		long rootHash = 0;
+		if(table != null) {
+			// the positions below the root stay valid if the simulated player has the same cards in them
+			if(PackedCardSet.intersection(tableHand, unplayed) != PackedCardSet.intersection(hand, unplayed)) {
+				table.clear();
+			}
+			tableHand = hand;
+			rootHash = Zobrist.hash(state.packedScore(), unplayed, state.packedTrick());
+		}
+		size = 0;
+		root = reserve(1);
+		init(root, state.packedScore(), unplayed, state.packedTrick(), PackedCard.INVALID, playable, rootHash);
+		links[root] = playable; // the statistics of the root children are read in the order of the playable cards
+	}
+
+	/**
+	 * Makes the node reached by playing the given cards from the current root the new root, if its state is the given one
+	 * The rest of the tree stays in the pool until the next reset
+	 * @param state			state of the node searched
+	 * @param played		"packed" card set of the cards played since the state of the current root
+	 * @return boolean		true if the node was found and can be searched, false if the pool has to be reset
+	 */
+	boolean reRoot(TurnState state, long played) {
+		int found = descendant(root, state, played);
+		// a root without children must be able to get them all, otherwise the search could never stop
+		if(found == -1 || (expanded[found] == 0 && size + PackedCardSet.size(links[found]) > capacity)) {
+			return false;
+		}
+		root = found;
+		return true;
+	}
+
+	/**
+	 * Returns the node of the subtree of the given node reached by playing the given cards, if its state is the given one
+	 * @return int		index of the node found, -1 if it was never expanded
+	 */
+	private int descendant(int node, TurnState state, long played) {
+
+		if(played == PackedCardSet.EMPTY) {
+			boolean same = pkScore[node] == state.packedScore() && pkUnplayed[node] == state.packedUnplayedCards() && pkTrick[node] == state.packedTrick();
+			return same ? node : -1;
+		}
+		for(int child = firstChild[node]; child < firstChild[node] + expanded[node]; child++) {
+			if(PackedCardSet.contains(played, card[child])) {
+				int found = descendant(child, state, PackedCardSet.remove(played, card[child]));
+				if(found != -1) {
+					return found;
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the number of nodes used in the pool
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the transposition table of the pool, null if it has none
+	 */
+	TranspositionTable table() {
+		return table;
+	}
+
+	/**
+	 * Returns the number of simulations that went through the root
+	 */
+	int rootComputed() {
+		return computed[root];
+	}
+
+	/**
+	 * Returns true if all the children of the root have been created
+	 */
+	boolean rootFull() {
+		return isFull(root);
+	}
+
+	/**
+	 * Returns the points gathered by the given child of the root
+	 * @param index		index of the child, in the order of the root's links
+	 */
+	long rootChildPoints(int index) {
+		return index < expanded[root] ? points[firstChild[root] + index] : 0;
+	}
+
+	/**
+	 * Returns the simulations done by the given child of the root
+	 * @param index		index of the child, in the order of the root's links
+	 */
+	int rootChildComputed(int index) {
+		return index < expanded[root] ? computed[firstChild[root] + index] : 0;
+	}
+
+	/**
+	 * Returns true if all children of the given node have been created
+	 */
+	private boolean isFull(int node) {
+		return expanded[node] == PackedCardSet.size(links[node]);
+	}
+
+	/**
+	 * Does one simulation: selects the node to expand, adds one of its children, simulates the end of the turn from it
+	 * and adds its points to all the nodes of the path
+	 * @param hand		"packed" hand of the simulated player
+	 * @param rng		random generator used for the simulation
+	 * @param probe		probe timing the phases of the simulation
+	 */
+	void simulate(long hand, SplittableRandom rng, SearchProbe probe) {
+
+		// selection, from the root to the node to expand
+		probe.begin();
+		int depth = 0;
+		int node = root;
+		path[depth++] = node;
+		while(links[node] != PackedCardSet.EMPTY && isFull(node)) {
+			node = bestChild(node);
+			path[depth++] = node;
+		}
+
+		probe.lap(Phase.SELECTION);
+
+		// expansion, the node itself is simulated once more if it cannot have another child
+		int child = addChild(node, hand);
+		path[depth++] = child;
+		probe.lap(Phase.EXPANSION);
+
+		long score = (solver != null && solver.applies(pkUnplayed[child]))
+				? solver.solveRandomDeal(pkScore[child], pkUnplayed[child], pkTrick[child], hand, mctsId, policy, rng)
+				: PackedRollout.randomScore(pkScore[child], pkUnplayed[child], pkTrick[child], hand, mctsId, policy, rng);
+		probe.lap(Phase.SIMULATION);
+		int turnPoints = PackedScore.turnPoints(score, mctsId.team());
+		for(int i = 0; i < depth; i++) {
+			points[path[i]] += turnPoints;
+			computed[path[i]]++;
+			if(table != null) {
+				table.add(hash[path[i]], turnPoints);
+			}
+		}
+		probe.lap(Phase.BACKPROPAGATION);
+		probe.end(depth, child != node);
+	}
+
+	/**
+	 * Returns the child of the given node with the highest score
+	 * The simulations of the root are used for the exploration term at every depth,
+	 * and the statistics of a child are the ones of its position in the transposition table when they are richer
+	 */
+	private int bestChild(int node) {
+
+		double rootLog = 2 * Math.log(computed[root]);
+		int best = firstChild[node];
+		double bestScore = Double.NEGATIVE_INFINITY;
+		for(int child = firstChild[node]; child < firstChild[node] + expanded[node]; child++) {
+			long childPoints = points[child];
+			int childComputed = computed[child];
+			if(table != null) {
+				int entry = table.find(hash[child], childComputed);
+				if(entry != -1 && table.computed(entry) > childComputed) {
+					childPoints = table.points(entry);
+					childComputed = table.computed(entry);
+				}
+			}
+			double score = (double)childPoints / childComputed + CURIOSITY * Math.sqrt(rootLog / childComputed);
+			if(score > bestScore) {
+				best = child;
+				bestScore = score;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Creates the next child of the given node and returns it
+	 * @return int		index of the child created, or of the node itself if it is terminal, full or the pool is full
+	 */
+	private int addChild(int node, long hand) {
+
+		int count = PackedCardSet.size(links[node]);
+		if(expanded[node] == count) {
+			return node;
+		}
+		if(expanded[node] == 0) {
+			int first = reserve(count);
+			if(first == -1) {
+				return node;
+			}
+			firstChild[node] = first;
+		}
+
+		// card corresponds to the position of the child among the links
+		int child = firstChild[node] + expanded[node];
+		int childCard = PackedCardSet.get(links[node], expanded[node]);
+		int trick = PackedTrick.withAddedCard(pkTrick[node], childCard);
+		long score = PackedTurnState.collectedScore(pkScore[node], trick);
+		trick = PackedTurnState.collectedTrick(trick);
+		long childHash = (table == null ? 0 : Zobrist.withCardPlayed(hash[node], pkScore[node], pkTrick[node], childCard, score, trick));
+		init(child, score, PackedCardSet.remove(pkUnplayed[node], childCard), trick, childCard, hand, childHash);
+		expanded[node]++;
+		return child;
+	}
+}
@@ -30,7 +30,14 @@ public final class PacedPlayer implements Player {
 	public Card cardToPlay(TurnState state, CardSet hand) {
 		
 		long time = System.currentTimeMillis(); // catch the current system time
-		Card card = underlyingPlayer.cardToPlay(state, hand);
+		Card card;
+		if(underlyingPlayer instanceof AnytimePlayer) {
+			// the minimum time is given to the player to think instead of being slept
+			long deadline = System.nanoTime() + (long)(minTime * 1e9);
+			card = ((AnytimePlayer)underlyingPlayer).cardToPlay(state, hand, deadline);
+		} else {
+			card = underlyingPlayer.cardToPlay(state, hand);
+		}
 		double remaining = (minTime * 1000) - (System.currentTimeMillis() - time);  // times 1000 because minTime is in second 
 		
 		if(remaining > 0) { // if there is time left before the minimum threshold, wait until then to finish playing
@@ -27,7 +27,7 @@ public final class PackedCard {
 
         // no need to check for color as it is only 2 bits so always under 4
         
-        int rank = Bits32.extract(pkCard, 0, RANK_SIZE);
+        int rank = Bits32.extractUnchecked(pkCard, 0, RANK_SIZE);
         
         boolean rankValid = rank < Card.Rank.COUNT;
         
@@ -54,7 +54,7 @@ public final class PackedCard {
     public static Card.Color color(int pkCard) {
         assert(isValid(pkCard));
         
-        int color = Bits32.extract(pkCard, RANK_SIZE, COLOR_CARD_SIZE); //extract number corresponding to the color
+        int color = Bits32.extractUnchecked(pkCard, RANK_SIZE, COLOR_CARD_SIZE); //extract number corresponding to the color
         return Card.Color.ALL.get(color);
     }
     
@@ -66,7 +66,7 @@ public final class PackedCard {
     public static Card.Rank rank(int pkCard) {
         assert(isValid(pkCard));
         
-        int rank = Bits32.extract(pkCard, 0, RANK_SIZE); // extract number corresponding to the rank
+        int rank = Bits32.extractUnchecked(pkCard, 0, RANK_SIZE); // extract number corresponding to the rank
         return Card.Rank.ALL.get(rank);
     }
 
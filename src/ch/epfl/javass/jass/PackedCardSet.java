@@ -1,9 +1,7 @@
 package ch.epfl.javass.jass;
 
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.StringJoiner;
+import java.util.function.IntConsumer;
 
 import ch.epfl.javass.bits.Bits64;
 import ch.epfl.javass.jass.Card.Color;
@@ -20,8 +18,11 @@ public final class PackedCardSet {
     public static final long ALL_CARDS = 0x1FF01FF01FF01FFL;
     
 	private static final int COLOR_SIZE = 16;
-	private static final Map<Color, Long> subsets = doSubsets();
-	private static final Map<Integer, Long> above = doAbove();
+	private static final long ONES_STEP_8 = 0x0101010101010101L; // lowest bit of each byte
+	private static final long MSBS_STEP_8 = 0x8080808080808080L; // highest bit of each byte
+	private static final byte[] selectInByte = doSelectInByte(); // positions of the bits of each byte, read by get
+	private static final long[] subsets = doSubsets(); // indexed by Color ordinal
+	private static final long[] above = doAbove(); // indexed by "packed" card
 
 	
     
@@ -48,17 +49,16 @@ public final class PackedCardSet {
     public static long trumpAbove(int pkCard) {
         assert(PackedCard.isValid(pkCard));
 
-        return above.get(pkCard);
+        return above[pkCard];
     }
     
-    private static Map<Integer, Long> doAbove() {
+    private static long[] doAbove() {
     	
-    	Map<Integer, Long> map = new HashMap<>();
-        CardSet all = CardSet.ofPacked(ALL_CARDS);
+    	long[] table = new long[PackedCard.INVALID + 1];
         
-    	for(int i = 0; i < all.size(); ++i ) {
+    	for(int pk = first(ALL_CARDS); pk != PackedCard.INVALID; pk = next(ALL_CARDS, pk)) {
     		
-    		Card toDo = all.get(i);
+    		Card toDo = Card.ofPacked(pk);
             long toReturn = EMPTY;
 
             for(int j = 0; j < Rank.COUNT; ++j) {
@@ -66,12 +66,12 @@ public final class PackedCardSet {
             	Card c = Card.of(toDo.color(), Rank.ALL.get(j));
             	
             	if(c.isBetter(toDo.color(), toDo)) {
-            		toReturn = toReturn | CardSet.of(Arrays.asList(c)).packed();
+            		toReturn = toReturn | singleton(c.packed());
             	}
             }
-            map.put(toDo.packed(), toReturn);
+            table[pk] = toReturn;
     	}
-        return map;
+        return table;
     }
  
     /**
@@ -109,19 +109,79 @@ public final class PackedCardSet {
     
     /**
      * Get the n-th card present in the given deck according to the given index
+     * The card is found in constant time (broadword select): the cards of each byte of the set are counted in parallel,
+     * the byte holding the card is the number of bytes whose cumulated count is at most the index,
+     * and the card is then read in a table of the positions of the bits of each byte
      * @param pkCardSet		"packed" card set given
-     * @param index			n-th card of the deck wanted
+     * @param index			n-th card of the deck wanted, smaller than the size of the set
      * @return				"packed" integer representing the card asked
      */
     public static int get(long pkCardSet, int index) {
-    	assert(PackedCardSet.isValid(pkCardSet));
+    	assert(isValid(pkCardSet) && 
+    		   index >= 0 && index < size(pkCardSet));
     	
-    	long cardSet = pkCardSet;
-    	for (int i=0; i < index; i++) {
-    		cardSet = cardSet & ~Long.lowestOneBit(cardSet);
+    	long counts = pkCardSet - ((pkCardSet >>> 1) & 0x5555555555555555L);
+    	counts = (counts & 0x3333333333333333L) + ((counts >>> 2) & 0x3333333333333333L);
+    	counts = (counts + (counts >>> 4)) & 0x0F0F0F0F0F0F0F0FL;
+    	long sums = counts * ONES_STEP_8; // byte i holds the number of cards in bytes 0 to i
+    	
+    	int place = Long.bitCount(((index * ONES_STEP_8 | MSBS_STEP_8) - sums) & MSBS_STEP_8) * Byte.SIZE;
+    	int indexInByte = index - (int)(((sums << Byte.SIZE) >>> place) & 0xFF);
+    	
+		return place + selectInByte[(int)((pkCardSet >>> place) & 0xFF) | indexInByte << Byte.SIZE];
+    }
+    
+    private static byte[] doSelectInByte() {
+    	
+    	byte[] table = new byte[Byte.SIZE << Byte.SIZE];
+    	for(int b = 0; b < 1 << Byte.SIZE; ++b) {
+    		int index = 0;
+    		for(int bit = 0; bit < Byte.SIZE; ++bit) {
+    			if((b & 1 << bit) != 0) {
+    				table[b | index++ << Byte.SIZE] = (byte)bit;
+    			}
+    		}
     	}
+    	return table;
+    }
+    
+    /**
+     * Returns the first card of the card set, to iterate on it with next
+     * @param pkCardSet		"packed" card set given
+     * @return				"packed" smallest card of the set, PackedCard.INVALID if it is empty
+     */
+    public static int first(long pkCardSet) {
+    	assert(isValid(pkCardSet));
+    	
+    	return pkCardSet == EMPTY ? PackedCard.INVALID : Long.numberOfTrailingZeros(pkCardSet);
+    }
+    
+    /**
+     * Returns the card of the card set that comes after the given one, in the order of get, so that
+     * for(int c = first(s); c != PackedCard.INVALID; c = next(s, c)) goes through the set without allocating
+     * @param pkCardSet		"packed" card set given
+     * @param pkCard		"packed" card, in the set or not
+     * @return				"packed" smallest card of the set greater than the given one, PackedCard.INVALID if there is none
+     */
+    public static int next(long pkCardSet, int pkCard) {
+    	assert(isValid(pkCardSet) && 
+    		   PackedCard.isValid(pkCard));
     	
-		return Long.numberOfTrailingZeros(cardSet);
+    	long after = pkCardSet & (-2L << pkCard);
+    	return after == EMPTY ? PackedCard.INVALID : Long.numberOfTrailingZeros(after);
+    }
+    
+    /**
+     * Applies the given action to each card of the card set, in the order of get
+     * @param pkCardSet		"packed" card set given
+     * @param action		action applied to each "packed" card
+     */
+    public static void forEach(long pkCardSet, IntConsumer action) {
+    	assert(isValid(pkCardSet));
+    	
+    	for(long rest = pkCardSet; rest != EMPTY; rest &= rest - 1) {
+    		action.accept(Long.numberOfTrailingZeros(rest));
+    	}
     }
     
     /**
@@ -164,7 +224,7 @@ public final class PackedCardSet {
         assert(isValid(pkCardSet) && 
         	   PackedCard.isValid(pkCard));
         
-        long rightBit = Bits64.extract(pkCardSet, pkCard, 1);
+        long rightBit = Bits64.extractUnchecked(pkCardSet, pkCard, 1);
         
         return rightBit == 1L;    
     }
@@ -230,16 +290,16 @@ public final class PackedCardSet {
     public static long subsetOfColor(long pkCardSet, Card.Color color) {
     	assert(isValid(pkCardSet));
 
-    	return subsets.get(color) & pkCardSet;
+    	return subsets[color.ordinal()] & pkCardSet;
     }
     
-    private static Map<Color, Long> doSubsets(){
+    private static long[] doSubsets(){
     	
-    	Map<Color, Long> map = new HashMap<>();
+    	long[] table = new long[Color.COUNT];
     	for(int i = 0; i < Color.COUNT; ++i) {
-    		map.put(Color.ALL.get(i), Bits64.extract(ALL_CARDS, i * COLOR_SIZE, COLOR_SIZE) << i * COLOR_SIZE);
+    		table[i] = Bits64.extractUnchecked(ALL_CARDS, i * COLOR_SIZE, COLOR_SIZE) << i * COLOR_SIZE;
     	}
-    	return map;	
+    	return table;	
     }
     
     /**
@@ -252,12 +312,8 @@ public final class PackedCardSet {
 
         StringJoiner j = new StringJoiner(",", "{", "}");
         
-        for(int i = 0; i < PackedCardSet.size(pkCardSet); ++i) {
-        	
-            int card = PackedCardSet.get(pkCardSet, i);
-            if(card != 0) {
-                j.add(PackedCard.toString(card));
-            }
+        for(int c = first(pkCardSet); c != PackedCard.INVALID; c = next(pkCardSet, c)) {
+            j.add(PackedCard.toString(c));
         }
         
         return j.toString();
@@ -0,0 +1,172 @@
+package ch.epfl.javass.jass;
+
+import java.util.SplittableRandom;
+
+import ch.epfl.javass.jass.Card.Color;
+import ch.epfl.javass.jass.Card.Rank;
+
+/**
+ * @author GARANDEL.Eloi (SCIPER : 300326) / D'ETERNOD.Kilian (SCIPER : 296357)
+ * Static methods to reason about the hidden hands of a turn: which cards a player cannot have
+ * according to the tricks played so far, and random deals of the unknown cards respecting it
+ * The hands are "packed" card sets stored in arrays indexed by the ordinal of the PlayerId
+ */
+final class PackedDeal {
+
+	private PackedDeal() {}
+
+	private static final int MAX_ATTEMPTS = 32;
+
+	/**
+	 * Exclusions of a deal in which every player can have any unknown card, shared by all the deals (never written)
+	 */
+	static final long[] NO_EXCLUSION = new long[PlayerId.COUNT];
+
+	/**
+	 * Returns the number of cards still in the hand of the given player during the given trick
+	 * @param pkTrick		"packed" trick being played
+	 * @param player		given player
+	 */
+	static int handSize(int pkTrick, PlayerId player) {
+		assert(PackedTrick.isValid(pkTrick));
+
+		int size = Jass.HAND_SIZE - PackedTrick.index(pkTrick);
+		int played = PackedTrick.size(pkTrick);
+		for(int i = 0; i < played; i++) {
+			if(PackedTrick.player(pkTrick, i) == player) {
+				--size;
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Adds to the given exclusions the cards that the players of the given trick cannot have anymore,
+	 * a player that did not follow the base color with a card that is not trump having no card of that color left
+	 * (except the jack of trump, that never has to be played to follow trump)
+	 * @param pkTrick		"packed" trick, possibly not full
+	 * @param excluded		"packed" card sets of the cards each player cannot have, indexed by PlayerId ordinal
+	 */
+	static void addExclusions(int pkTrick, long[] excluded) {
+		assert(PackedTrick.isValid(pkTrick));
+
+		int size = PackedTrick.size(pkTrick);
+		if(size < 2) {
+			return;
+		}
+		Color trump = PackedTrick.trump(pkTrick);
+		Color base = PackedTrick.baseColor(pkTrick);
+
+		for(int i = 1; i < size; i++) {
+			Color played = PackedCard.color(PackedTrick.card(pkTrick, i));
+			if(played != base && (played != trump || base == trump)) {
+				long noMore = PackedCardSet.subsetOfColor(PackedCardSet.ALL_CARDS, base);
+				if(base == trump) {
+					noMore = PackedCardSet.remove(noMore, PackedCard.pack(trump, Rank.JACK));
+				}
+				int player = PackedTrick.player(pkTrick, i).ordinal();
+				excluded[player] = PackedCardSet.union(excluded[player], noMore);
+			}
+		}
+	}
+
+	/**
+	 * Deals randomly the unknown cards to the other players, respecting their hand sizes and, if possible, their exclusions
+	 * The cards that only one player can have are dealt first, then the ones only two players can have, etc.
+	 * If no deal respecting the exclusions is found after a few attempts, they are ignored
+	 * Nothing is allocated, as a deal is made for each simulation of a search
+	 * @param unknown		"packed" card set of the cards whose owner is unknown
+	 * @param sizes			number of unknown cards each player has, indexed by PlayerId ordinal (0 for the known hands)
+	 * @param excluded		"packed" card sets of the cards each player cannot have, indexed by PlayerId ordinal
+	 * @param rng			random generator
+	 * @param hands			array in which the unknown cards of each player are added, indexed by PlayerId ordinal
+	 * 						(the known hands it holds must not contain any unknown card)
+	 * @return boolean		true if the deal respects the exclusions
+	 */
+	static boolean deal(long unknown, int[] sizes, long[] excluded, SplittableRandom rng, long[] hands) {
+		assert(PackedCardSet.isValid(unknown));
+		assert(PackedCardSet.intersection(removeDealt(PackedCardSet.ALL_CARDS, hands), unknown) == unknown);
+
+		for(int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+			if(tryDeal(unknown, sizes, excluded, rng, hands)) {
+				return true;
+			}
+			undeal(unknown, hands);
+		}
+
+		// no deal respects the exclusions, which can happen if they come from an inconsistent history
+		tryDeal(unknown, sizes, NO_EXCLUSION, rng, hands);
+		return false;
+	}
+
+	/**
+	 * Tries once to deal the unknown cards, the most constrained ones first
+	 * The number of cards each player still has to get is the size given minus the unknown cards already in the hand
+	 * @return boolean		true if all the cards could be dealt
+	 */
+	private static boolean tryDeal(long unknown, int[] sizes, long[] excluded, SplittableRandom rng, long[] hands) {
+
+		long cards = unknown;
+		for(int allowedPlayers = 1; allowedPlayers <= PlayerId.COUNT; allowedPlayers++) {
+			for(int card = PackedCardSet.first(cards); card != PackedCard.INVALID; card = PackedCardSet.next(cards, card)) {
+
+				int total = 0;
+				int count = 0;
+				for(int p = 0; p < PlayerId.COUNT; p++) {
+					int left = left(unknown, sizes, hands, p);
+					if(left > 0 && !PackedCardSet.contains(excluded[p], card)) {
+						total += left;
+						++count;
+					}
+				}
+				if(count == 0) {
+					return false;
+				}
+				if(count > allowedPlayers) { // dealt in a later pass
+					continue;
+				}
+
+				// the owner is chosen proportionally to the number of cards each possible player still has to get
+				int chosen = rng.nextInt(total);
+				for(int p = 0; p < PlayerId.COUNT; p++) {
+					int left = left(unknown, sizes, hands, p);
+					if(left > 0 && !PackedCardSet.contains(excluded[p], card)) {
+						chosen -= left;
+						if(chosen < 0) {
+							hands[p] = PackedCardSet.add(hands[p], card);
+							break;
+						}
+					}
+				}
+			}
+			cards = removeDealt(cards, hands);
+		}
+		return cards == PackedCardSet.EMPTY;
+	}
+
+	/**
+	 * Returns the number of unknown cards the given player still has to get
+	 */
+	private static int left(long unknown, int[] sizes, long[] hands, int player) {
+		return sizes[player] - PackedCardSet.size(PackedCardSet.intersection(hands[player], unknown));
+	}
+
+	/**
+	 * Removes the unknown cards dealt from the given hands, which hold the known hands again
+	 */
+	private static void undeal(long unknown, long[] hands) {
+		for(int p = 0; p < PlayerId.COUNT; p++) {
+			hands[p] = PackedCardSet.difference(hands[p], unknown);
+		}
+	}
+
+	/**
+	 * Returns the given cards without the ones present in the given hands
+	 */
+	private static long removeDealt(long cards, long[] hands) {
+		for(long hand : hands) {
+			cards = PackedCardSet.difference(cards, hand);
+		}
+		return cards;
+	}
+}
@@ -0,0 +1,171 @@
+package ch.epfl.javass.jass;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+
+import ch.epfl.javass.Preconditions;
+import ch.epfl.javass.jass.Card.Color;
+
+/**
+ * @author GARANDEL.Eloi (SCIPER : 300326) / D'ETERNOD.Kilian (SCIPER : 296357)
+ * Complete games played without interface on the "packed" score, unplayed cards, trick and hands, for simulations of many games
+ * A game follows JassGame step by step (same deals, same first players, same melds, same end), so that for the same seed and
+ * players (through PackedPlayer.asPlayer) both give the same final score; the players are only asked for their trumps and cards
+ */
+public final class PackedJassGame {
+
+	private static final long SEED_INCREMENT = 0x9E3779B97F4A7C15L;
+
+	private PackedJassGame() {}
+
+	/**
+	 * Plays the given number of games on the given number of threads, each game having its own seed and players
+	 * The games do not depend on the threads playing them, so the same seed always gives the same scores
+	 * @param games							number of games
+	 * @param threads						number of threads playing the games
+	 * @param seed							seed of the first game, from which the seeds of the others are computed by gameSeed
+	 * @param players						returns the new players of the game of a given seed
+	 * @return long[]						"packed" final scores of the games, in their order
+	 * @throws IllegalArgumentException		if the number of games is negative or there is no thread
+	 */
+	public static long[] playAll(int games, int threads, long seed, LongFunction<Map<PlayerId, PackedPlayer>> players) {
+		Preconditions.checkArgument(games >= 0 && threads > 0);
+
+		long[] scores = new long[games];
+		AtomicInteger next = new AtomicInteger();
+		Runnable worker = () -> {
+			for(int i = next.getAndIncrement(); i < games; i = next.getAndIncrement()) {
+				long gameSeed = gameSeed(seed, i);
+				scores[i] = play(gameSeed, players.apply(gameSeed));
+			}
+		};
+		if(threads == 1) {
+			worker.run();
+		} else {
+			ForkJoinPool pool = new ForkJoinPool(threads);
+			List<ForkJoinTask<?>> tasks = new ArrayList<>();
+			for(int t = 0; t < threads; t++) {
+				tasks.add(pool.submit(worker));
+			}
+			for(ForkJoinTask<?> task : tasks) {
+				task.join();
+			}
+			pool.shutdown();
+		}
+		return scores;
+	}
+
+	/**
+	 * Returns the seed of the game of given index among the games played by playAll, to replay it alone (with JassGame for instance)
+	 * @param seed			seed given to playAll
+	 * @param game			index of the game
+	 * @return long			seed of the game
+	 */
+	public static long gameSeed(long seed, int game) {
+		return seed + game * SEED_INCREMENT;
+	}
+
+	/**
+	 * Plays a complete game
+	 * @param rngSeed						seed of the game, as the one of JassGame
+	 * @param players						players of the game, which must not be shared with other games played at the same time
+	 * @return long							"packed" score at the end of the game, the last trick played not being collected as in JassGame
+	 * @throws IllegalArgumentException		if a player is missing
+	 */
+	public static long play(long rngSeed, Map<PlayerId, PackedPlayer> players) {
+		Preconditions.checkArgument(players.keySet().containsAll(PlayerId.ALL));
+
+		PackedPlayer[] ps = new PackedPlayer[PlayerId.COUNT];
+		for(PlayerId p : PlayerId.ALL) {
+			ps[p.ordinal()] = players.get(p);
+		}
+		Random shuffleRng = new Random(new Random(rngSeed).nextLong());
+		int[] deck = new int[PackedCardSet.size(PackedCardSet.ALL_CARDS)];
+		long[] hands = new long[PlayerId.COUNT];
+
+		// JassGame looks for the first player before dealing, so the first turn always begins with PLAYER_1
+		PlayerId first = PlayerId.PLAYER_1;
+		deal(shuffleRng, deck, hands);
+		Color trump = ps[first.ordinal()].chooseTrump(hands[first.ordinal()]);
+		long score = PackedScore.INITIAL;
+		// only the melds of the first turn are counted
+		for(PlayerId p : PlayerId.ALL) {
+			score = PackedScore.meldPoints(score, PackedMeldSet.points(PackedMeldSet.bestIn(hands[p.ordinal()])), p.team());
+		}
+		long unplayed = PackedCardSet.ALL_CARDS;
+		int trick = PackedTrick.firstEmpty(trump, first);
+
+		// each iteration is a call to JassGame.advanceToEndOfNextTrick, which plays a trick and leaves it to be collected by the next one
+		while(!isOver(score)) {
+			if(PackedTurnState.isTerminal(trick)) {
+				score = PackedTurnState.collectedScore(score, trick);
+				deal(shuffleRng, deck, hands);
+				first = PlayerId.ALL.get((first.ordinal() + 1) % PlayerId.COUNT);
+				trump = ps[first.ordinal()].chooseTrump(hands[first.ordinal()]);
+				score = PackedScore.nextTurn(score);
+				unplayed = PackedCardSet.ALL_CARDS;
+				trick = PackedTrick.firstEmpty(trump, first);
+			}
+			score = PackedTurnState.collectedScore(score, trick);
+			trick = PackedTurnState.collectedTrick(trick);
+
+			while(!PackedTrick.isFull(trick)) {
+				int player = PackedTurnState.nextPlayer(trick).ordinal();
+				int card = ps[player].cardToPlay(score, unplayed, trick, hands[player]);
+				assert(PackedCardSet.contains(PackedTrick.playableCards(trick, hands[player]), card));
+
+				trick = PackedTrick.withAddedCard(trick, card);
+				unplayed = PackedCardSet.remove(unplayed, card);
+				hands[player] = PackedCardSet.remove(hands[player], card);
+			}
+		}
+		return score;
+	}
+
+	/**
+	 * Returns the team winning a game ending with the given score, the one with the most points (TEAM_2 in case of a tie, as in JassGame)
+	 * @param pkScore		"packed" score at the end of the game
+	 * @return TeamId		winning team
+	 */
+	public static TeamId winningTeam(long pkScore) {
+		assert(PackedScore.isValid(pkScore));
+
+		return PackedScore.totalPoints(pkScore, TeamId.TEAM_1) > PackedScore.totalPoints(pkScore, TeamId.TEAM_2) ? TeamId.TEAM_1 : TeamId.TEAM_2;
+	}
+
+	/**
+	 * Tests if one of the teams reached the winning points
+	 */
+	private static boolean isOver(long pkScore) {
+		return PackedScore.totalPoints(pkScore, TeamId.TEAM_1) >= Jass.WINNING_POINTS || PackedScore.totalPoints(pkScore, TeamId.TEAM_2) >= Jass.WINNING_POINTS;
+	}
+
+	/**
+	 * Shuffles the deck and deals it as JassGame: the deck holds the cards in their "packed" order and is shuffled
+	 * as Collections.shuffle does it, then each player gets Jass.HAND_SIZE consecutive cards, in the order of the players
+	 */
+	private static void deal(Random shuffleRng, int[] deck, long[] hands) {
+		int size = 0;
+		for(int c = PackedCardSet.first(PackedCardSet.ALL_CARDS); c != PackedCard.INVALID; c = PackedCardSet.next(PackedCardSet.ALL_CARDS, c)) {
+			deck[size++] = c;
+		}
+		for(int i = deck.length; i > 1; i--) {
+			int j = shuffleRng.nextInt(i);
+			int card = deck[i - 1];
+			deck[i - 1] = deck[j];
+			deck[j] = card;
+		}
+		for(int p = 0; p < PlayerId.COUNT; p++) {
+			hands[p] = PackedCardSet.EMPTY;
+			for(int j = 0; j < Jass.HAND_SIZE; j++) {
+				hands[p] = PackedCardSet.add(hands[p], deck[p * Jass.HAND_SIZE + j]);
+			}
+		}
+	}
+}
@@ -0,0 +1,204 @@
+package ch.epfl.javass.jass;
+
+import java.util.List;
+
+import ch.epfl.javass.bits.Bits64;
+
+/**
+ * @author GARANDEL.Eloi (SCIPER : 300326) / D'ETERNOD.Kilian (SCIPER : 296357)
+ * Best set of mutually disjoint melds of a "packed" hand, found with masks on the PackedCardSet layout without creating any object
+ * A "packed" meld set holds the indexes in Meld.ALL_MELDS of its melds, at most three as a hand has nine cards, and their total points
+ */
+public final class PackedMeldSet {
+
+	private PackedMeldSet() {}
+
+	private static final int MELD_SIZE = 7;
+	private static final int POINTS_SIZE = 10;
+
+	public static final int INVALID_MELD = 0b1111111;
+	public static final int MAX_SIZE = 3;
+	private static final int MELDS_SIZE = MELD_SIZE * MAX_SIZE;
+	private static final long MELDS_MASK = Bits64.mask(0, MELDS_SIZE);
+	public static final long EMPTY = MELDS_MASK; // only invalid melds, no points
+
+	private static final int COLOR_SIZE = 16;
+	private static final long COLOR_MASK = Bits64.mask(0, Card.Rank.COUNT);
+	private static final long COLOR_1_CARDS = 0x0001000100010001L; // card of rank 0 in every color
+	private static final long QUARTET_RANKS = Bits64.mask(Card.Rank.NINE.ordinal(), Card.Rank.COUNT - Card.Rank.NINE.ordinal());
+
+	// cards and points of each meld, indexed like Meld.ALL_MELDS
+	private static final long[] meldCards = doMeldCards();
+	private static final int[] meldPoints = doMeldPoints();
+	// indexes of the melds whose lowest card is the given "packed" card
+	private static final int[][] meldsFrom = doMeldsFrom();
+
+	private static long[] doMeldCards() {
+		List<Meld> melds = Meld.ALL_MELDS;
+		assert(melds.size() < INVALID_MELD);
+		long[] cards = new long[melds.size()];
+		for(int i = 0; i < cards.length; i++) {
+			for(Card c : melds.get(i).cards()) {
+				cards[i] = PackedCardSet.add(cards[i], c.packed());
+			}
+		}
+		return cards;
+	}
+
+	private static int[] doMeldPoints() {
+		int[] points = new int[Meld.ALL_MELDS.size()];
+		for(int i = 0; i < points.length; i++) {
+			points[i] = Meld.ALL_MELDS.get(i).points();
+		}
+		return points;
+	}
+
+	private static int[][] doMeldsFrom() {
+		int[][] from = new int[PackedCard.INVALID][];
+		for(int c = 0; c < from.length; c++) {
+			int count = 0;
+			for(long m : meldCards) {
+				count += (Long.numberOfTrailingZeros(m) == c ? 1 : 0);
+			}
+			from[c] = new int[count];
+			count = 0;
+			for(int i = 0; i < meldCards.length; i++) {
+				if(Long.numberOfTrailingZeros(meldCards[i]) == c) {
+					from[c][count++] = i;
+				}
+			}
+		}
+		return from;
+	}
+
+	/**
+	 * Returns the best set of mutually disjoint melds of the given hand, the one with the most points
+	 * @param pkHand		"packed" hand of at most Jass.HAND_SIZE cards, so that it holds at most MAX_SIZE disjoint melds
+	 * @return				"packed" meld set, EMPTY if the hand has no meld
+	 */
+	public static long bestIn(long pkHand) {
+		assert(PackedCardSet.isValid(pkHand) && PackedCardSet.size(pkHand) <= Jass.HAND_SIZE);
+
+		long cards = meldableCards(pkHand);
+		return cards == PackedCardSet.EMPTY ? EMPTY : best(cards);
+	}
+
+	/**
+	 * Returns the cards of the given hand belonging to at least one of its melds, found by shifts and masks
+	 * Every suit of four or five cards is covered by suits of three cards, so only those are searched
+	 */
+	private static long meldableCards(long pkHand) {
+		long suits = pkHand & (pkHand >>> 1) & (pkHand >>> 2); // lowest card of each suit of three, the colors being 16 bits apart
+		long quartets = pkHand & (pkHand >>> COLOR_SIZE) & (pkHand >>> 2 * COLOR_SIZE) & (pkHand >>> 3 * COLOR_SIZE) & QUARTET_RANKS;
+		return pkHand & ((suits | suits << 1 | suits << 2) | quartets * COLOR_1_CARDS);
+	}
+
+	/**
+	 * Best meld set of the given cards: its lowest card is either left out or in one of the melds starting with it that the cards contain
+	 * A hand has at most three melds, so the search stays small and needs no memory
+	 */
+	private static long best(long cards) {
+		if(cards == PackedCardSet.EMPTY) {
+			return EMPTY;
+		}
+		int lowest = Long.numberOfTrailingZeros(cards);
+		long best = best(cards & (cards - 1));
+		for(int m : meldsFrom[lowest]) {
+			if((cards & meldCards[m]) == meldCards[m]) {
+				long withMeld = withAddedMeld(best(cards & ~meldCards[m]), m);
+				if(points(withMeld) > points(best)) {
+					best = withMeld;
+				}
+			}
+		}
+		return best;
+	}
+
+	private static long withAddedMeld(long pkMeldSet, int meld) {
+		assert(size(pkMeldSet) < MAX_SIZE);
+
+		long melds = ((pkMeldSet << MELD_SIZE) | meld) & MELDS_MASK;
+		return melds | (long)(points(pkMeldSet) + meldPoints[meld]) << MELDS_SIZE;
+	}
+
+	/**
+	 * Returns the total points of the melds of the given meld set
+	 * @param pkMeldSet		"packed" meld set
+	 * @return				points of the meld set
+	 */
+	public static int points(long pkMeldSet) {
+		return (int)Bits64.extractUnchecked(pkMeldSet, MELDS_SIZE, POINTS_SIZE);
+	}
+
+	/**
+	 * Returns the number of melds of the given meld set
+	 * @param pkMeldSet		"packed" meld set
+	 * @return				number of melds, between 0 and MAX_SIZE
+	 */
+	public static int size(long pkMeldSet) {
+		int size = 0;
+		while(size < MAX_SIZE && meld(pkMeldSet, size) != INVALID_MELD) {
+			size++;
+		}
+		return size;
+	}
+
+	/**
+	 * Returns the meld of given index of the given meld set
+	 * @param pkMeldSet		"packed" meld set
+	 * @param index			index of the meld in the meld set
+	 * @return				index of the meld in Meld.ALL_MELDS, INVALID_MELD if the meld set has less melds
+	 */
+	public static int meld(long pkMeldSet, int index) {
+		assert(0 <= index && index < MAX_SIZE);
+
+		return (int)Bits64.extractUnchecked(pkMeldSet, index * MELD_SIZE, MELD_SIZE);
+	}
+
+	/**
+	 * Returns all the cards of the melds of the given meld set
+	 * @param pkMeldSet		"packed" meld set
+	 * @return				"packed" set of the cards of the meld set
+	 */
+	public static long cards(long pkMeldSet) {
+		long cards = PackedCardSet.EMPTY;
+		for(int i = 0; i < size(pkMeldSet); i++) {
+			cards |= meldCards[meld(pkMeldSet, i)];
+		}
+		return cards;
+	}
+
+	/**
+	 * Returns the meld set of the given one with its colors permuted, the cards of the color of ordinal i going to the color
+	 * found at index i of the permutation
+	 * The melds of a hand whose colors are permuted are the melds of the hand with the same permutation, with the same points
+	 * @param pkMeldSet		"packed" meld set
+	 * @param permutation	ordinal of the new color of each color, packed as TrumpTable.permutation
+	 * @return				"packed" meld set of the permuted melds
+	 */
+	public static long permuted(long pkMeldSet, int permutation) {
+
+		long permuted = EMPTY;
+		for(int i = size(pkMeldSet) - 1; i >= 0; i--) {
+			long cards = meldCards[meld(pkMeldSet, i)];
+			long moved = PackedCardSet.EMPTY;
+			for(int c = 0; c < Card.Color.COUNT; c++) {
+				moved |= ((cards >>> (c * COLOR_SIZE)) & COLOR_MASK) << (TrumpTable.color(permutation, c) * COLOR_SIZE);
+			}
+			permuted = withAddedMeld(permuted, meldOf(moved));
+		}
+		return permuted;
+	}
+
+	/**
+	 * Returns the index of the meld made of the given cards, which must be the cards of a meld
+	 */
+	private static int meldOf(long cards) {
+		for(int m : meldsFrom[Long.numberOfTrailingZeros(cards)]) {
+			if(meldCards[m] == cards) {
+				return m;
+			}
+		}
+		throw new AssertionError("not the cards of a meld: " + PackedCardSet.toString(cards));
+	}
+}
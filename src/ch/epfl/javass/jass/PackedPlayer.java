@@ -0,0 +1,69 @@
+package ch.epfl.javass.jass;
+
+import java.util.SplittableRandom;
+
+import ch.epfl.javass.jass.Card.Color;
+
+/**
+ * @author GARANDEL.Eloi (SCIPER : 300326) / D'ETERNOD.Kilian (SCIPER : 296357)
+ * Player of a PackedJassGame, which only chooses its trumps and cards from "packed" values and is not notified of anything else
+ * A player may keep a state (a random generator for instance), so each game needs its own players
+ */
+public interface PackedPlayer {
+
+	/**
+	 * Returns the card the player wants to play
+	 * @param pkScore		"packed" score of the turn
+	 * @param pkUnplayed	"packed" unplayed cards of the turn
+	 * @param pkTrick		"packed" trick in which the card is played, not full
+	 * @param pkHand		"packed" hand of the player
+	 * @return int			"packed" card, one of the playable cards of the hand
+	 */
+	abstract int cardToPlay(long pkScore, long pkUnplayed, int pkTrick, long pkHand);
+
+	/**
+	 * Returns the trump the player chooses for the turn it begins
+	 * @param pkHand		"packed" hand of the player
+	 * @return Color		trump of the turn
+	 */
+	abstract Color chooseTrump(long pkHand);
+
+	/**
+	 * Returns a Player choosing the same cards and trumps, so that the player can also play a JassGame
+	 * @return Player		player delegating its choices to this one and ignoring the notifications
+	 */
+	default Player asPlayer() {
+		return new Player() {
+			@Override
+			public Card cardToPlay(TurnState state, CardSet hand) {
+				return Card.ofPacked(PackedPlayer.this.cardToPlay(state.packedScore(), state.packedUnplayedCards(), state.packedTrick(), hand.packed()));
+			}
+
+			@Override
+			public Color chooseTrump(CardSet hand) {
+				return PackedPlayer.this.chooseTrump(hand.packed());
+			}
+		};
+	}
+
+	/**
+	 * Returns a player choosing its cards with the given policy and its trumps at random
+	 * @param policy		policy choosing among the playable cards of the hand
+	 * @param rngSeed		seed of the random generator of the player
+	 * @return PackedPlayer	new player, with its own random generator
+	 */
+	public static PackedPlayer of(RolloutPolicy policy, long rngSeed) {
+		SplittableRandom rng = new SplittableRandom(rngSeed);
+		return new PackedPlayer() {
+			@Override
+			public int cardToPlay(long pkScore, long pkUnplayed, int pkTrick, long pkHand) {
+				return policy.cardToPlay(pkTrick, PackedTrick.playableCards(pkTrick, pkHand), rng);
+			}
+
+			@Override
+			public Color chooseTrump(long pkHand) {
+				return Color.ALL.get(rng.nextInt(Color.COUNT));
+			}
+		};
+	}
+}
@@ -0,0 +1,100 @@
+package ch.epfl.javass.jass;
+
+import java.util.SplittableRandom;
+
+/**
+ * @author GARANDEL.Eloi (SCIPER : 300326) / D'ETERNOD.Kilian (SCIPER : 296357)
+ * Random simulations of the end of a turn working only on the "packed" score, unplayed cards and trick of a TurnState
+ * No object is created while a turn is simulated, so that the simulations of the MctsPlayer do not load the garbage collector
+ */
+public final class PackedRollout {
+
+	private PackedRollout() {}
+
+	/**
+	 * Simulates the end of a turn, the given player playing from its hand and the others from all the other unplayed cards
+	 * The cards are chosen exactly like MctsPlayer always did with TurnState, so a given generator gives the same turn
+	 * @param pkScore		"packed" score of the state from which the turn is simulated
+	 * @param pkUnplayed	"packed" unplayed cards of that state
+	 * @param pkTrick		"packed" trick of that state
+	 * @param pkHand		"packed" hand of the simulated player
+	 * @param mctsId		PlayerId of the simulated player
+	 * @param rng			random generator choosing the cards
+	 * @return long			"packed" score at the end of the turn
+	 */
+	public static long randomScore(long pkScore, long pkUnplayed, int pkTrick, long pkHand, PlayerId mctsId, SplittableRandom rng) {
+		return randomScore(pkScore, pkUnplayed, pkTrick, pkHand, mctsId, RolloutPolicy.RANDOM, rng);
+	}
+
+	/**
+	 * Simulates the end of a turn, the given player playing from its hand according to the given policy
+	 * and the others at random from all the other unplayed cards, their hands being unknown
+	 * @param pkScore		"packed" score of the state from which the turn is simulated
+	 * @param pkUnplayed	"packed" unplayed cards of that state
+	 * @param pkTrick		"packed" trick of that state
+	 * @param pkHand		"packed" hand of the simulated player
+	 * @param mctsId		PlayerId of the simulated player
+	 * @param policy		policy choosing the cards of the simulated player
+	 * @param rng			random generator choosing the cards
+	 * @return long			"packed" score at the end of the turn
+	 */
+	public static long randomScore(long pkScore, long pkUnplayed, int pkTrick, long pkHand, PlayerId mctsId, RolloutPolicy policy, SplittableRandom rng) {
+		assert(PackedScore.isValid(pkScore) && PackedCardSet.isValid(pkUnplayed) && PackedCardSet.isValid(pkHand));
+
+		long ownCards = PackedCardSet.intersection(pkUnplayed, pkHand);
+		long otherCards = PackedCardSet.difference(pkUnplayed, pkHand);
+
+		while(pkTrick != PackedTrick.INVALID) {
+			boolean own = PackedTurnState.nextPlayer(pkTrick) == mctsId;
+			long playable = PackedTrick.playableCards(pkTrick, own ? ownCards : otherCards);
+			int card = (own ? policy : RolloutPolicy.RANDOM).cardToPlay(pkTrick, playable, rng);
+
+			if(own) {
+				ownCards = PackedCardSet.remove(ownCards, card);
+			} else {
+				otherCards = PackedCardSet.remove(otherCards, card);
+			}
+			pkTrick = PackedTrick.withAddedCard(pkTrick, card);
+			pkScore = PackedTurnState.collectedScore(pkScore, pkTrick);
+			pkTrick = PackedTurnState.collectedTrick(pkTrick);
+		}
+		return pkScore;
+	}
+
+	/**
+	 * Simulates the end of a turn on a complete deal, every player playing a random card among its playable ones
+	 * @param pkScore		"packed" score of the state from which the turn is simulated
+	 * @param pkTrick		"packed" trick of that state
+	 * @param hands			"packed" hands of the players, indexed by PlayerId ordinal, emptied by the simulation
+	 * @param rng			random generator choosing the cards
+	 * @return long			"packed" score at the end of the turn
+	 */
+	public static long randomScore(long pkScore, int pkTrick, long[] hands, SplittableRandom rng) {
+		return randomScore(pkScore, pkTrick, hands, RolloutPolicy.RANDOM, rng);
+	}
+
+	/**
+	 * Simulates the end of a turn on a complete deal, every player choosing its card according to the given policy
+	 * @param pkScore		"packed" score of the state from which the turn is simulated
+	 * @param pkTrick		"packed" trick of that state
+	 * @param hands			"packed" hands of the players, indexed by PlayerId ordinal, emptied by the simulation
+	 * @param policy		policy choosing the cards of all the players
+	 * @param rng			random generator choosing the cards
+	 * @return long			"packed" score at the end of the turn
+	 */
+	public static long randomScore(long pkScore, int pkTrick, long[] hands, RolloutPolicy policy, SplittableRandom rng) {
+		assert(PackedScore.isValid(pkScore) && hands.length == PlayerId.COUNT);
+
+		while(pkTrick != PackedTrick.INVALID) {
+			int player = PackedTurnState.nextPlayer(pkTrick).ordinal();
+			long playable = PackedTrick.playableCards(pkTrick, hands[player]);
+			int card = policy.cardToPlay(pkTrick, playable, rng);
+
+			hands[player] = PackedCardSet.remove(hands[player], card);
+			pkTrick = PackedTrick.withAddedCard(pkTrick, card);
+			pkScore = PackedTurnState.collectedScore(pkScore, pkTrick);
+			pkTrick = PackedTurnState.collectedTrick(pkTrick);
+		}
+		return pkScore;
+	}
+}
@@ -31,15 +31,15 @@ public final class PackedScore {
 		return computeValid(pkScore, TeamId.TEAM_1) && computeValid(pkScore, TeamId.TEAM_2);
 	}
 	private static boolean computeValid(long teamScore, TeamId team) {
-		long score = Bits64.extract(teamScore, team.ordinal() * Integer.SIZE, Integer.SIZE);
+		long score = Bits64.extractUnchecked(teamScore, team.ordinal() * Integer.SIZE, Integer.SIZE);
 		int sizeMax = TRICK_SIZE + TURN_POINTS_SIZE + GAME_POINTS_SIZE;
 		
 		if(teamScore  < INITIAL || score >= (1L << sizeMax)) {
             return false;
         }
-        boolean tricks = Bits64.extract(score, 0, TRICK_SIZE) <= Jass.TRICKS_PER_TURN;
-        boolean turn = Bits64.extract(score, TRICK_SIZE, TURN_POINTS_SIZE) <= POINTS_PER_TURN + Jass.MATCH_ADDITIONAL_POINTS;
-        boolean game = Bits64.extract(score, TRICK_SIZE + TURN_POINTS_SIZE, GAME_POINTS_SIZE) <= Jass.WINNING_POINTS * 2; // winning points are 2000 according to the given instructions
+        boolean tricks = Bits64.extractUnchecked(score, 0, TRICK_SIZE) <= Jass.TRICKS_PER_TURN;
+        boolean turn = Bits64.extractUnchecked(score, TRICK_SIZE, TURN_POINTS_SIZE) <= POINTS_PER_TURN + Jass.MATCH_ADDITIONAL_POINTS;
+        boolean game = Bits64.extractUnchecked(score, TRICK_SIZE + TURN_POINTS_SIZE, GAME_POINTS_SIZE) <= Jass.WINNING_POINTS * 2; // winning points are 2000 according to the given instructions
         
         return tricks && turn && game;
 	}
@@ -52,10 +52,21 @@ public final class PackedScore {
 	 * @return			new Score with the points of the meld added to the turn points
 	 */
 	public static long meldPoints(long pkScore, MeldSet melds, TeamId team) {
+		return meldPoints(pkScore, melds.points(), team);
+	}
+	
+	/**
+	 * Method to add the given points of melds to the score of the given team
+	 * @param pkScore	"packed" score value
+	 * @param points	points of the melds
+	 * @param team		team to which the melds belong to
+	 * @return			new Score with the points of the melds added to the game points of the team
+	 */
+	public static long meldPoints(long pkScore, int points, TeamId team) {
 		if(team.equals(TeamId.TEAM_1)) {
 		return pack(PackedScore.turnTricks(pkScore, TeamId.TEAM_1),
 					PackedScore.turnPoints(pkScore, TeamId.TEAM_1), 
-					PackedScore.gamePoints(pkScore, TeamId.TEAM_1) + melds.points(),
+					PackedScore.gamePoints(pkScore, TeamId.TEAM_1) + points,
 					PackedScore.turnTricks(pkScore, TeamId.TEAM_2),
 					PackedScore.turnPoints(pkScore, TeamId.TEAM_2),
 					PackedScore.gamePoints(pkScore, TeamId.TEAM_2));
@@ -65,7 +76,7 @@ public final class PackedScore {
 					PackedScore.gamePoints(pkScore, TeamId.TEAM_1),
 					PackedScore.turnTricks(pkScore, TeamId.TEAM_2),
 					PackedScore.turnPoints(pkScore, TeamId.TEAM_2),
-					PackedScore.gamePoints(pkScore, TeamId.TEAM_2) + melds.points());
+					PackedScore.gamePoints(pkScore, TeamId.TEAM_2) + points);
 		}	
 	}
 	
@@ -111,7 +122,7 @@ public final class PackedScore {
 		assert(isValid(pkScore) &&
 			  (t == TeamId.TEAM_1 || t == TeamId.TEAM_2));
 		
-		return (int) Bits64.extract(pkScore, Integer.SIZE * t.ordinal(), TRICK_SIZE);
+		return (int) Bits64.extractUnchecked(pkScore, Integer.SIZE * t.ordinal(), TRICK_SIZE);
 
 	}
 	
@@ -125,7 +136,7 @@ public final class PackedScore {
 		assert(isValid(pkScore) &&
 			  (t == TeamId.TEAM_1 || t == TeamId.TEAM_2));
 		
-		return (int) Bits64.extract(pkScore, Integer.SIZE * t.ordinal() + TRICK_SIZE, TURN_POINTS_SIZE);
+		return (int) Bits64.extractUnchecked(pkScore, Integer.SIZE * t.ordinal() + TRICK_SIZE, TURN_POINTS_SIZE);
 	}
 
 	/**
@@ -138,7 +149,7 @@ public final class PackedScore {
 		assert(isValid(pkScore) &&
 			  (t == TeamId.TEAM_1 || t == TeamId.TEAM_2));
 		 
-		return (int) Bits64.extract(pkScore, Integer.SIZE * t.ordinal() + TRICK_SIZE + TURN_POINTS_SIZE, GAME_POINTS_SIZE);
+		return (int) Bits64.extractUnchecked(pkScore, Integer.SIZE * t.ordinal() + TRICK_SIZE + TURN_POINTS_SIZE, GAME_POINTS_SIZE);
 	}
 	
 	/**
@@ -1,7 +1,6 @@
 package ch.epfl.javass.jass;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 import java.util.StringJoiner;
 
 import ch.epfl.javass.bits.Bits32;
@@ -21,7 +20,14 @@ public final class PackedTrick {
 	private static final int PLAYER_SIZE = 2; 
 	private static final int CARD_NUMBER = 4;
 	private static final int COLOR_CARD_SIZE = 2;
-	private static final int COLOR_SIZE = 16;
+	private static final int TRUMP_POS = 30;
+	private static final int RANK_SIZE = 4;
+	private static final int BASE_COLOR_BONUS = 16; // added to the strength of the cards of the base color
+	
+	// tables of the rules, indexed by trump ordinal then by "packed" card, PackedCard.INVALID included
+	private static final int[][] strengths = doStrengths(); // -1 for the invalid card, which never wins
+	private static final int[][] points = doPoints(); // 0 for the invalid card
+	private static final long[] trumpJacks = doTrumpJacks(); // "packed" card set of the jack of trump
 
 	
 	/**
@@ -31,21 +37,19 @@ public final class PackedTrick {
 	 */
 	public static boolean isValid(int pkTrick) {
 		
-		int index = Bits32.extract(pkTrick, INDEX_POS, TRICK_SIZE);
+		int index = Bits32.extractUnchecked(pkTrick, INDEX_POS, TRICK_SIZE);
 
 		if(pkTrick == INVALID || !(index >=0 && index < Jass.TRICKS_PER_TURN)) {
 			return false;
 		}
 	
-		int[] cards = new int[TRICK_SIZE];
-		
-		for(int i=0;i<TRICK_SIZE;i++) {
-			cards[i] = Bits32.extract(pkTrick, CARD_SIZE * i, CARD_SIZE);
-		}
-		for(int j = 0; j < cards.length -1; j++) {
-				if(PackedCard.isValid(cards[j+1]) && !PackedCard.isValid(cards[j])) {
-					return false;
-				}
+		// no valid card after an invalid one, checked without an array so that assertions do not allocate
+		for(int j = 0; j < TRICK_SIZE - 1; j++) {
+			int card = Bits32.extractUnchecked(pkTrick, CARD_SIZE * j, CARD_SIZE);
+			int nextCard = Bits32.extractUnchecked(pkTrick, CARD_SIZE * (j + 1), CARD_SIZE);
+			if(PackedCard.isValid(nextCard) && !PackedCard.isValid(card)) {
+				return false;
+			}
 		}
 		return true;
 		
@@ -58,7 +62,7 @@ public final class PackedTrick {
 	 */
 	public static int firstEmpty(Color trump, PlayerId firstPlayer) {
 		
-		return Bits32.pack(PackedCard.INVALID, CARD_SIZE, 
+		return Bits32.packUnchecked(PackedCard.INVALID, CARD_SIZE, 
 				           PackedCard.INVALID, CARD_SIZE, 
 				           PackedCard.INVALID, CARD_SIZE, 
 						   PackedCard.INVALID, CARD_SIZE, 
@@ -81,7 +85,7 @@ public final class PackedTrick {
 		if(isLast(pkTrick)) { // - 1 because index starts at 0 in PackedTrick
 			return INVALID;
 		} else {
-			return Bits32.pack(PackedCard.INVALID, CARD_SIZE, 
+			return Bits32.packUnchecked(PackedCard.INVALID, CARD_SIZE, 
 					           PackedCard.INVALID, CARD_SIZE, 
 					           PackedCard.INVALID, CARD_SIZE, 
 					           PackedCard.INVALID, CARD_SIZE, 
@@ -110,7 +114,8 @@ public final class PackedTrick {
 	public static boolean isEmpty(int pkTrick) {
 		assert(isValid(pkTrick));
 		
-		return PackedTrick.size(pkTrick) == 0;
+		// the cards are added in order, so the trick is empty as long as its first card is invalid
+		return PackedTrick.card(pkTrick, 0) == PackedCard.INVALID;
 	}
 	
 	/**
@@ -121,8 +126,8 @@ public final class PackedTrick {
 	public static boolean isFull(int pkTrick) {
 		assert(isValid(pkTrick));
 		
-		return PackedTrick.size(pkTrick) == CARD_NUMBER ;
-		
+		// the cards are added in order, so the trick is full as soon as its last card is valid
+		return PackedTrick.card(pkTrick, CARD_NUMBER - 1) != PackedCard.INVALID;
 	}
 	/**
 	 * Checks the current size of the given trick, how many cards have been played
@@ -152,8 +157,7 @@ public final class PackedTrick {
 	public static Color trump(int pkTrick) {
 		assert(isValid(pkTrick));
 		
-		int trumpPos = 30;
-		return Card.Color.ALL.get((Bits32.extract(pkTrick, trumpPos, COLOR_CARD_SIZE)));
+		return Card.Color.ALL.get((Bits32.extractUnchecked(pkTrick, TRUMP_POS, COLOR_CARD_SIZE)));
 	}
 	
 	/**
@@ -165,7 +169,7 @@ public final class PackedTrick {
 		assert(isValid(pkTrick));
 		
 		int playerPos = 28;
-		int player = Bits32.extract(pkTrick, playerPos, PLAYER_SIZE);
+		int player = Bits32.extractUnchecked(pkTrick, playerPos, PLAYER_SIZE);
 		
 		return PlayerId.ALL.get((player + index) % PlayerId.COUNT);
 	}
@@ -177,7 +181,7 @@ public final class PackedTrick {
 	public static int index(int pkTrick) {
 		assert(isValid(pkTrick));
 		
-		return Bits32.extract(pkTrick, INDEX_POS, TRICK_SIZE);
+		return Bits32.extractUnchecked(pkTrick, INDEX_POS, TRICK_SIZE);
 	}
 	
 	/**
@@ -188,7 +192,7 @@ public final class PackedTrick {
 	public static int card(int pkTrick, int index) {
 		assert(isValid(pkTrick));
 		
-		return Bits32.extract(pkTrick, index * CARD_SIZE, CARD_SIZE);
+		return Bits32.extractUnchecked(pkTrick, index * CARD_SIZE, CARD_SIZE);
 	}
 	
 	/**
@@ -216,7 +220,7 @@ public final class PackedTrick {
 	 */
 	private static int replace(int pkTrick, int pkCard, int index) {
 		
-		pkTrick &= ~Bits32.mask(index * CARD_SIZE, CARD_SIZE);
+		pkTrick &= ~Bits32.maskUnchecked(index * CARD_SIZE, CARD_SIZE);
 		return pkTrick | (pkCard << index * CARD_SIZE);
 	}
 	
@@ -241,87 +245,56 @@ public final class PackedTrick {
 			  PackedCardSet.isValid(pkHand));
 		
 		int card1 = PackedTrick.card(pkTrick, 0);
-		Color trump = PackedTrick.trump(pkTrick);
-		long trumpToPlay = 0L;
-		long colorToPlay = 0L;
-		int jackOrd = Card.Rank.JACK.ordinal();
-
-		
 		if(card1 == PackedCard.INVALID) { // if first card to play, can play whatever
 			return pkHand;
 		} 
 		
-		Color turnColor = PackedCard.color(card1);
-		long trumpHand = PackedCardSet.subsetOfColor(pkHand, trump);
-		long colorHand = PackedCardSet.subsetOfColor(pkHand, turnColor);
-		
-		// trump cards selection
+		int trump = trumpOrdinal(pkTrick);
+		int turnColor = colorOrdinal(card1);
+		long trumpMask = PackedCardSet.subsetOfColor(PackedCardSet.ALL_CARDS, Color.ALL.get(trump));
+		long trumpHand = pkHand & trumpMask;
+		boolean freeOfTrumps = (trumpHand & ~trumpJacks[trump]) == 0; // no trump, or only the jack, which does not have to be played
 		
-		if(trumpHand == 0 || trumpHand == (1L << (COLOR_SIZE * trump.ordinal() + jackOrd))) {
-			// if no trump or only jack, can play whatever
-			trumpToPlay = trumpHand;			
-		} else {
-			// if trump, only stronger than actual strongest	
-			for(int i = 0; i < PackedCardSet.size(trumpHand);i++) {
-				if(PackedCard.isBetter(trump, PackedCardSet.get(trumpHand, i), getStrongestCardInTrick(pkTrick))) {
-					trumpToPlay = PackedCardSet.add(trumpToPlay, PackedCardSet.get(trumpHand, i));
-				}
-			}
+		if(turnColor == trump) {
+			// all trumps if there is one other than the jack, else any card
+			return freeOfTrumps ? pkHand : trumpHand;
 		}
 		
-		// same color cards selection
+		// trumps stronger than the strongest card, every trump if it is not one
+		int strongest = card(pkTrick, strongestIndex(pkTrick, trump));
+		long trumpToPlay = freeOfTrumps ? trumpHand 
+				: trumpHand & (colorOrdinal(strongest) == trump ? PackedCardSet.trumpAbove(strongest) : trumpMask);
 		
-		if(turnColor.equals(trump)) {
-			// if color same as trump
-			if(trumpHand == 0 || trumpHand == (1L << (COLOR_SIZE * trump.ordinal() + jackOrd))) {
-				// if no trump or only jack can play any
-				colorToPlay = PackedCardSet.difference(pkHand, trumpHand);
-			} else {
-				// else can play all trump
-				trumpToPlay = trumpHand;
-			}
-			
-		} else {
-			
-			if(colorHand == 0){ 
-				// if no card of asked color
-				colorToPlay = PackedCardSet.difference(pkHand, trumpHand);
-			} else { 
-				// if card of asked color, only stronger
-				colorToPlay = PackedCardSet.subsetOfColor(pkHand, turnColor);
-			}
-		}
-		
-		if(colorToPlay == 0 && trumpToPlay == 0) { // obligated to play trump under
-			trumpToPlay = trumpHand;
-		}
+		// the cards of the asked color if there is one, else all the cards that are not trumps
+		long colorHand = pkHand & PackedCardSet.subsetOfColor(PackedCardSet.ALL_CARDS, Color.ALL.get(turnColor));
+		long colorToPlay = (colorHand != 0 ? colorHand : pkHand & ~trumpMask);
 		
-		// combining trump and same color cards selection
-		return trumpToPlay | colorToPlay;
+		long playable = trumpToPlay | colorToPlay;
+		return playable != 0 ? playable : trumpHand; // obligated to play trump under
 	}
 	
 	/**
-	 * Find the strongest card in the given packed trick
+	 * Find the index of the strongest card in the given packed trick, without branching on the colors:
+	 * a card only beats the strongest one if its strength, with the bonus of the base color, is greater
 	 * @param pkTrick		"packed" trick
-	 * @return winningCard  strongest Card
+	 * @param trump			ordinal of the trump of the trick
+	 * @return				index of the strongest card, 0 if the trick is empty
 	 */
-	private static int getStrongestCardInTrick(int pkTrick) {
-		assert(isValid(pkTrick));
+	private static int strongestIndex(int pkTrick, int trump) {
 		
-		Color trump = PackedTrick.trump(pkTrick);
-		List<Integer> list = new ArrayList<>();
+		int[] strength = strengths[trump];
+		int baseColor = colorOrdinal(card(pkTrick, 0));
+		int winningIndex = 0;
+		int winningStrength = -1;
 		for(int i = 0; i < CARD_NUMBER; ++i) {
-			int toAdd = PackedTrick.card(pkTrick, i);
-			list.add(toAdd);
-		}
-		
-		int winningCard = list.get(0);
-		for(int i : list) {
-			if(i != PackedCard.INVALID && PackedCard.isBetter(trump, i, winningCard)) {
-				winningCard = i;
+			int card = card(pkTrick, i);
+			int s = strength[card] | (colorOrdinal(card) == baseColor ? BASE_COLOR_BONUS : 0); // -1 stays -1
+			if(s > winningStrength) {
+				winningIndex = i;
+				winningStrength = s;
 			}
 		}
-		return winningCard;
+		return winningIndex;
 	}
 	
 	/**
@@ -331,18 +304,16 @@ public final class PackedTrick {
 	public static int points(int pkTrick) {
 		assert(isValid(pkTrick));
 		
-		Color trump = PackedTrick.trump(pkTrick);
-		int points = 0;
-
-		for(int i = 0; i < PackedTrick.size(pkTrick); ++i) {
-			int card = PackedTrick.card(pkTrick, i);
-			points += PackedCard.points(trump, card);
+		int[] cardPoints = points[trumpOrdinal(pkTrick)];
+		int total = 0;
+		for(int i = 0; i < CARD_NUMBER; ++i) {
+			total += cardPoints[card(pkTrick, i)];
 		}
 		
 		if(PackedTrick.isLast(pkTrick)) {
-			points += Jass.LAST_TRICK_ADDITIONAL_POINTS; // "5 de der"
+			total += Jass.LAST_TRICK_ADDITIONAL_POINTS; // "5 de der"
 		} 
-		return points;
+		return total;
 	}
 	
 	/**
@@ -353,16 +324,54 @@ public final class PackedTrick {
 	public static PlayerId winningPlayer(int pkTrick) {
 		assert(isValid(pkTrick));
 		
-		int win = PackedTrick.getStrongestCardInTrick(pkTrick);
-		int firstPlayer = PackedTrick.player(pkTrick, 0).ordinal();
+		return PackedTrick.player(pkTrick, strongestIndex(pkTrick, trumpOrdinal(pkTrick)));
+	}
+	
+	/**
+	 * Returns the ordinal of the trump of the trick
+	 */
+	private static int trumpOrdinal(int pkTrick) {
+		return pkTrick >>> TRUMP_POS;
+	}
+	
+	/**
+	 * Returns the ordinal of the color of the given "packed" card, PackedCard.INVALID being of the last color
+	 */
+	private static int colorOrdinal(int pkCard) {
+		return pkCard >>> RANK_SIZE;
+	}
+	
+	private static int[][] doStrengths() {
+		
+		int[][] table = new int[Color.COUNT][PackedCard.INVALID + 1];
+		for(Color trump : Color.ALL) {
+			int[] strength = table[trump.ordinal()];
+			Arrays.fill(strength, -1);
+			PackedCardSet.forEach(PackedCardSet.ALL_CARDS, c -> {
+				Card.Rank rank = PackedCard.rank(c);
+				// trumps above the cards of the base color, which are above the others
+				strength[c] = (PackedCard.color(c) == trump ? 2 * BASE_COLOR_BONUS + rank.trumpOrdinal() : rank.ordinal());
+			});
+		}
+		return table;
+	}
+	
+	private static int[][] doPoints() {
 		
-		List<Integer> list = new ArrayList<>();
-		for(int i = 0; i < 4; ++i) {
-			int toAdd = PackedTrick.card(pkTrick, i);
-			list.add(toAdd);
+		int[][] table = new int[Color.COUNT][PackedCard.INVALID + 1];
+		for(Color trump : Color.ALL) {
+			PackedCardSet.forEach(PackedCardSet.ALL_CARDS, c -> table[trump.ordinal()][c] = PackedCard.points(trump, c));
 		}
+		return table;
+	}
+	
+	private static long[] doTrumpJacks() {
 		
-		return PlayerId.ALL.get((list.indexOf(win) + firstPlayer) % PlayerId.COUNT);
+		long[] table = new long[Color.COUNT];
+		for(Color trump : Color.ALL) {
+			table[trump.ordinal()] = PackedCardSet.singleton(PackedCard.pack(trump, Card.Rank.JACK));
+		}
+		return table;
 	}
 	
 	/**
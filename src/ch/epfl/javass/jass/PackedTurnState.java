@@ -0,0 +1,78 @@
+package ch.epfl.javass.jass;
+
+/**
+ * @author GARANDEL.Eloi (SCIPER : 300326) / D'ETERNOD.Kilian (SCIPER : 296357)
+ * Rules of a TurnState applied directly to its "packed" score, unplayed cards and trick, so that a turn can be played without creating any object
+ * A card is played with PackedTrick.withAddedCard and PackedCardSet.remove, the trick then being collected with collectedScore and collectedTrick
+ */
+public final class PackedTurnState {
+
+	private PackedTurnState() {}
+
+	/**
+	 * Verify that the given values are the valid "packed" components of a turn state
+	 * @param pkScore		"packed" score
+	 * @param pkUnplayed	"packed" unplayed cards
+	 * @param pkTrick		"packed" trick, invalid once the turn is over
+	 * @return				true if valid, false otherwise
+	 */
+	public static boolean isValid(long pkScore, long pkUnplayed, int pkTrick) {
+		return PackedScore.isValid(pkScore) && PackedCardSet.isValid(pkUnplayed) && (pkTrick == PackedTrick.INVALID || PackedTrick.isValid(pkTrick));
+	}
+
+	/**
+	 * Tests if the turn is over, which means that its last trick is full or was collected
+	 * @param pkTrick		"packed" trick of the turn state
+	 * @return				true if the turn is over, false otherwise
+	 */
+	public static boolean isTerminal(int pkTrick) {
+		return pkTrick == PackedTrick.INVALID || (PackedTrick.isFull(pkTrick) && PackedTrick.isLast(pkTrick));
+	}
+
+	/**
+	 * Returns the next player to play in the given trick, which must not be full
+	 * @param pkTrick		"packed" trick of the turn state
+	 * @return				PlayerId of the next player
+	 */
+	public static PlayerId nextPlayer(int pkTrick) {
+		assert(PackedTrick.isValid(pkTrick) && !PackedTrick.isFull(pkTrick));
+
+		return PackedTrick.player(pkTrick, PackedTrick.size(pkTrick));
+	}
+
+	/**
+	 * Returns the score once the given trick is collected, which is the same score as long as the trick is not full
+	 * @param pkScore		"packed" score of the turn state
+	 * @param pkTrick		"packed" trick of the turn state, after the last card was played
+	 * @return				"packed" score with the trick added to the team of its winner if it is full
+	 */
+	public static long collectedScore(long pkScore, int pkTrick) {
+		assert(PackedScore.isValid(pkScore) && PackedTrick.isValid(pkTrick));
+
+		return PackedTrick.isFull(pkTrick) ? PackedScore.withAdditionalTrick(pkScore, PackedTrick.winningPlayer(pkTrick).team(), PackedTrick.points(pkTrick)) : pkScore;
+	}
+
+	/**
+	 * Returns the trick once it is collected, which is the same trick as long as it is not full
+	 * @param pkTrick		"packed" trick of the turn state, after the last card was played
+	 * @return				"packed" next empty trick if it is full, invalid after the last trick of the turn
+	 */
+	public static int collectedTrick(int pkTrick) {
+		assert(PackedTrick.isValid(pkTrick));
+
+		return PackedTrick.isFull(pkTrick) ? PackedTrick.nextEmpty(pkTrick) : pkTrick;
+	}
+
+	/**
+	 * Returns the textual representation of the given turn state
+	 * @param pkScore		"packed" score
+	 * @param pkUnplayed	"packed" unplayed cards
+	 * @param pkTrick		"packed" trick
+	 * @return				String representing the score, the unplayed cards and the trick
+	 */
+	public static String toString(long pkScore, long pkUnplayed, int pkTrick) {
+		assert(isValid(pkScore, pkUnplayed, pkTrick));
+
+		return PackedScore.toString(pkScore) + " " + PackedCardSet.toString(pkUnplayed) + " " + (pkTrick == PackedTrick.INVALID ? "-" : PackedTrick.toString(pkTrick));
+	}
+}
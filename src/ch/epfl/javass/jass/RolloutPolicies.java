@@ -0,0 +1,97 @@
+package ch.epfl.javass.jass;
+
+import ch.epfl.javass.jass.Card.Color;
+
+/**
+ * @author GARANDEL.Eloi (SCIPER : 300326) / D'ETERNOD.Kilian (SCIPER : 296357)
+ * Choices of the built-in rollout policies, on "packed" values and without creating objects
+ */
+final class RolloutPolicies {
+
+	private RolloutPolicies() {}
+
+	private static final int TRUMP_WORTHY_POINTS = 10; // points a trick must be worth to be trumped by a conserving policy
+	private static final int STRENGTH_SCALE = 32; // greater than any strength, so that points come first in the cost
+
+	/**
+	 * Returns the card of the greedy policies
+	 * @param pkTrick			"packed" trick in which the card is played, not full
+	 * @param pkPlayable		"packed" non empty set of the playable cards
+	 * @param conserveTrumps	true to keep the trumps as long as possible
+	 * @return int				"packed" card chosen
+	 */
+	static int greedyCard(int pkTrick, long pkPlayable, boolean conserveTrumps) {
+		assert(pkPlayable != PackedCardSet.EMPTY);
+
+		Color trump = PackedTrick.trump(pkTrick);
+		long nonTrumps = PackedCardSet.difference(pkPlayable, PackedCardSet.subsetOfColor(pkPlayable, trump));
+		long kept = (conserveTrumps && nonTrumps != PackedCardSet.EMPTY ? nonTrumps : pkPlayable);
+
+		int size = PackedTrick.size(pkTrick);
+		if(size == 0) {
+			return strongest(kept, trump);
+		}
+
+		int winningIndex = 0;
+		for(int i = 1; i < size; i++) {
+			if(PackedCard.isBetter(trump, PackedTrick.card(pkTrick, i), PackedTrick.card(pkTrick, winningIndex))) {
+				winningIndex = i;
+			}
+		}
+		boolean partnerWins = (winningIndex == size - 2); // the partner played two cards before
+
+		if(!partnerWins) {
+			long winners = PackedCardSet.EMPTY;
+			int winningCard = PackedTrick.card(pkTrick, winningIndex);
+			for(int c = PackedCardSet.first(pkPlayable); c != PackedCard.INVALID; c = PackedCardSet.next(pkPlayable, c)) {
+				if(PackedCard.isBetter(trump, c, winningCard)) {
+					winners = PackedCardSet.add(winners, c);
+				}
+			}
+			if(conserveTrumps && PackedTrick.baseColor(pkTrick) != trump && PackedTrick.points(pkTrick) < TRUMP_WORTHY_POINTS) {
+				winners = PackedCardSet.difference(winners, PackedCardSet.subsetOfColor(winners, trump));
+			}
+			if(winners != PackedCardSet.EMPTY) {
+				return cheapest(winners, trump);
+			}
+		}
+		return cheapest(kept, trump);
+	}
+
+	/**
+	 * Returns the strength of the given card, trumps being stronger than all the other cards
+	 */
+	private static int strength(int pkCard, Color trump) {
+		Card.Rank rank = PackedCard.rank(pkCard);
+		return PackedCard.color(pkCard) == trump ? Card.Rank.COUNT + rank.trumpOrdinal() : rank.ordinal();
+	}
+
+	/**
+	 * Returns the strongest card of the given non empty set
+	 */
+	private static int strongest(long pkCards, Color trump) {
+		int best = PackedCardSet.first(pkCards);
+		for(int c = PackedCardSet.next(pkCards, best); c != PackedCard.INVALID; c = PackedCardSet.next(pkCards, c)) {
+			if(strength(c, trump) > strength(best, trump)) {
+				best = c;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Returns the card of the given non empty set worth the fewest points, the weakest one among them
+	 */
+	private static int cheapest(long pkCards, Color trump) {
+		int best = PackedCardSet.first(pkCards);
+		int bestCost = Integer.MAX_VALUE;
+		for(int c = best; c != PackedCard.INVALID; c = PackedCardSet.next(pkCards, c)) {
+			int cost = PackedCard.points(trump, c) * STRENGTH_SCALE + strength(c, trump);
+			if(cost < bestCost) {
+				best = c;
+				bestCost = cost;
+			}
+		}
+		return best;
+	}
+}
@@ -0,0 +1,56 @@
+package ch.epfl.javass.jass;
+
+import java.util.SplittableRandom;
+
+import ch.epfl.javass.Preconditions;
+
+/**
+ * @author GARANDEL.Eloi (SCIPER : 300326) / D'ETERNOD.Kilian (SCIPER : 296357)
+ * Way the cards are chosen during the simulations of a MctsPlayer
+ * Implementations work on "packed" values, must not create objects and must be usable by several threads at once
+ */
+@FunctionalInterface
+public interface RolloutPolicy {
+
+	/**
+	 * Policy choosing uniformly among the playable cards, the one of the MctsPlayer before the policies could be chosen
+	 */
+	public static final RolloutPolicy RANDOM = (pkTrick, pkPlayable, rng) -> PackedCardSet.get(pkPlayable, rng.nextInt(PackedCardSet.size(pkPlayable)));
+
+	/**
+	 * Returns the card played during a simulation
+	 * @param pkTrick		"packed" trick in which the card is played, not full
+	 * @param pkPlayable	"packed" non empty set of the cards that can be played
+	 * @param rng			random generator of the simulation
+	 * @return int			"packed" card, one of the playable ones
+	 */
+	abstract int cardToPlay(int pkTrick, long pkPlayable, SplittableRandom rng);
+
+	/**
+	 * Returns a policy that wins the trick with the cheapest card that can do it, unless the partner already wins it,
+	 * and otherwise discards its cheapest card; a leading player plays its strongest card
+	 * @param epsilon					probability of playing a random card instead
+	 * @throws IllegalArgumentException	if epsilon is not between 0 and 1
+	 */
+	public static RolloutPolicy greedy(double epsilon) {
+		Preconditions.checkArgument(epsilon >= 0 && epsilon <= 1);
+
+		return (pkTrick, pkPlayable, rng) -> (epsilon > 0 && rng.nextDouble() < epsilon)
+				? RANDOM.cardToPlay(pkTrick, pkPlayable, rng)
+				: RolloutPolicies.greedyCard(pkTrick, pkPlayable, false);
+	}
+
+	/**
+	 * Returns a greedy policy that keeps its trumps: it does not trump a trick worth less than 10 points,
+	 * discards and leads other colors as long as it has some
+	 * @param epsilon					probability of playing a random card instead
+	 * @throws IllegalArgumentException	if epsilon is not between 0 and 1
+	 */
+	public static RolloutPolicy trumpConserving(double epsilon) {
+		Preconditions.checkArgument(epsilon >= 0 && epsilon <= 1);
+
+		return (pkTrick, pkPlayable, rng) -> (epsilon > 0 && rng.nextDouble() < epsilon)
+				? RANDOM.cardToPlay(pkTrick, pkPlayable, rng)
+				: RolloutPolicies.greedyCard(pkTrick, pkPlayable, true);
+	}
+}
@@ -7,7 +7,7 @@ import ch.epfl.javass.Preconditions;
  */
 public final class Score {
 	
-	private long score;
+	private final long score;
 	public static final Score INITIAL = ofPacked(PackedScore.INITIAL);
 	private static final int POINTS_PER_TURN = 157;
 	
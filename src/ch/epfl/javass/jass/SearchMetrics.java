@@ -0,0 +1,183 @@
+package ch.epfl.javass.jass;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author GARANDEL.Eloi (SCIPER : 300326) / D'ETERNOD.Kilian (SCIPER : 296357)
+ * Statistics of the searches of a MctsPlayer, either of a single decision or summed over all its decisions (and background searches)
+ * since its creation
+ * The threads searching add their counts once their search is over, without locks, and the values can be read at any time
+ */
+public final class SearchMetrics {
+
+	private final LongAdder decisions = new LongAdder();
+	private final LongAdder searches = new LongAdder();
+	private final LongAdder searchNanos = new LongAdder();
+	private final LongAdder iterations = new LongAdder();
+	private final LongAdder nodes = new LongAdder();
+	private final LongAdder allocatedBytes = new LongAdder();
+	private final LongAdder[] phaseNanos = new LongAdder[Phase.COUNT];
+	private final LongAccumulator maxDepth = new LongAccumulator(Math::max, 0);
+
+	/**
+	 * Constructor of empty metrics
+	 */
+	SearchMetrics() {
+		for(int i = 0; i < Phase.COUNT; i++) {
+			phaseNanos[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Adds a search, done for a decision or in the background
+	 * @param nanos			time the search took, from its start to the end of its last thread
+	 * @param decision		true if a card was chosen at the end of the search
+	 */
+	void addSearch(long nanos, boolean decision) {
+		searches.increment();
+		searchNanos.add(nanos);
+		if(decision) {
+			decisions.increment();
+		}
+	}
+
+	/**
+	 * Adds the counts of one thread of a search
+	 * @param threadIterations		simulations done by the thread
+	 * @param threadNodes			nodes created by the thread
+	 * @param threadMaxDepth		deepest path selected by the thread
+	 * @param threadPhaseNanos		time spent by the thread in each phase, indexed by Phase ordinal
+	 * @param threadAllocatedBytes	bytes allocated by the thread during the search, 0 if the JVM does not measure it
+	 */
+	void addThread(long threadIterations, long threadNodes, int threadMaxDepth, long[] threadPhaseNanos, long threadAllocatedBytes) {
+		iterations.add(threadIterations);
+		nodes.add(threadNodes);
+		maxDepth.accumulate(threadMaxDepth);
+		for(int i = 0; i < Phase.COUNT; i++) {
+			phaseNanos[i].add(threadPhaseNanos[i]);
+		}
+		allocatedBytes.add(threadAllocatedBytes);
+	}
+
+	/**
+	 * Adds all the counts of the given metrics, which are no longer modified
+	 * @param other		metrics of a search that is over
+	 */
+	void add(SearchMetrics other) {
+		decisions.add(other.decisions());
+		searches.add(other.searches());
+		searchNanos.add(other.searchNanos());
+		iterations.add(other.iterations());
+		nodes.add(other.nodes());
+		maxDepth.accumulate(other.maxDepth());
+		for(int i = 0; i < Phase.COUNT; i++) {
+			phaseNanos[i].add(other.phaseNanos[i].sum());
+		}
+		allocatedBytes.add(other.allocatedBytes());
+	}
+
+	/**
+	 * Returns the number of cards chosen by a search
+	 */
+	public long decisions() {
+		return decisions.sum();
+	}
+
+	/**
+	 * Returns the number of searches, including the ones done while the other players think
+	 */
+	public long searches() {
+		return searches.sum();
+	}
+
+	/**
+	 * Returns the total time of the searches, in nanoseconds
+	 */
+	public long searchNanos() {
+		return searchNanos.sum();
+	}
+
+	/**
+	 * Returns the number of simulations done by all the threads
+	 */
+	public long iterations() {
+		return iterations.sum();
+	}
+
+	/**
+	 * Returns the number of simulations done per second of search, all threads together
+	 */
+	public double iterationsPerSecond() {
+		long nanos = searchNanos();
+		return nanos == 0 ? 0 : iterations() * 1e9 / nanos;
+	}
+
+	/**
+	 * Returns the number of nodes added to the trees
+	 */
+	public long nodes() {
+		return nodes.sum();
+	}
+
+	/**
+	 * Returns the number of nodes of the deepest path selected, the root included
+	 */
+	public int maxDepth() {
+		return (int)maxDepth.get();
+	}
+
+	/**
+	 * Returns the time spent by all the threads in the given phase of the simulations, in nanoseconds
+	 */
+	public long phaseNanos(Phase phase) {
+		return phaseNanos[phase.ordinal()].sum();
+	}
+
+	/**
+	 * Returns the number of bytes allocated by the threads while searching, 0 if the JVM does not measure it
+	 */
+	public long allocatedBytes() {
+		return allocatedBytes.sum();
+	}
+
+	/**
+	 * Returns the number of bytes allocated per search
+	 */
+	public double allocatedBytesPerSearch() {
+		long count = searches();
+		return count == 0 ? 0 : (double)allocatedBytes() / count;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder b = new StringBuilder();
+		b.append(String.format("%d decisions, %d searches in %.3f s, %d iterations (%.0f/s), %d nodes, max depth %d, %.0f bytes/search",
+				decisions(), searches(), searchNanos() / 1e9, iterations(), iterationsPerSecond(), nodes(), maxDepth(), allocatedBytesPerSearch()));
+		long total = 0;
+		for(Phase p : Phase.ALL) {
+			total += phaseNanos(p);
+		}
+		for(Phase p : Phase.ALL) {
+			b.append(String.format(", %s %.1f%%", p.name().toLowerCase(), total == 0 ? 0 : 100.0 * phaseNanos(p) / total));
+		}
+		return b.toString();
+	}
+
+	/**
+	 * Enumeration of the phases of a simulation
+	 * SELECTION: descent in the tree to the node to expand
+	 * EXPANSION: creation of the new node
+	 * SIMULATION: end of the turn played by the rollout policy or solved
+	 * BACKPROPAGATION: addition of the points to the nodes of the path
+	 */
+	public enum Phase {
+		SELECTION, EXPANSION, SIMULATION, BACKPROPAGATION;
+
+		public static final List<Phase> ALL = Collections.unmodifiableList(Arrays.asList(values()));
+		public static final int COUNT = ALL.size();
+	}
+}
@@ -0,0 +1,103 @@
+package ch.epfl.javass.jass;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import ch.epfl.javass.jass.SearchMetrics.Phase;
+
+/**
+ * @author GARANDEL.Eloi (SCIPER : 300326) / D'ETERNOD.Kilian (SCIPER : 296357)
+ * Counters of the search of one thread, added to the metrics of the player once the search is over
+ * The phases are timed as laps: each call to lap gives the phase the time elapsed since the previous one
+ * The disabled probe does nothing, so that a search without telemetry only pays for the tests of its flag
+ */
+final class SearchProbe {
+
+	/**
+	 * Probe measuring nothing, that can be shared by all the threads
+	 */
+	static final SearchProbe DISABLED = new SearchProbe(null);
+
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+	private final SearchMetrics metrics; // null for the disabled probe
+	private final long[] phaseNanos = new long[Phase.COUNT];
+	private long iterations;
+	private long nodes;
+	private int maxDepth;
+	private long lastLap;
+	private final long startAllocated;
+
+	/**
+	 * Constructor of a probe of the current thread
+	 * @param metrics		metrics to which the counts are added, null for a probe measuring nothing
+	 */
+	private SearchProbe(SearchMetrics metrics) {
+		this.metrics = metrics;
+		this.startAllocated = (metrics == null ? 0 : allocatedBytes());
+	}
+
+	/**
+	 * Returns a probe of the current thread adding its counts to the given metrics, the disabled probe if they are null
+	 */
+	static SearchProbe of(SearchMetrics metrics) {
+		return metrics == null ? DISABLED : new SearchProbe(metrics);
+	}
+
+	/**
+	 * Starts timing a simulation
+	 */
+	void begin() {
+		if(metrics != null) {
+			lastLap = System.nanoTime();
+		}
+	}
+
+	/**
+	 * Gives the time elapsed since the previous lap to the given phase
+	 */
+	void lap(Phase phase) {
+		if(metrics != null) {
+			long now = System.nanoTime();
+			phaseNanos[phase.ordinal()] += now - lastLap;
+			lastLap = now;
+		}
+	}
+
+	/**
+	 * Ends a simulation
+	 * @param depth			number of nodes of the path selected
+	 * @param expanded		true if a node was created
+	 */
+	void end(int depth, boolean expanded) {
+		if(metrics != null) {
+			++iterations;
+			if(expanded) {
+				++nodes;
+			}
+			maxDepth = Math.max(maxDepth, depth);
+		}
+	}
+
+	/**
+	 * Adds the counts of the probe to the metrics, once the search of its thread is over
+	 */
+	void flush() {
+		if(metrics != null) {
+			metrics.addThread(iterations, nodes, maxDepth, phaseNanos, allocatedBytes() - startAllocated);
+		}
+	}
+
+	/**
+	 * Returns the bytes allocated by the current thread since its start, 0 if the JVM does not measure it
+	 */
+	private static long allocatedBytes() {
+		if(THREADS instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean)THREADS;
+			if(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+				return threads.getCurrentThreadAllocatedBytes();
+			}
+		}
+		return 0;
+	}
+}
@@ -0,0 +1,238 @@
+package ch.epfl.javass.jass;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import ch.epfl.javass.jass.SearchMetrics.Phase;
+
+/**
+ * @author GARANDEL.Eloi (SCIPER : 300326) / D'ETERNOD.Kilian (SCIPER : 296357)
+ * Node of a Monte Carlo tree shared by several threads (tree parallelization)
+ * Statistics are updated without locks, children are attached with a compare-and-set on their slot
+ * and a virtual loss is added on the way down so that concurrent descents spread over different branches
+ */
+final class SharedNode {
+
+	private static final int CURIOSITY = 40; // same curiosity value as the nodes of MctsPlayer
+
+	private final TurnState nodeState;
+	private final CardSet remainingLinks;
+	private final Card card;
+	private final AtomicReferenceArray<SharedNode> childNodes;
+	private final AtomicLong points = new AtomicLong();
+	private final AtomicInteger computed = new AtomicInteger();
+	private final AtomicInteger virtualLoss = new AtomicInteger();
+
+	/**
+	 * Constructor of a shared node
+	 * @param state			TurnState of the node
+	 * @param hand			Cards with which the simulation can go further down this node
+	 * @param card			Card that this node represents
+	 * @param mctsId		PlayerId of the simulated player
+	 */
+	SharedNode(TurnState state, CardSet hand, Card card, PlayerId mctsId) {
+
+		this.nodeState = state;
+		this.card = card;
+
+		if(state.isTerminal()) { // when state is terminal, cannot further develop down this node
+			this.remainingLinks = CardSet.EMPTY;
+		} else {
+			this.remainingLinks = MctsPlayer.playableCards(state, hand, state.nextPlayer(), mctsId);
+		}
+		this.childNodes = new AtomicReferenceArray<>(remainingLinks.size());
+	}
+
+	/**
+	 * Getter for the state of the node
+	 */
+	TurnState state() {
+		return nodeState;
+	}
+
+	/**
+	 * Getter for the card that this node represents
+	 */
+	Card card() {
+		return card;
+	}
+
+	/**
+	 * Returns the number of children this node can have
+	 */
+	int childCount() {
+		return childNodes.length();
+	}
+
+	/**
+	 * Returns the child at the given index, null if it was not expanded yet
+	 * @param index		index of the child, in the order of the playable cards
+	 */
+	SharedNode child(int index) {
+		return childNodes.get(index);
+	}
+
+	/**
+	 * Returns the total points gathered by the simulations that went through this node
+	 */
+	long points() {
+		return points.get();
+	}
+
+	/**
+	 * Returns the number of finished simulations that went through this node
+	 */
+	int computed() {
+		return computed.get();
+	}
+
+	/**
+	 * Returns true if all the children of this node have been attached
+	 */
+	boolean isFullyExpanded() {
+		for(int i = 0; i < childNodes.length(); i++) {
+			if(childNodes.get(i) == null) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the node of this subtree reached by playing the given cards, if its state is the given one
+	 * Must not be called while threads are searching the tree
+	 * @param state			state of the node searched
+	 * @param played		"packed" card set of the cards played between this node and the one searched
+	 * @return SharedNode	node found, null if it was never expanded
+	 */
+	SharedNode descendant(TurnState state, long played) {
+
+		if(played == PackedCardSet.EMPTY) {
+			return MctsPlayer.sameState(nodeState, state) ? this : null;
+		}
+		for(int i = 0; i < childNodes.length(); i++) {
+			SharedNode child = childNodes.get(i);
+			if(child != null && PackedCardSet.contains(played, child.card.packed())) {
+				SharedNode found = child.descendant(state, PackedCardSet.remove(played, child.card.packed()));
+				if(found != null) {
+					return found;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Descends the tree from this node, adding a virtual loss to every node visited,
+	 * and expands one new child if possible
+	 * @param path			list to which the nodes from this node (included) to the node to simulate (included) are added
+	 * @param mctsHand		hand of the simulated player
+	 * @param mctsId		PlayerId of the simulated player
+	 * @param probe			probe timing the selection and the expansion
+	 * @return boolean		true if a child was created by this call, false if the path ends on a terminal node
+	 * 						or on a child that another thread attached first
+	 */
+	boolean selectAndExpand(List<SharedNode> path, CardSet mctsHand, PlayerId mctsId, SearchProbe probe) {
+
+		SharedNode toFollow = this;
+		toFollow.virtualLoss.incrementAndGet();
+		path.add(toFollow);
+
+		while(toFollow.childCount() != 0) {
+
+			int slot = toFollow.emptySlot();
+			boolean created = false;
+			SharedNode next;
+			if(slot == -1) {
+				next = toFollow.bestChild();
+			} else {
+				probe.lap(Phase.SELECTION);
+				created = toFollow.expand(slot, mctsHand, mctsId);
+				next = toFollow.childNodes.get(slot);
+				probe.lap(Phase.EXPANSION);
+			}
+
+			next.virtualLoss.incrementAndGet();
+			path.add(next);
+			toFollow = next;
+
+			if(slot != -1) {
+				return created;
+			}
+		}
+		// terminal node reached, it will be simulated once more
+		probe.lap(Phase.SELECTION);
+		return false;
+	}
+
+	/**
+	 * Returns the first empty slot of this node
+	 * @return int		index of the first child not attached yet, -1 if all children exist
+	 */
+	private int emptySlot() {
+
+		for(int i = 0; i < childNodes.length(); i++) {
+			if(childNodes.get(i) == null) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Attaches a new child on the given slot of this node, unless another thread attached one first
+	 * If the race for the slot is lost, the child of the winner stays and is the one followed by the caller
+	 * @param slot			index of the child, empty when it was chosen
+	 * @return boolean		true if the child attached is the one created by this call
+	 */
+	private boolean expand(int slot, CardSet mctsHand, PlayerId mctsId) {
+
+		Card childCard = remainingLinks.get(slot);
+		SharedNode created = new SharedNode(nodeState.withNewCardPlayedAndTrickCollected(childCard), mctsHand, childCard, mctsId);
+		return childNodes.compareAndSet(slot, null, created);
+	}
+
+	/**
+	 * Returns the child with the highest score, virtual losses counting as simulations that brought no points
+	 */
+	private SharedNode bestChild() {
+
+		double parentComputed = computed.get() + virtualLoss.get();
+		SharedNode best = null;
+		double bestScore = Double.NEGATIVE_INFINITY;
+
+		for(int i = 0; i < childNodes.length(); i++) {
+			SharedNode child = childNodes.get(i);
+			double childComputed = child.computed.get() + child.virtualLoss.get();
+			double score;
+			if(childComputed == 0) {
+				score = Double.POSITIVE_INFINITY;
+			} else {
+				score = child.points.get() / childComputed
+						+ CURIOSITY * Math.sqrt(2 * Math.log(parentComputed) / childComputed);
+			}
+			if(best == null || score > bestScore) {
+				best = child;
+				bestScore = score;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Adds the simulated points to all the nodes of the path and removes their virtual loss
+	 * @param path			nodes gone through by the simulation
+	 * @param randomScore	random simulated "packed" score
+	 * @param mctsId		PlayerId of the simulated player
+	 */
+	static void update(List<SharedNode> path, long randomScore, PlayerId mctsId) {
+		int turnPoints = PackedScore.turnPoints(randomScore, mctsId.team());
+		for(SharedNode n : path) {
+			n.points.addAndGet(turnPoints);
+			n.computed.incrementAndGet();
+			n.virtualLoss.decrementAndGet();
+		}
+	}
+}
@@ -0,0 +1,299 @@
+package ch.epfl.javass.jass;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import ch.epfl.javass.Preconditions;
+
+/**
+ * @author GARANDEL.Eloi (SCIPER : 300326) / D'ETERNOD.Kilian (SCIPER : 296357)
+ * Round-robin tournament between entrants, each one being a configuration of players forming a team
+ * Every pair of entrants plays the same number of JassGame, the entrants taking the seats of TEAM_1 in turn, and all the games
+ * of all the pairs are shared by the threads; the seeds of the games and of the players only depend on the seed of the tournament,
+ * so that the results do not depend on the threads
+ * In duplicate mode, each deal is played twice, the entrants swapping their seats, so that the luck of the cards cancels out
+ * in the sum of the two games and the differences of points are measured on these pairs of games
+ */
+public final class Tournament {
+
+	private static final double Z_95 = 1.959964;
+
+	private Tournament() {}
+
+	/**
+	 * Plays a tournament whose games all have different deals, as play with duplicate false
+	 */
+	public static List<Match> play(List<Entrant> entrants, int gamesPerMatch, int threads, long seed) {
+		return play(entrants, gamesPerMatch, threads, seed, false);
+	}
+
+	/**
+	 * Plays a tournament
+	 * @param entrants						entrants of the tournament, at least two
+	 * @param gamesPerMatch					number of games played by each pair of entrants, even in duplicate mode
+	 * @param threads						number of threads playing the games
+	 * @param seed							seed of the tournament, from which the seeds of the games and of the players are computed
+	 * @param duplicate						true if each deal is played twice by a pair of entrants, with their seats swapped
+	 * @return List<Match>					results of the pairs of entrants, in the order of the entrants (0 against 1, 0 against 2, ..., 1 against 2, ...)
+	 * @throws IllegalArgumentException		if there are less than two entrants, no game, an odd number of games in duplicate mode or no thread
+	 */
+	public static List<Match> play(List<Entrant> entrants, int gamesPerMatch, int threads, long seed, boolean duplicate) {
+		Preconditions.checkArgument(entrants.size() >= 2 && gamesPerMatch > 0 && threads > 0 && !(duplicate && gamesPerMatch % 2 == 1));
+
+		List<int[]> pairs = new ArrayList<>();
+		for(int i = 0; i < entrants.size(); i++) {
+			for(int j = i + 1; j < entrants.size(); j++) {
+				pairs.add(new int[] {i, j});
+			}
+		}
+		int games = pairs.size() * gamesPerMatch;
+		long[] scores = new long[games];
+
+		AtomicInteger next = new AtomicInteger();
+		Runnable worker = () -> {
+			for(int i = next.getAndIncrement(); i < games; i = next.getAndIncrement()) {
+				int[] pair = pairs.get(i / gamesPerMatch);
+				Entrant first = entrants.get(pair[0]);
+				Entrant second = entrants.get(pair[1]);
+				// the entrants change seats at each game, so that none of them always begins the first turn
+				boolean swapped = (i % gamesPerMatch) % 2 == 1;
+				// in duplicate mode, the second game of a pair has the seed, so the deals and the seeds of the seats, of the first one
+				long gameSeed = PackedJassGame.gameSeed(seed, duplicate && swapped ? i - 1 : i);
+				scores[i] = playGame(gameSeed, swapped ? second : first, swapped ? first : second);
+			}
+		};
+		if(threads == 1) {
+			worker.run();
+		} else {
+			ForkJoinPool pool = new ForkJoinPool(threads);
+			List<ForkJoinTask<?>> tasks = new ArrayList<>();
+			for(int t = 0; t < threads; t++) {
+				tasks.add(pool.submit(worker));
+			}
+			for(ForkJoinTask<?> task : tasks) {
+				task.join();
+			}
+			pool.shutdown();
+		}
+
+		// the samples of the point difference are the games, or the mean of the two games of each deal in duplicate mode
+		int gamesPerSample = (duplicate ? 2 : 1);
+		List<Match> matches = new ArrayList<>();
+		for(int p = 0; p < pairs.size(); p++) {
+			int wins = 0;
+			double sum = 0, squares = 0;
+			for(int g = 0; g < gamesPerMatch; g += gamesPerSample) {
+				double sample = 0;
+				for(int k = g; k < g + gamesPerSample; k++) {
+					long score = scores[p * gamesPerMatch + k];
+					TeamId team = (k % 2 == 1 ? TeamId.TEAM_2 : TeamId.TEAM_1);
+					wins += (PackedJassGame.winningTeam(score) == team ? 1 : 0);
+					sample += PackedScore.totalPoints(score, team) - PackedScore.totalPoints(score, team.other());
+				}
+				sample /= gamesPerSample;
+				sum += sample;
+				squares += sample * sample;
+			}
+			matches.add(new Match(entrants.get(pairs.get(p)[0]).name(), entrants.get(pairs.get(p)[1]).name(), gamesPerMatch, wins,
+					gamesPerMatch / gamesPerSample, sum, squares));
+		}
+		return Collections.unmodifiableList(matches);
+	}
+
+	/**
+	 * Plays a game of the first entrant, as TEAM_1, against the second one and returns its final "packed" score
+	 */
+	private static long playGame(long gameSeed, Entrant team1, Entrant team2) {
+		SplittableRandom rng = new SplittableRandom(gameSeed);
+		Map<PlayerId, Player> players = new EnumMap<>(PlayerId.class);
+		Map<PlayerId, String> names = new EnumMap<>(PlayerId.class);
+		for(PlayerId p : PlayerId.ALL) {
+			Entrant entrant = (p.team() == TeamId.TEAM_1 ? team1 : team2);
+			players.put(p, entrant.player(p, rng.nextLong()));
+			names.put(p, entrant.name());
+		}
+		JassGame game = new JassGame(new Random(gameSeed), players, names);
+		while(!game.isGameOver()) {
+			game.advanceToEndOfNextTrick();
+		}
+		return game.score().packed();
+	}
+
+	/**
+	 * Creates the players of an entrant, a new one for each seat of each game
+	 */
+	@FunctionalInterface
+	public interface PlayerFactory {
+
+		/**
+		 * Returns a new player
+		 * @param ownId			seat of the player
+		 * @param rngSeed		seed of the player, different for each seat of each game
+		 * @return Player		new player, which is not shared with other games
+		 */
+		abstract Player create(PlayerId ownId, long rngSeed);
+	}
+
+	/**
+	 * Immutable entrant of a tournament, named configuration of the players of a team
+	 */
+	public static final class Entrant {
+
+		private final String name;
+		private final PlayerFactory factory;
+
+		private Entrant(String name, PlayerFactory factory) {
+			this.name = name;
+			this.factory = factory;
+		}
+
+		/**
+		 * Returns an entrant
+		 * @param name			name of the entrant, used in the results
+		 * @param factory		creates the players of the entrant
+		 * @return Entrant		new entrant
+		 */
+		public static Entrant of(String name, PlayerFactory factory) {
+			return new Entrant(name, factory);
+		}
+
+		/**
+		 * Returns the name of the entrant
+		 */
+		public String name() {
+			return name;
+		}
+
+		/**
+		 * Returns a new player of the entrant
+		 * @param ownId			seat of the player
+		 * @param rngSeed		seed of the player
+		 * @return Player		new player
+		 */
+		public Player player(PlayerId ownId, long rngSeed) {
+			return factory.create(ownId, rngSeed);
+		}
+	}
+
+	/**
+	 * Immutable results of the games played by a pair of entrants, from the point of view of the first one,
+	 * with 95% confidence intervals (Wilson interval for the win rate, normal one for the point difference, computed
+	 * on the differences of the pairs of games in duplicate mode)
+	 */
+	public static final class Match {
+
+		private final String first;
+		private final String second;
+		private final int games;
+		private final int wins;
+		private final int samples;
+		private final double meanDifference;
+		private final double differenceMargin;
+
+		private Match(String first, String second, int games, int wins, int samples, double differenceSum, double differenceSquares) {
+			this.first = first;
+			this.second = second;
+			this.games = games;
+			this.wins = wins;
+			this.samples = samples;
+			this.meanDifference = differenceSum / samples;
+			double variance = (samples > 1 ? Math.max(0, (differenceSquares - differenceSum * meanDifference) / (samples - 1)) : 0);
+			this.differenceMargin = Z_95 * Math.sqrt(variance / samples);
+		}
+
+		/**
+		 * Returns the name of the first entrant
+		 */
+		public String first() {
+			return first;
+		}
+
+		/**
+		 * Returns the name of the second entrant
+		 */
+		public String second() {
+			return second;
+		}
+
+		/**
+		 * Returns the number of games played
+		 */
+		public int games() {
+			return games;
+		}
+
+		/**
+		 * Returns the number of independent samples of the point difference, the games or the deals in duplicate mode
+		 */
+		public int samples() {
+			return samples;
+		}
+
+		/**
+		 * Returns the number of games won by the first entrant
+		 */
+		public int wins() {
+			return wins;
+		}
+
+		/**
+		 * Returns the ratio of the games won by the first entrant
+		 */
+		public double winRate() {
+			return (double)wins / games;
+		}
+
+		/**
+		 * Returns the lower bound of the 95% confidence interval of the win rate
+		 */
+		public double winRateLow() {
+			return wilsonCenter() - wilsonMargin();
+		}
+
+		/**
+		 * Returns the upper bound of the 95% confidence interval of the win rate
+		 */
+		public double winRateHigh() {
+			return wilsonCenter() + wilsonMargin();
+		}
+
+		/**
+		 * Returns the mean, per game, of the points of the first entrant minus the ones of the second
+		 */
+		public double meanPointDifference() {
+			return meanDifference;
+		}
+
+		/**
+		 * Returns the half width of the 95% confidence interval of the mean point difference
+		 */
+		public double pointDifferenceMargin() {
+			return differenceMargin;
+		}
+
+		private double wilsonCenter() {
+			double z2n = Z_95 * Z_95 / games;
+			return (winRate() + z2n / 2) / (1 + z2n);
+		}
+
+		private double wilsonMargin() {
+			double z2n = Z_95 * Z_95 / games;
+			double p = winRate();
+			return Z_95 * Math.sqrt(p * (1 - p) / games + z2n / (4 * games)) / (1 + z2n);
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s vs %s: %d games (%d samples), win rate %.3f [%.3f, %.3f], point difference %+.1f +- %.1f",
+					first, second, games, samples, winRate(), winRateLow(), winRateHigh(), meanDifference, differenceMargin);
+		}
+	}
+}
@@ -0,0 +1,140 @@
+package ch.epfl.javass.jass;
+
+import java.util.Arrays;
+
+/**
+ * @author GARANDEL.Eloi (SCIPER : 300326) / D'ETERNOD.Kilian (SCIPER : 296357)
+ * Bounded table of the statistics of the positions reached by a Monte Carlo search, keyed by their Zobrist hash,
+ * so that the nodes of different paths leading to the same position share their simulations
+ * The table is made of buckets of two entries; when both are taken by other positions, the entry with
+ * the fewest simulations is replaced, the most simulated positions being the most useful ones to share
+ * Used by a single thread, its counters can be read by others between searches
+ */
+final class TranspositionTable {
+
+	private static final int BUCKET_SIZE = 2;
+
+	private final int mask;
+	private final long[] keys;
+	private final long[] points;
+	private final int[] computed; // 0 for an empty entry
+
+	private long lookups;
+	private long hits;
+	private long shared;
+	private long replacements;
+
+	/**
+	 * Constructor of an empty table
+	 * @param entries		maximum number of positions, rounded up to a power of two
+	 */
+	TranspositionTable(int entries) {
+		assert(entries >= BUCKET_SIZE);
+
+		int size = Integer.highestOneBit(entries - 1) << 1;
+		this.mask = size - 1;
+		this.keys = new long[size];
+		this.points = new long[size];
+		this.computed = new int[size];
+	}
+
+	/**
+	 * Returns the entry of the given position
+	 * @param key			Zobrist hash of the position
+	 * @param ownComputed	simulations done by the node looking the position up, to count the transpositions
+	 * @return int			index of the entry, -1 if the position is not in the table
+	 */
+	int find(long key, int ownComputed) {
+		++lookups;
+		int first = (int)key & mask & ~(BUCKET_SIZE - 1);
+		for(int i = first; i < first + BUCKET_SIZE; i++) {
+			if(computed[i] != 0 && keys[i] == key) {
+				++hits;
+				if(computed[i] > ownComputed) {
+					++shared;
+				}
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Adds a simulation to the given position, inserting it if needed
+	 * @param key			Zobrist hash of the position
+	 * @param turnPoints	points of the simulation
+	 */
+	void add(long key, int turnPoints) {
+		int first = (int)key & mask & ~(BUCKET_SIZE - 1);
+		int target = -1;
+		for(int i = first; i < first + BUCKET_SIZE; i++) {
+			if(computed[i] != 0 && keys[i] == key) {
+				target = i;
+				break;
+			}
+			if(target == -1 || computed[i] < computed[target]) {
+				target = i; // empty or least simulated entry of the bucket
+			}
+		}
+		if(keys[target] != key || computed[target] == 0) {
+			if(computed[target] != 0) {
+				++replacements;
+			}
+			keys[target] = key;
+			points[target] = 0;
+			computed[target] = 0;
+		}
+		points[target] += turnPoints;
+		computed[target]++;
+	}
+
+	/**
+	 * Returns the total points of the simulations of the given entry
+	 */
+	long points(int entry) {
+		return points[entry];
+	}
+
+	/**
+	 * Returns the number of simulations of the given entry
+	 */
+	int computed(int entry) {
+		return computed[entry];
+	}
+
+	/**
+	 * Removes all the positions, the counters are kept
+	 */
+	void clear() {
+		Arrays.fill(computed, 0);
+	}
+
+	/**
+	 * Returns the number of positions looked up
+	 */
+	long lookups() {
+		return lookups;
+	}
+
+	/**
+	 * Returns the number of positions looked up and found
+	 */
+	long hits() {
+		return hits;
+	}
+
+	/**
+	 * Returns the number of positions found with more simulations than the node looking them up,
+	 * i.e. whose statistics were enriched by other paths
+	 */
+	long shared() {
+		return shared;
+	}
+
+	/**
+	 * Returns the number of positions removed to make room for others
+	 */
+	long replacements() {
+		return replacements;
+	}
+}
@@ -8,7 +8,7 @@ import ch.epfl.javass.jass.Card.Color;
  */
 public final class Trick {
 	
-	private int trick;
+	private final int trick;
 	public final static Trick INVALID = new Trick(PackedTrick.INVALID);
 	
 	/**
@@ -0,0 +1,113 @@
+package ch.epfl.javass.jass;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import ch.epfl.javass.jass.Card.Color;
+
+/**
+ * @author GARANDEL.Eloi (SCIPER : 300326) / D'ETERNOD.Kilian (SCIPER : 296357)
+ * Evaluation of the trumps a player can choose with a given hand, by simulating turns on random deals of the other cards
+ * The player choosing the trump leads the first trick, as in a JassGame
+ * Every color is simulated on the same sequence of deals, so that their averages differ by the trump rather than by luck,
+ * and the colors are evaluated in parallel since they are independent (the array of the averages being written at distinct indices)
+ */
+final class TrumpEvaluator {
+
+	private TrumpEvaluator() {}
+
+	/**
+	 * Returns the average turn points of the team of the given player for each trump
+	 * @param pkHand		"packed" hand of the player choosing the trump, of Jass.HAND_SIZE cards
+	 * @param chooser		player choosing the trump
+	 * @param deals			maximum number of deals simulated for each trump
+	 * @param deadline		time after which the simulations stop, once Jass.MINIMUM_ITERATIONS deals are simulated for each trump
+	 * @param policy		policy of all the players during the simulations
+	 * @param seed			seed of the deals and simulations
+	 * @param pool			pool evaluating the trumps in parallel, null to evaluate them on the calling thread
+	 * @return double[]		average points indexed by Color ordinal
+	 */
+	static double[] averagePoints(long pkHand, PlayerId chooser, int deals, long deadline, RolloutPolicy policy, long seed, ForkJoinPool pool) {
+		assert(PackedCardSet.size(pkHand) == Jass.HAND_SIZE);
+
+		double[] average = new double[Color.COUNT];
+		int tasks = (pool == null ? 1 : Math.min(pool.getParallelism(), Color.COUNT));
+		if(tasks == 1) {
+			simulate(pkHand, chooser, Color.ALL, deals, deadline, policy, seed, average);
+			return average;
+		}
+
+		// the colors are spread over at most one task per thread, so that none of them waits for the deadline to start
+		List<ForkJoinTask<?>> started = new ArrayList<>();
+		for(int t = 0; t < tasks; t++) {
+			List<Color> trumps = new ArrayList<>();
+			for(int c = t; c < Color.COUNT; c += tasks) {
+				trumps.add(Color.ALL.get(c));
+			}
+			started.add(pool.submit(() -> simulate(pkHand, chooser, trumps, deals, deadline, policy, seed, average)));
+		}
+		for(ForkJoinTask<?> task : started) {
+			task.join();
+		}
+		return average;
+	}
+
+	/**
+	 * Returns the trump with the highest of the given averages
+	 * @param average		average points indexed by Color ordinal
+	 */
+	static Color best(double[] average) {
+		Color best = Color.ALL.get(0);
+		for(Color c : Color.ALL) {
+			if(average[c.ordinal()] > average[best.ordinal()]) {
+				best = c;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Simulates the given trumps deal after deal and writes their average turn points for the team of the given player
+	 * The deals only depend on the seed and the choices of the cards on the seed and the trump,
+	 * so that the averages do not depend on how the trumps are spread over the threads
+	 */
+	private static void simulate(long pkHand, PlayerId chooser, List<Color> trumps, int deals, long deadline, RolloutPolicy policy, long seed, double[] average) {
+
+		SplittableRandom dealRng = new SplittableRandom(seed);
+		SplittableRandom[] playRngs = new SplittableRandom[trumps.size()];
+		int[] tricks = new int[trumps.size()];
+		long[] points = new long[trumps.size()];
+		for(int i = 0; i < trumps.size(); i++) {
+			playRngs[i] = new SplittableRandom(seed ^ (trumps.get(i).ordinal() + 1) * 0x9E3779B97F4A7C15L);
+			tricks[i] = PackedTrick.firstEmpty(trumps.get(i), chooser);
+		}
+
+		long unknown = PackedCardSet.difference(PackedCardSet.ALL_CARDS, pkHand);
+		int[] sizes = new int[PlayerId.COUNT];
+		for(PlayerId p : PlayerId.ALL) {
+			sizes[p.ordinal()] = (p == chooser ? 0 : Jass.HAND_SIZE);
+		}
+		long[] deal = new long[PlayerId.COUNT];
+		long[] hands = new long[PlayerId.COUNT];
+
+		int done = 0;
+		while(done < deals && (done < Jass.MINIMUM_ITERATIONS || System.nanoTime() < deadline)) {
+			for(PlayerId p : PlayerId.ALL) {
+				deal[p.ordinal()] = (p == chooser ? pkHand : PackedCardSet.EMPTY);
+			}
+			PackedDeal.deal(unknown, sizes, PackedDeal.NO_EXCLUSION, dealRng, deal);
+			for(int i = 0; i < trumps.size(); i++) {
+				System.arraycopy(deal, 0, hands, 0, PlayerId.COUNT);
+				long score = PackedRollout.randomScore(PackedScore.INITIAL, tricks[i], hands, policy, playRngs[i]);
+				points[i] += PackedScore.turnPoints(score, chooser.team());
+			}
+			++done;
+		}
+		for(int i = 0; i < trumps.size(); i++) {
+			average[trumps.get(i).ordinal()] = (double)points[i] / done;
+		}
+	}
+}
@@ -0,0 +1,314 @@
+package ch.epfl.javass.jass;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import ch.epfl.javass.Preconditions;
+import ch.epfl.javass.jass.Card.Color;
+
+/**
+ * @author GARANDEL.Eloi (SCIPER : 300326) / D'ETERNOD.Kilian (SCIPER : 296357)
+ * Table of the best trump of every hand, computed offline by TrumpEvaluator and read from a memory-mapped file
+ * As the rules do not favor any color, only the canonical hands are evaluated: the ones whose colors, seen as masks of ranks,
+ * come in decreasing order; any other hand is the image of a canonical one by a permutation of the colors
+ * The table holds two bits (the canonical trump) per hand of Jass.HAND_SIZE cards, at the colex rank of the hand among all of them,
+ * so that a lookup is a constant number of operations; the entries of non canonical hands are left unused
+ * The hands are evaluated by chunks of consecutive ranks, each chunk being marked done in the file once written,
+ * so that the generation can be stopped and resumed
+ */
+public final class TrumpTable {
+
+	private static final int MAGIC = 0x4A545431; // "JTT1"
+	private static final int CARDS = Jass.TRICKS_PER_TURN * PlayerId.COUNT;
+	private static final int RANKS = Card.Rank.COUNT;
+	private static final int RANK_MASK = (1 << RANKS) - 1;
+	private static final int COLOR_BITS = 2; // bits of the ordinal of a color in a permutation
+	private static final int IDENTITY = 0b11_10_01_00; // permutation keeping every color in place
+	private static final int COLOR_SIZE = 16; // bits of a color in a "packed" card set
+	private static final int HANDS_PER_BYTE = 4;
+	private static final int CHUNK_SIZE = 1 << 8; // hands of a chunk, a multiple of HANDS_PER_BYTE
+	private static final long[][] BINOMIAL = binomials();
+	static final long HAND_COUNT = BINOMIAL[CARDS][Jass.HAND_SIZE];
+	private static final int CHUNK_COUNT = (int)((HAND_COUNT + CHUNK_SIZE - 1) / CHUNK_SIZE);
+	private static final int HEADER_SIZE = 4 * Integer.BYTES + Long.BYTES;
+	private static final int DATA_OFFSET = HEADER_SIZE + CHUNK_COUNT; // one byte per chunk, 1 once it is done
+	private static final long FILE_SIZE = DATA_OFFSET + (HAND_COUNT + HANDS_PER_BYTE - 1) / HANDS_PER_BYTE;
+	private static final RolloutPolicy POLICY = RolloutPolicy.greedy(0.1);
+
+	private final MappedByteBuffer buffer;
+
+	/**
+	 * Constructor of a table read from the given mapped file
+	 */
+	private TrumpTable(MappedByteBuffer buffer) {
+		this.buffer = buffer;
+	}
+
+	/**
+	 * Opens the table of the given file, generated (possibly partly) by generate
+	 * @param file							file of the table
+	 * @return TrumpTable					table mapped in memory, read only
+	 * @throws IOException					if the file cannot be read
+	 * @throws IllegalArgumentException		if the file is not a trump table
+	 */
+	public static TrumpTable open(Path file) throws IOException {
+		try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			Preconditions.checkArgument(channel.size() == FILE_SIZE);
+			MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, FILE_SIZE);
+			Preconditions.checkArgument(buffer.getInt(0) == MAGIC);
+			return new TrumpTable(buffer);
+		}
+	}
+
+	/**
+	 * Evaluates the canonical hands of the chunks not done yet in the given file, creating it if needed
+	 * The deals and the seed of the file are the ones given when it was created, so that a resumed generation
+	 * gives the same table as an uninterrupted one
+	 * @param file							file of the table
+	 * @param deals							deals simulated per color and hand, used if the file is created
+	 * @param seed							seed of the simulations, used if the file is created
+	 * @param threads						number of threads evaluating the chunks
+	 * @param maxChunks						maximum number of chunks evaluated by this call
+	 * @return int							number of chunks left to evaluate after this call
+	 * @throws IOException					if the file cannot be created, read or written
+	 * @throws IllegalArgumentException		if the file exists with the size of another file, or if deals, threads or maxChunks are not strictly positive
+	 */
+	public static int generate(Path file, int deals, long seed, int threads, int maxChunks) throws IOException {
+		Preconditions.checkArgument(deals > 0 && threads > 0 && maxChunks > 0);
+
+		try(FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			Preconditions.checkArgument(channel.size() == 0 || channel.size() == FILE_SIZE);
+			MappedByteBuffer buffer = channel.map(MapMode.READ_WRITE, 0, FILE_SIZE);
+			if(buffer.getInt(0) != MAGIC) { // new file, or creation interrupted before the header was complete
+				buffer.putInt(Integer.BYTES, deals);
+				buffer.putLong(2 * Integer.BYTES, seed);
+				buffer.putInt(2 * Integer.BYTES + Long.BYTES, CHUNK_SIZE);
+				buffer.putInt(3 * Integer.BYTES + Long.BYTES, CHUNK_COUNT);
+				buffer.putInt(0, MAGIC); // written last, a file without it is not a table
+				buffer.force();
+			}
+			int fileDeals = buffer.getInt(Integer.BYTES);
+			long fileSeed = buffer.getLong(2 * Integer.BYTES);
+
+			List<Integer> todo = new ArrayList<>();
+			for(int c = 0; c < CHUNK_COUNT; c++) {
+				if(buffer.get(HEADER_SIZE + c) == 0) {
+					todo.add(c);
+				}
+			}
+			int count = Math.min(maxChunks, todo.size());
+
+			// the chunks write distinct bytes of the buffer, and each one is marked done once its entries are forced to the file
+			AtomicInteger next = new AtomicInteger();
+			Runnable worker = () -> {
+				for(int i = next.getAndIncrement(); i < count; i = next.getAndIncrement()) {
+					int chunk = todo.get(i);
+					evaluateChunk(buffer, chunk, fileDeals, fileSeed);
+					synchronized(buffer) {
+						buffer.force();
+						buffer.put(HEADER_SIZE + chunk, (byte)1);
+						buffer.force();
+					}
+				}
+			};
+			if(threads == 1) {
+				worker.run();
+			} else {
+				ForkJoinPool pool = new ForkJoinPool(threads);
+				List<ForkJoinTask<?>> tasks = new ArrayList<>();
+				for(int t = 0; t < threads; t++) {
+					tasks.add(pool.submit(worker));
+				}
+				for(ForkJoinTask<?> task : tasks) {
+					task.join();
+				}
+				pool.shutdown();
+			}
+			return todo.size() - count;
+		}
+	}
+
+	/**
+	 * Returns the best trump of the given hand, or null if its chunk has not been evaluated yet
+	 * @param pkHand						"packed" hand of Jass.HAND_SIZE cards
+	 * @throws IllegalArgumentException		if the hand does not have Jass.HAND_SIZE cards
+	 */
+	public Color trump(long pkHand) {
+		Preconditions.checkArgument(PackedCardSet.isValid(pkHand) && PackedCardSet.size(pkHand) == Jass.HAND_SIZE);
+
+		int permutation = permutation(pkHand);
+		long rank = rank(canonical(pkHand, permutation));
+		if(buffer.get(HEADER_SIZE + (int)(rank / CHUNK_SIZE)) == 0) {
+			return null;
+		}
+		int entry = (buffer.get(DATA_OFFSET + (int)(rank / HANDS_PER_BYTE)) >>> (2 * (int)(rank % HANDS_PER_BYTE))) & 0b11;
+		return Color.ALL.get(color(permutation, entry));
+	}
+
+	/**
+	 * Returns the number of chunks of hands evaluated in the table
+	 */
+	public int chunksDone() {
+		int done = 0;
+		for(int c = 0; c < CHUNK_COUNT; c++) {
+			done += buffer.get(HEADER_SIZE + c);
+		}
+		return done;
+	}
+
+	/**
+	 * Returns the number of chunks of hands of a complete table
+	 */
+	public static int chunkCount() {
+		return CHUNK_COUNT;
+	}
+
+	/**
+	 * Evaluates the canonical hands of the given chunk and writes their trumps in the buffer
+	 */
+	private static void evaluateChunk(ByteBuffer buffer, int chunk, int deals, long seed) {
+
+		long first = (long)chunk * CHUNK_SIZE;
+		long last = Math.min(first + CHUNK_SIZE, HAND_COUNT);
+		int bits = 0;
+		for(long rank = first; rank < last; rank++) {
+			long hand = unrank(rank);
+			if(canonical(hand) == hand) {
+				double[] average = TrumpEvaluator.averagePoints(hand, PlayerId.PLAYER_1, deals, Long.MAX_VALUE, POLICY, seed ^ rank, null);
+				bits |= TrumpEvaluator.best(average).ordinal() << (2 * (int)(rank % HANDS_PER_BYTE));
+			}
+			if(rank % HANDS_PER_BYTE == HANDS_PER_BYTE - 1 || rank == last - 1) {
+				buffer.put(DATA_OFFSET + (int)(rank / HANDS_PER_BYTE), (byte)bits);
+				bits = 0;
+			}
+		}
+	}
+
+	/**
+	 * Returns the canonical hand of the given one, whose colors come by decreasing masks of ranks
+	 * @param pkHand		"packed" hand
+	 * @return long		"packed" canonical hand
+	 */
+	static long canonical(long pkHand) {
+		return canonical(pkHand, permutation(pkHand));
+	}
+
+	/**
+	 * Returns the given hand with its colors permuted
+	 * @param pkHand		"packed" hand
+	 * @param permutation	permutation of the colors, as given by permutation(pkHand) for the canonical hand
+	 * @return long		"packed" hand whose color at each index is the color given by the permutation at that index
+	 */
+	static long canonical(long pkHand, int permutation) {
+
+		long canonical = PackedCardSet.EMPTY;
+		for(int i = 0; i < Color.COUNT; i++) {
+			canonical |= (long)mask(pkHand, color(permutation, i)) << (i * COLOR_SIZE);
+		}
+		return canonical;
+	}
+
+	/**
+	 * Returns the permutation of the colors giving the canonical hand of the given one, packed in an int so that no array is allocated
+	 * @param pkHand		"packed" hand
+	 * @return int			ordinal of the color of the hand that is at each index i in the canonical hand, in the bits 2i and 2i + 1
+	 */
+	static int permutation(long pkHand) {
+
+		int permutation = IDENTITY;
+		// insertion sort of the four colors, stable so that equal colors keep their order
+		for(int i = 1; i < Color.COUNT; i++) {
+			int color = color(permutation, i);
+			int j = i;
+			while(j > 0 && mask(pkHand, color(permutation, j - 1)) < mask(pkHand, color)) {
+				permutation = withColor(permutation, j, color(permutation, j - 1));
+				--j;
+			}
+			permutation = withColor(permutation, j, color);
+		}
+		return permutation;
+	}
+
+	/**
+	 * Returns the ordinal of the color at the given index of the permutation
+	 * @param permutation	permutation of the colors, as given by permutation
+	 * @param index			index in the canonical hand
+	 * @return int			ordinal of the color of the hand at that index
+	 */
+	static int color(int permutation, int index) {
+		return (permutation >>> (index * COLOR_BITS)) & (Color.COUNT - 1);
+	}
+
+	/**
+	 * Returns the permutation with the given color at the given index
+	 */
+	private static int withColor(int permutation, int index, int color) {
+		int shift = index * COLOR_BITS;
+		return (permutation & ~((Color.COUNT - 1) << shift)) | (color << shift);
+	}
+
+	/**
+	 * Returns the colex rank of the given hand of Jass.HAND_SIZE cards among all of them,
+	 * the cards being numbered color by color
+	 */
+	static long rank(long pkHand) {
+		long rank = 0;
+		int k = 0;
+		for(int c = 0; c < Color.COUNT; c++) {
+			int mask = mask(pkHand, c);
+			while(mask != 0) {
+				int position = c * RANKS + Integer.numberOfTrailingZeros(mask);
+				rank += BINOMIAL[position][++k];
+				mask &= mask - 1;
+			}
+		}
+		return rank;
+	}
+
+	/**
+	 * Returns the hand of Jass.HAND_SIZE cards of the given colex rank
+	 */
+	static long unrank(long rank) {
+		long hand = PackedCardSet.EMPTY;
+		int position = CARDS;
+		for(int k = Jass.HAND_SIZE; k > 0; k--) {
+			do {
+				--position;
+			} while(BINOMIAL[position][k] > rank);
+			rank -= BINOMIAL[position][k];
+			hand |= 1L << (position / RANKS * COLOR_SIZE + position % RANKS);
+		}
+		return hand;
+	}
+
+	/**
+	 * Returns the mask of the ranks of the given color in the hand
+	 */
+	private static int mask(long pkHand, int color) {
+		return (int)(pkHand >>> (color * COLOR_SIZE)) & RANK_MASK;
+	}
+
+	/**
+	 * Returns the binomial coefficients C(n, k) for n up to the number of cards and k up to the size of a hand
+	 */
+	private static long[][] binomials() {
+		long[][] binomial = new long[CARDS + 1][Jass.HAND_SIZE + 1];
+		for(int n = 0; n <= CARDS; n++) {
+			binomial[n][0] = 1;
+			for(int k = 1; k <= Math.min(n, Jass.HAND_SIZE); k++) {
+				binomial[n][k] = binomial[n - 1][k - 1] + (k <= n - 1 ? binomial[n - 1][k] : 0);
+			}
+		}
+		return binomial;
+	}
+}
@@ -1,5 +1,6 @@
 package ch.epfl.javass.jass;
 
+import ch.epfl.javass.Preconditions;
 import ch.epfl.javass.jass.Card.Color;
 
 /**
@@ -11,13 +12,20 @@ public final class TurnState {
     private final long pkUnplayedCards;
     private final int pkTrick;
     
+    // wrappers of the "packed" components, created by the first call of their getter and returned by the next ones, so that
+    // the states only used through their "packed" components (the nodes of the trees) do not hold them; two threads may
+    // both create a wrapper, which is harmless as the wrappers are immutable and have final fields
+    private Score score;
+    private Trick trick;
+    private CardSet unplayedCards;
+    
     /**
      * Constructor of TurnState instance
      */
-    private TurnState(Score score, Trick trick, CardSet cardSet) {
-        this.pkScore = score.packed(); 
-        this.pkTrick = trick.packed();
-        this.pkUnplayedCards = cardSet.packed();
+    private TurnState(long pkScore, long pkUnplayedCards, int pkTrick) {
+        this.pkScore = pkScore;
+        this.pkUnplayedCards = pkUnplayedCards;
+        this.pkTrick = pkTrick;
     }
     
     /**
@@ -27,7 +35,7 @@ public final class TurnState {
      * @param firstPlayer	first player to play at the beginning of the match
      */
     public static TurnState initial(Color trump, Score score, PlayerId firstPlayer) {
-        return new TurnState(score, Trick.firstEmpty(trump, firstPlayer), CardSet.ALL_CARDS);
+        return new TurnState(score.packed(), PackedCardSet.ALL_CARDS, PackedTrick.firstEmpty(trump, firstPlayer));
     }
     
     /**
@@ -38,10 +46,9 @@ public final class TurnState {
      */
     public static TurnState ofPackedComponents(long pkScore, long pkUnplayedCards, int pkTrick) {
         
-    	// arguments already tested in their constructor
-        return new TurnState(Score.ofPacked(pkScore),
-        		             Trick.ofPacked(pkTrick), 
-        		             CardSet.ofPacked(pkUnplayedCards));
+    	Preconditions.checkArgument(PackedScore.isValid(pkScore) && PackedCardSet.isValid(pkUnplayedCards) && PackedTrick.isValid(pkTrick));
+    	
+        return new TurnState(pkScore, pkUnplayedCards, pkTrick);
     }
    
     /**
@@ -69,21 +76,37 @@ public final class TurnState {
      * Getter for Score instance of the turn state
      */
     public Score score() {
-        return Score.ofPacked(pkScore); 
+        Score s = score;
+        if(s == null) {
+            s = Score.ofPacked(pkScore);
+            score = s;
+        }
+        return s; 
     }
     
     /**
      * Getter for CardSet instance of the unplayed cards of the turn state
      */
     public CardSet unplayedCards() {
-        return CardSet.ofPacked(pkUnplayedCards); 
+        CardSet c = unplayedCards;
+        if(c == null) {
+            c = CardSet.ofPacked(pkUnplayedCards);
+            unplayedCards = c;
+        }
+        return c; 
     }
 
     /**
      * Getter for Trick instance of the turn state
+     * @throws IllegalArgumentException		if the last trick of the turn was collected, the trick being then invalid
      */
     public Trick trick() {
-        return Trick.ofPacked(pkTrick);
+        Trick t = trick;
+        if(t == null) {
+            t = Trick.ofPacked(pkTrick);
+            trick = t;
+        }
+        return t;
     }
     
     /**
@@ -92,7 +115,7 @@ public final class TurnState {
     public boolean isTerminal() {
     	
     	// if last trick of the turn was played and collected, the next one will be set to an invalid one and detected here
-    	return packedTrick() == PackedTrick.INVALID || (trick().isFull() && trick().isLast());
+    	return PackedTurnState.isTerminal(packedTrick());
    	}
     
     
@@ -100,10 +123,10 @@ public final class TurnState {
      * Returns the next player to play in the turn
      */
     public PlayerId nextPlayer() {
-    	if(trick().isFull()) {
+    	if(pkTrick == PackedTrick.INVALID || PackedTrick.isFull(pkTrick)) {
             throw new IllegalStateException();
         }
-        return trick().player(trick().size());
+        return PackedTurnState.nextPlayer(packedTrick());
     }
 
     /**
@@ -111,24 +134,24 @@ public final class TurnState {
      * @param card		given card to play
      */
     public TurnState withNewCardPlayed(Card card) {
-    	if(trick().isFull() || !PackedCardSet.contains(pkUnplayedCards, card.packed())) {
+    	if(pkTrick == PackedTrick.INVALID || PackedTrick.isFull(pkTrick) || !PackedCardSet.contains(pkUnplayedCards, card.packed())) {
             throw new IllegalStateException();
         }
-    	return new TurnState(score(), 
-	                         trick().withAddedCard(card), 
-	                         unplayedCards().remove(card));
+    	return new TurnState(pkScore, 
+	                         PackedCardSet.remove(pkUnplayedCards, card.packed()), 
+	                         PackedTrick.withAddedCard(pkTrick, card.packed()));
     }
     
     /**
      * Returns a new TurnState instance after the trick was collected
      */
     public TurnState withTrickCollected() {
-        if(!trick().isFull()) {
+        if(pkTrick == PackedTrick.INVALID || !PackedTrick.isFull(pkTrick)) {
             throw new IllegalStateException();
         }
-        return new TurnState(score().withAdditionalTrick(trick().winningPlayer().team(), 
-	                         PackedTrick.points(packedTrick())), 
-	                         trick().nextEmpty(), unplayedCards());
+        return new TurnState(PackedTurnState.collectedScore(pkScore, pkTrick), 
+	                         pkUnplayedCards, 
+	                         PackedTurnState.collectedTrick(pkTrick));
     }
     
     /**
@@ -136,14 +159,15 @@ public final class TurnState {
      * @param card		given card
      */
     public TurnState withNewCardPlayedAndTrickCollected(Card card) {
-    	if(trick().isFull()) {
+    	if(pkTrick == PackedTrick.INVALID || PackedTrick.isFull(pkTrick) || !PackedCardSet.contains(pkUnplayedCards, card.packed())) {
             throw new IllegalStateException();
         }
     	
-    	TurnState evolved = new TurnState(score(), trick(), unplayedCards());
-    	evolved = evolved.withNewCardPlayed(card);
-    	
-    	return (evolved.trick().isFull() ? evolved.withTrickCollected() : evolved);
+    	// played and collected on the "packed" components, so that only the resulting turn state is created
+    	int played = PackedTrick.withAddedCard(pkTrick, card.packed());
+    	return new TurnState(PackedTurnState.collectedScore(pkScore, played),
+    			             PackedCardSet.remove(pkUnplayedCards, card.packed()),
+    			             PackedTurnState.collectedTrick(played));
     }
     
     /**
@@ -152,7 +176,7 @@ public final class TurnState {
      * @param team		team to which the melds belong to
      */
      public TurnState withNewMeld(MeldSet melds, TeamId team) {
-    	return new TurnState(score().meldPoints(melds, team), trick(), unplayedCards());
+    	return new TurnState(PackedScore.meldPoints(pkScore, melds, team), pkUnplayedCards, pkTrick);
     }
     
 }
\ No newline at end of file
@@ -0,0 +1,107 @@
+package ch.epfl.javass.jass;
+
+import java.util.SplittableRandom;
+
+/**
+ * @author GARANDEL.Eloi (SCIPER : 300326) / D'ETERNOD.Kilian (SCIPER : 296357)
+ * Zobrist hashing of the "packed" states of a turn (score, unplayed cards, trick)
+ * A random key is attached to every played card, to every card at every position of the trick, to the first player
+ * of the trick and to its trump; the hash of a state is the xor of its keys and of a mix of its score,
+ * so that it can be updated with a few xors when a card is played
+ */
+final class Zobrist {
+
+	private Zobrist() {}
+
+	private static final int CARD_SLOTS = 64; // packed cards are smaller than 64
+	private static final int TRICK_SIZE = 4;
+
+	private static final long[] PLAYED = new long[CARD_SLOTS];
+	private static final long[][] IN_TRICK = new long[TRICK_SIZE][CARD_SLOTS];
+	private static final long[] FIRST_PLAYER = new long[PlayerId.COUNT];
+	private static final long[] TRUMP = new long[Card.Color.COUNT];
+	private static final long TERMINAL;
+
+	static {
+		SplittableRandom rng = new SplittableRandom(0x2A55_2019L); // fixed, so that hashes are the same in every run
+		for(int c = 0; c < CARD_SLOTS; c++) {
+			PLAYED[c] = rng.nextLong();
+			for(int i = 0; i < TRICK_SIZE; i++) {
+				IN_TRICK[i][c] = rng.nextLong();
+			}
+		}
+		for(int p = 0; p < PlayerId.COUNT; p++) {
+			FIRST_PLAYER[p] = rng.nextLong();
+		}
+		for(int t = 0; t < Card.Color.COUNT; t++) {
+			TRUMP[t] = rng.nextLong();
+		}
+		TERMINAL = rng.nextLong();
+	}
+
+	/**
+	 * Computes the hash of the given state from scratch
+	 * @param pkScore		"packed" score
+	 * @param pkUnplayed	"packed" unplayed cards
+	 * @param pkTrick		"packed" trick, PackedTrick.INVALID at the end of the turn
+	 * @return long			hash of the state
+	 */
+	static long hash(long pkScore, long pkUnplayed, int pkTrick) {
+
+		long hash = scoreKey(pkScore);
+		long played = PackedCardSet.complement(pkUnplayed);
+		for(int c = PackedCardSet.first(played); c != PackedCard.INVALID; c = PackedCardSet.next(played, c)) {
+			hash ^= PLAYED[c];
+		}
+		return hash ^ trickKey(pkTrick);
+	}
+
+	/**
+	 * Returns the hash of the state reached by playing the given card, computed from the hash of the state before it
+	 * @param hash			hash of the state before the card
+	 * @param pkScore		"packed" score before the card
+	 * @param pkTrick		"packed" trick before the card
+	 * @param pkCard		"packed" card played
+	 * @param newScore		"packed" score after the card (and the collection of the trick if it was the last one)
+	 * @param newTrick		"packed" trick after the card (and the collection of the trick if it was the last one)
+	 * @return long			hash of the new state
+	 */
+	static long withCardPlayed(long hash, long pkScore, int pkTrick, int pkCard, long newScore, int newTrick) {
+
+		hash ^= PLAYED[pkCard];
+		int position = PackedTrick.size(pkTrick);
+		if(position < TRICK_SIZE - 1) {
+			return hash ^ IN_TRICK[position][pkCard];
+		}
+		// the trick was collected: its keys are replaced by the ones of the next trick
+		hash ^= trickKey(pkTrick) ^ trickKey(newTrick);
+		if(newScore != pkScore) {
+			hash ^= scoreKey(pkScore) ^ scoreKey(newScore);
+		}
+		return hash;
+	}
+
+	/**
+	 * Returns the xor of the keys of the given trick
+	 */
+	private static long trickKey(int pkTrick) {
+		if(pkTrick == PackedTrick.INVALID) {
+			return TERMINAL;
+		}
+		long key = FIRST_PLAYER[PackedTrick.player(pkTrick, 0).ordinal()] ^ TRUMP[PackedTrick.trump(pkTrick).ordinal()];
+		for(int i = 0; i < PackedTrick.size(pkTrick); i++) {
+			key ^= IN_TRICK[i][PackedTrick.card(pkTrick, i)];
+		}
+		return key;
+	}
+
+	/**
+	 * Mixes the bits of the score (finalizer of SplitMix64), two scores being unlikely to have correlated keys
+	 */
+	private static long scoreKey(long pkScore) {
+		long z = pkScore + 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}